@@ -0,0 +1,33 @@
+package com.devsuperior.dscatalog.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Conversores de mensagem para CBOR e Smile, usados quando o cliente envia
+// Accept (ou Content-Type) application/cbor ou application/x-jackson-smile.
+// O Spring Boot adiciona os beans HttpMessageConverter à lista do Spring MVC,
+// no lugar dos conversores padrão de mesma classe.
+// Como o formato de todo GET com corpo depende do Accept, essas respostas
+// levam Vary: Accept (varyBy nos controllers), para que caches HTTP não
+// entreguem CBOR a um cliente que pediu JSON.
+@Configuration
+public class JacksonConfig {
+
+    // O Jackson2ObjectMapperBuilder do Spring Boot já traz as mesmas configurações
+    // do ObjectMapper de JSON (módulos, datas, spring.jackson.*); só a fábrica muda.
+    // Cada injeção recebe um builder novo (o bean é prototype).
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -1,6 +1,7 @@
 package com.devsuperior.dscatalog.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -82,13 +83,16 @@ public class ResourceServerConfig {
 
 		// Tópico: Configurar controle de acesso aos recursos
 		// Configura as regras de autorização para as requisições HTTP.
-		http.authorizeHttpRequests(authorize ->
+		http.authorizeHttpRequests(authorize -> authorize
+				// As métricas (/actuator/metrics) expõem nomes de caches, consultas e
+				// volumes de acesso: apenas administradores podem lê-las.
+				.requestMatchers(EndpointRequest.to("metrics")).hasRole("ADMIN")
 				// Esta configuração permite que TODAS as requisições (anyRequest())
 				// acessem os recursos SEM NENHUMA AUTENTICAÇÃO ou AUTORIZAÇÃO.
 				// Ou seja, qualquer um pode acessar qualquer endpoint sem precisar de token.
 				// Se a intenção é proteger os endpoints e usar @PreAuthorize,
-				// esta linha deveria ser 'authorize.anyRequest().authenticated()'.
-				authorize.anyRequest().permitAll()
+				// esta linha deveria ser 'anyRequest().authenticated()'.
+				.anyRequest().permitAll()
 		);
 
 		// Tópico: Configurar token
@@ -0,0 +1,32 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+
+/**
+ * Quantidade de produtos de uma categoria que atendem ao filtro de nome
+ * da busca atual. Usado para exibir "(n)" ao lado de cada categoria.
+ */
+public class CategoryFacetDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long categoryId;
+    private Long count;
+
+    public CategoryFacetDTO(){
+
+    }
+
+    public CategoryFacetDTO(Long categoryId, Long count) {
+        this.categoryId = categoryId;
+        this.count = count;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Página retornada pela paginação por cursor (keyset).
+ *
+ * Diferente de Page, não possui número de página nem total de elementos:
+ * o cliente apenas envia de volta o nextCursor para buscar a próxima página.
+ * Quando nextCursor é null não existem mais registros.
+ */
+public class CursorPageDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+
+    public CursorPageDTO(){
+
+    }
+
+    public CursorPageDTO(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.devsuperior.dscatalog.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+/**
+ * Página da busca acompanhada das contagens por categoria (facets).
+ *
+ * Estende PageImpl para que o JSON continue igual ao de uma Page comum,
+ * apenas com o campo "facets" a mais.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<CategoryFacetDTO> facets;
+
+    public FacetedPage(Page<T> page, List<CategoryFacetDTO> facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public List<CategoryFacetDTO> getFacets() {
+        return facets;
+    }
+}
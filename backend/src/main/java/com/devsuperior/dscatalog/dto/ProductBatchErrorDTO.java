@@ -0,0 +1,36 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Erros de validação de um item de POST /products/batch.
+ *
+ * index é a posição do produto no array enviado (começando em 0).
+ */
+public class ProductBatchErrorDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+    private List<FieldMessage> errors;
+
+    public ProductBatchErrorDTO(){
+
+    }
+
+    public ProductBatchErrorDTO(int index, List<FieldMessage> errors) {
+        this.index = index;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public List<FieldMessage> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,47 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado de POST /products/batch.
+ *
+ * Os itens válidos são inseridos; os inválidos aparecem em errors e não
+ * impedem a inserção dos demais. ids segue a ordem dos itens válidos.
+ */
+public class ProductBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int received;
+    private int inserted;
+    private List<Long> ids;
+    private List<ProductBatchErrorDTO> errors;
+
+    public ProductBatchResultDTO(){
+
+    }
+
+    public ProductBatchResultDTO(int received, List<Long> ids, List<ProductBatchErrorDTO> errors) {
+        this.received = received;
+        this.inserted = ids.size();
+        this.ids = ids;
+        this.errors = errors;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public List<ProductBatchErrorDTO> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,73 @@
+package com.devsuperior.dscatalog.dto;
+
+import jakarta.validation.constraints.Positive;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corpo de PATCH /products/bulk.
+ *
+ * Filtro: produtos cujo nome contém name e, se categoryIds não estiver
+ * vazio, que pertencem a alguma das categorias informadas.
+ *
+ * Operações (ao menos uma):
+ * priceFactor                       → multiplica o preço (ex.: 1.05 = +5%)
+ * oldImgUrlPrefix + newImgUrlPrefix → troca o prefixo de imgUrl
+ */
+public class ProductBulkUpdateDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> categoryIds = new ArrayList<>();
+    private String name = "";
+    @Positive(message = "O fator de preço deve ser um valor positivo")
+    private Double priceFactor;
+    private String oldImgUrlPrefix;
+    private String newImgUrlPrefix;
+
+    public ProductBulkUpdateDTO(){
+
+    }
+
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(List<Long> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPriceFactor() {
+        return priceFactor;
+    }
+
+    public void setPriceFactor(Double priceFactor) {
+        this.priceFactor = priceFactor;
+    }
+
+    public String getOldImgUrlPrefix() {
+        return oldImgUrlPrefix;
+    }
+
+    public void setOldImgUrlPrefix(String oldImgUrlPrefix) {
+        this.oldImgUrlPrefix = oldImgUrlPrefix;
+    }
+
+    public String getNewImgUrlPrefix() {
+        return newImgUrlPrefix;
+    }
+
+    public void setNewImgUrlPrefix(String newImgUrlPrefix) {
+        this.newImgUrlPrefix = newImgUrlPrefix;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado de PATCH /products/bulk: IDs dos produtos alterados, em ordem crescente.
+ */
+public class ProductBulkUpdateResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int updated;
+    private List<Long> ids;
+
+    public ProductBulkUpdateResultDTO(){
+
+    }
+
+    public ProductBulkUpdateResultDTO(List<Long> ids) {
+        this.updated = ids.size();
+        this.ids = ids;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
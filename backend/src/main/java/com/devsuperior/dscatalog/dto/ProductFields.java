@@ -0,0 +1,103 @@
+package com.devsuperior.dscatalog.dto;
+
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campos de ProductDTO pedidos em ?fields= (sparse fieldsets).
+ *
+ * Exemplo: ?fields=name,price,imgUrl → {"id": 1, "name": "...", "price": 90.5, "imgUrl": "..."}
+ *
+ * - O id sempre é incluído.
+ * - Os campos saem na ordem de ProductDTO, não na ordem pedida.
+ * - Sem o parâmetro, todos os campos são devolvidos (ALL).
+ * - Sem description, as listagens nem leem essa coluna (TEXT) do banco.
+ */
+public final class ProductFields {
+
+    public static final List<String> NAMES = List.of("id", "name", "description", "price", "imgUrl", "date", "categories");
+
+    public static final ProductFields ALL = new ProductFields(Set.copyOf(NAMES));
+
+    private final Set<String> names;
+
+    private ProductFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Lê o parâmetro fields ("name,price"). Um campo desconhecido é uma
+     * requisição inválida (400).
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!NAMES.contains(name)) {
+                throw new InvalidRequestException("Campo desconhecido em fields: " + name);
+            }
+            names.add(name);
+        }
+        return names.size() == NAMES.size() ? ALL : new ProductFields(Set.copyOf(names));
+    }
+
+    public boolean isAll() {
+        return names.size() == NAMES.size();
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Os campos pedidos na ordem de NAMES, separados por "+" (ex.: "id+name+price"),
+     * usado no ETag de cada representação.
+     */
+    public String key() {
+        StringBuilder key = new StringBuilder();
+        for (String name : NAMES) {
+            if (names.contains(name)) {
+                key.append(key.isEmpty() ? "" : "+").append(name);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Apenas os campos pedidos do produto, na ordem de NAMES.
+     */
+    public Map<String, Object> select(ProductDTO dto) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : NAMES) {
+            if (names.contains(name)) {
+                result.put(name, value(dto, name));
+            }
+        }
+        return result;
+    }
+
+    private static Object value(ProductDTO dto, String name) {
+        return switch (name) {
+            case "id" -> dto.getId();
+            case "name" -> dto.getName();
+            case "description" -> dto.getDescription();
+            case "price" -> dto.getPrice();
+            case "imgUrl" -> dto.getImgUrl();
+            case "date" -> dto.getDate();
+            case "categories" -> dto.getCategories();
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.devsuperior.dscatalog.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Situação de uma importação de CSV (POST /products/import).
+ *
+ * rowsRead conta as linhas de dados já lidas do arquivo; inserted, as que
+ * já foram gravadas (com commit); rejected, as que falharam na validação.
+ * errors traz os primeiros erros, com index = número da linha de dados
+ * (começando em 1, sem contar o cabeçalho).
+ */
+public class ProductImportStatusDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private String id;
+    private String fileName;
+    private Status status;
+    private int rowsRead;
+    private int inserted;
+    private int rejected;
+    private List<ProductBatchErrorDTO> errors;
+    private String message;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public ProductImportStatusDTO(){
+
+    }
+
+    public ProductImportStatusDTO(String id, String fileName, Status status, int rowsRead, int inserted,
+                                  int rejected, List<ProductBatchErrorDTO> errors, String message,
+                                  Instant startedAt, Instant finishedAt) {
+        this.id = id;
+        this.fileName = fileName;
+        this.status = status;
+        this.rowsRead = rowsRead;
+        this.inserted = inserted;
+        this.rejected = rejected;
+        this.errors = errors;
+        this.message = message;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<ProductBatchErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
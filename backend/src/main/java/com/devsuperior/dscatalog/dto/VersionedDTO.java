@@ -0,0 +1,24 @@
+package com.devsuperior.dscatalog.dto;
+
+/**
+ * Resultado de uma alteração junto com o ETag da nova versão, lido na mesma
+ * transação, para o cabeçalho ETag da resposta de PUT.
+ */
+public class VersionedDTO<T> {
+
+    private final T value;
+    private final String etag;
+
+    public VersionedDTO(T value, String etag) {
+        this.value = value;
+        this.etag = etag;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
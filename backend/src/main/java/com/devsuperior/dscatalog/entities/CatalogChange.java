@@ -0,0 +1,61 @@
+package com.devsuperior.dscatalog.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Registro de alteração do catálogo (tb_catalog_change): qual produto ou
+ * categoria mudou e em qual commit (tb_catalog_commit, que guarda a versão
+ * de tb_catalog_version).
+ *
+ * Gravado por CatalogVersionService na mesma transação que incrementa a
+ * versão, antes do incremento. Um nó que reinicia a partir do arquivo de índice (marcado com a
+ * versão em que foi gerado) relê do banco apenas os produtos registrados
+ * com versão maior, em vez do catálogo inteiro.
+ *
+ * Uma linha por produto ou categoria alterado em cada transação; apenas
+ * um dos dois ids é preenchido.
+ */
+@Entity
+@Table(name = "tb_catalog_change",
+        indexes = @Index(name = "idx_catalog_change_commit", columnList = "commit_id"))
+public class CatalogChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_change_seq")
+    @SequenceGenerator(name = "catalog_change_seq", sequenceName = "tb_catalog_change_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "commit_id")
+    private long commitId;
+    private Long productId;
+    private Long categoryId;
+
+    public CatalogChange(){
+
+    }
+
+    public CatalogChange(long commitId, Long productId, Long categoryId) {
+        this.commitId = commitId;
+        this.productId = productId;
+        this.categoryId = categoryId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getCommitId() {
+        return commitId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscatalog.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Commit de uma transação que alterou o catálogo (tb_catalog_commit), com a
+ * versão de tb_catalog_version que ela gerou.
+ *
+ * Os registros de tb_catalog_change apontam para o seu commit. A linha é
+ * criada (sem versão) junto com eles, antes do incremento do contador, e
+ * recebe a versão logo depois dele: com a linha do contador bloqueada, a
+ * transação grava só esse valor, e não os milhares de registros de uma
+ * carga em lote.
+ */
+@Entity
+@Table(name = "tb_catalog_commit",
+        indexes = @Index(name = "idx_catalog_commit_version", columnList = "version"))
+public class CatalogCommit implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_commit_seq")
+    @SequenceGenerator(name = "catalog_commit_seq", sequenceName = "tb_catalog_commit_seq", allocationSize = 50)
+    private Long id;
+    private Long version;
+
+    public CatalogCommit(){
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
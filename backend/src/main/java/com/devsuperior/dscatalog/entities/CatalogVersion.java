@@ -0,0 +1,49 @@
+package com.devsuperior.dscatalog.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+
+/**
+ * Contador global do catálogo, em uma tabela de uma única linha (id = 1).
+ *
+ * É incrementado uma vez por transação que altera produtos ou categorias
+ * (CatalogVersionService) e forma o ETag das listagens, como GET /categories
+ * e GET /products: se o contador não mudou, nenhuma listagem mudou.
+ *
+ * database_id é um UUID gerado junto com a linha: identifica o banco em que
+ * a versão foi contada, para que um arquivo de índice (IndexSnapshotFile)
+ * gerado a partir de outro banco não seja usado.
+ */
+@Entity
+@Table(name = "tb_catalog_version")
+public class CatalogVersion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+    private long version;
+
+    @Column(length = 36)
+    private String databaseId;
+
+    public CatalogVersion(){
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getDatabaseId() {
+        return databaseId;
+    }
+}
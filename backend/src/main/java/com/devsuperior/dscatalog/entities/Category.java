@@ -27,6 +27,12 @@ public class Category implements Serializable {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
 
+    // Incrementada pelo Hibernate a cada alteração. Forma o ETag de GET /categories/{id}
+    // e, somada nos produtos da categoria, o ETag de GET /products/{id}.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToMany(mappedBy = "categories")
     private Set<Product> products = new HashSet<>();
 
@@ -54,6 +60,10 @@ public class Category implements Serializable {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
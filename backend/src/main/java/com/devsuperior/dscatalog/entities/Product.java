@@ -10,7 +10,9 @@ import java.util.Set;
 
 @Entity
 //Define o nome da tabela do banco de dados
-@Table(name = "tb_product")
+@Table(name = "tb_product",
+        // Índice usado pela paginação por cursor, que ordena e posiciona por (name, id)
+        indexes = @Index(name = "idx_product_name_id", columnList = "name, id"))
 public class Product implements Serializable, IdProjection<Long> {
 
     private static final long serialVersionUID = 1L;
@@ -18,7 +20,13 @@ public class Product implements Serializable, IdProjection<Long> {
     //Definindo o id da tabela tb_category
     @Id
     //Gera automaticamente o número do Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //
+    // Sequência com alocação em blocos (pooled-lo): cada chamada à sequência
+    // reserva 50 IDs, então o Hibernate conhece o ID antes do INSERT e pode
+    // agrupar os INSERTs em lotes JDBC (com IDENTITY cada INSERT é executado
+    // na hora, um por vez, para o banco devolver o ID).
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "tb_product_seq", allocationSize = 50)
     private Long id;
     private String name;
     //Essa anotação permite textos longos
@@ -30,6 +38,12 @@ public class Product implements Serializable, IdProjection<Long> {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant date;
 
+    // Incrementada pelo Hibernate a cada alteração (inclusive das categorias do produto).
+    // Forma o ETag de GET /products/{id} e impede que um UPDATE sobrescreva outro (lost update).
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToMany
     @JoinTable(name = "tb_product_category",
     //nome das chaves estrangeiros da tabela tb_product_category
@@ -103,6 +117,10 @@ public class Product implements Serializable, IdProjection<Long> {
         this.date = date;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
@@ -0,0 +1,109 @@
+package com.devsuperior.dscatalog.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Modelo de leitura da listagem de produtos (tb_product_read): uma linha por
+ * produto, com as categorias já agregadas e o nome normalizado para a busca.
+ *
+ * - category_ids:   ",1,3,"            (categorias do DTO, com category_names)
+ * - category_names: "Livros|Computadores" (mesma ordem de category_ids; o
+ *                   separador real é o caractere de controle U+001F, que não
+ *                   aparece em nomes)
+ * - search_name:    Utils.normalize(name), comparado com o termo normalizado
+ * - tb_product_read_category: uma linha (product_id, category_id) por
+ *                   categoria, para o filtro por categoria pelo índice
+ *                   (category_id, product_id)
+ *
+ * A listagem passa a ser a leitura de uma única tabela (o filtro por
+ * categoria é um IN sobre o índice de tb_product_read_category), sem DISTINCT
+ * e sem JOIN FETCH de tb_category.
+ *
+ * Mantida por ProductReadModelService; nunca é alterada pelo JPA, que só a
+ * usa para gerar a tabela (ddl-auto) no perfil de testes.
+ */
+@Entity
+@Table(name = "tb_product_read",
+        indexes = {
+                @Index(name = "idx_product_read_name_id", columnList = "name, id"),
+                @Index(name = "idx_product_read_price", columnList = "price"),
+                @Index(name = "idx_product_read_date", columnList = "date")
+        })
+public class ProductRead implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+    private String name;
+    private String searchName;
+    @Column(columnDefinition = "TEXT")
+    private String description;
+    private Double price;
+    private String imgUrl;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant date;
+
+    @Column(columnDefinition = "TEXT")
+    private String categoryIds;
+
+    @Column(columnDefinition = "TEXT")
+    private String categoryNames;
+
+    @ElementCollection
+    @CollectionTable(name = "tb_product_read_category",
+            joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "idx_product_read_category", columnList = "category_id, product_id"))
+    @Column(name = "category_id")
+    private Set<Long> categories = new HashSet<>();
+
+    public ProductRead(){
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSearchName() {
+        return searchName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public String getCategoryIds() {
+        return categoryIds;
+    }
+
+    public String getCategoryNames() {
+        return categoryNames;
+    }
+
+    public Set<Long> getCategories() {
+        return categories;
+    }
+}
@@ -0,0 +1,41 @@
+package com.devsuperior.dscatalog.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+
+/**
+ * Estado de tb_product_read, em uma tabela de uma única linha (id = 1).
+ *
+ * version é a versão de tb_catalog_version até a qual a tabela de leitura
+ * foi sincronizada na última inicialização; null enquanto ela nunca foi
+ * construída. As alterações com versão maior são relidas de
+ * tb_catalog_change pela próxima inicialização (ProductReadModelService).
+ *
+ * A linha também serve de bloqueio: a sincronização de um nó que inicia
+ * espera a de outro nó que esteja em andamento.
+ */
+@Entity
+@Table(name = "tb_product_read_state")
+public class ProductReadState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+    private Long version;
+
+    public ProductReadState(){
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -1,5 +1,6 @@
 package com.devsuperior.dscatalog.entities;
 
+import com.devsuperior.dscatalog.projections.IdProjection;
 import jakarta.persistence.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,7 +14,7 @@ import java.util.*;
 @Table(name = "tb_user")
 // A classe User implementa UserDetails, uma interface do Spring Security que fornece informações essenciais do usuário
 // (como credenciais, autoridades e status da conta) para o framework de segurança.
-public class User implements UserDetails {
+public class User implements UserDetails, IdProjection<Long> {
     private static final long serialVersionUID = 1L;
 
     // @Id: Define que o campo id é a chave primária da tabela.
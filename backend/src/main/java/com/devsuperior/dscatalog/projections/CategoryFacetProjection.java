@@ -0,0 +1,7 @@
+package com.devsuperior.dscatalog.projections;
+
+// Quantidade de produtos encontrados por categoria.
+public interface CategoryFacetProjection {
+    Long getCategoryId();
+    Long getTotal();
+}
@@ -0,0 +1,12 @@
+package com.devsuperior.dscatalog.projections;
+
+import java.time.Instant;
+
+// Linha usada para montar os índices de busca em memória.
+// Cada linha representa um par (produto, categoria).
+public interface ProductIndexProjection extends IdProjection<Long> {
+    String getName();
+    Double getPrice();
+    Instant getDate();
+    Long getCategoryId();
+}
@@ -0,0 +1,9 @@
+package com.devsuperior.dscatalog.projections;
+
+// Linha usada para montar o índice full-text.
+// Cada linha representa um par (produto, categoria) com o texto do produto.
+public interface ProductTextProjection extends IdProjection<Long> {
+    String getName();
+    String getDescription();
+    Long getCategoryId();
+}
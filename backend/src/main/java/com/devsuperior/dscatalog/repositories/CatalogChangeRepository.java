@@ -0,0 +1,31 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.CatalogChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT DISTINCT obj.productId FROM CatalogChange obj "
+            + "WHERE obj.productId IS NOT NULL AND obj.commitId IN "
+            + "(SELECT c.id FROM CatalogCommit c WHERE c.version > :version)")
+    List<Long> findProductIdsChangedAfter(long version);
+
+    @Query("SELECT DISTINCT obj.categoryId FROM CatalogChange obj "
+            + "WHERE obj.categoryId IS NOT NULL AND obj.commitId IN "
+            + "(SELECT c.id FROM CatalogCommit c WHERE c.version > :version)")
+    List<Long> findCategoryIdsChangedAfter(long version);
+
+    // Participa da transação de quem chamou; sem transação, roda em uma própria.
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogChange obj WHERE obj.commitId IN "
+            + "(SELECT c.id FROM CatalogCommit c WHERE c.version <= :version)")
+    int deleteUpTo(long version);
+}
@@ -0,0 +1,23 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.CatalogCommit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CatalogCommitRepository extends JpaRepository<CatalogCommit, Long> {
+
+    // Participa da transação de quem chamou; sem transação, roda em uma própria.
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogCommit obj SET obj.version = :version WHERE obj.id = :id")
+    int stamp(Long id, long version);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogCommit obj WHERE obj.version <= :version")
+    int deleteUpTo(long version);
+}
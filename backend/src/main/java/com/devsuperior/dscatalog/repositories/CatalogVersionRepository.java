@@ -0,0 +1,24 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    @Query("SELECT obj.version FROM CatalogVersion obj WHERE obj.id = 1")
+    long current();
+
+    @Query("SELECT obj.databaseId FROM CatalogVersion obj WHERE obj.id = 1")
+    String databaseId();
+
+    // Participa da transação de quem chamou; sem transação, roda em uma própria.
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogVersion obj SET obj.version = obj.version + 1 WHERE obj.id = 1")
+    int increment();
+}
@@ -2,8 +2,11 @@ package com.devsuperior.dscatalog.repositories; // Declaração do pacote onde a
 
 import com.devsuperior.dscatalog.entities.Category; // Importa a classe da entidade Category.
 import org.springframework.data.jpa.repository.JpaRepository; // Importa a interface base do Spring Data JPA para repositórios.
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository; // Importa a anotação @Repository.
 
+import java.util.Optional;
+
 // @Repository: Indica que esta interface é um componente de repositório do Spring,
 // responsável por operações de acesso a dados para a entidade Category.
 @Repository
@@ -12,4 +15,8 @@ import org.springframework.stereotype.Repository; // Importa a anotação @Repos
 // Estende JpaRepository, fornecendo métodos CRUD (Create, Read, Update, Delete)
 // e paginação para a entidade Category, onde Category é o tipo da entidade e Long é o tipo do ID.
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Apenas a versão (ETag de GET /categories/{id}), sem carregar a entidade.
+    @Query("SELECT obj.version FROM Category obj WHERE obj.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.entities.ProductRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductReadRepository extends JpaRepository<ProductRead, Long>, ProductReadRepositoryCustom {
+}
@@ -0,0 +1,60 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Leitura e manutenção de tb_product_read em SQL (JDBC).
+ *
+ * A implementação fica em ProductReadRepositoryCustomImpl e é combinada
+ * automaticamente pelo Spring Data com ProductReadRepository.
+ */
+public interface ProductReadRepositoryCustom {
+
+    /**
+     * Mesma listagem de ProductRepository.searchProductsSingleQuery (e, com
+     * allCategories = true, de searchProductsInRange sem faixas), lida apenas
+     * de tb_product_read. O nome é comparado já normalizado (Utils.normalize).
+     *
+     * @param withDescription
+     * false: a coluna description não é lida e fica null nos DTOs.
+     * @param knownTotal
+     * Total já conhecido para o filtro; quando informado, o banco não conta.
+     */
+    Page<ProductDTO> search(List<Long> categoryIds, boolean allCategories, String name,
+                            boolean withDescription, Pageable pageable, Long knownTotal);
+
+    /**
+     * Substitui as linhas dos produtos ids pelas de products (o estado atual
+     * deles). Um id sem produto correspondente (excluído) só é removido.
+     * Produtos sem categoria não entram na tabela, pois não aparecem na listagem.
+     */
+    void replace(Collection<Long> ids, List<ProductDTO> products);
+
+    /**
+     * Remove todas as linhas de tb_product_read e tb_product_read_category
+     * (usado na reconstrução completa).
+     */
+    void deleteAllRows();
+
+    /**
+     * INSERT em lote das linhas de products (usado na reconstrução completa).
+     */
+    void insertAll(List<ProductDTO> products);
+
+    /**
+     * Versão do catálogo até a qual a tabela foi sincronizada (null se nunca
+     * foi construída). Bloqueia a linha de tb_product_read_state até o fim
+     * da transação atual.
+     */
+    Long lockSynchronizedVersion();
+
+    /**
+     * Registra, na transação atual, a versão até a qual a tabela foi sincronizada.
+     */
+    void markSynchronized(long version);
+}
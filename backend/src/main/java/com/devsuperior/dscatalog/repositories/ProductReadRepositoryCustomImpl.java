@@ -0,0 +1,211 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.util.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+/**
+ * Implementação das consultas declaradas em ProductReadRepositoryCustom.
+ *
+ * Usa NamedParameterJdbcTemplate, que participa da mesma transação
+ * (e da mesma conexão) aberta pelo JPA na camada de serviço.
+ */
+public class ProductReadRepositoryCustomImpl implements ProductReadRepositoryCustom {
+
+    // As datas são gravadas em UTC, como em tb_product.
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    // Separa os nomes das categorias em category_names (Unit Separator do ASCII).
+    private static final String SEPARATOR = "\u001F";
+
+    private static final String INSERT = """
+            INSERT INTO tb_product_read
+                (id, name, search_name, description, price, img_url, date, category_ids, category_names)
+            VALUES
+                (:id, :name, :searchName, :description, :price, :imgUrl, :date, :categoryIds, :categoryNames)
+            """;
+
+    private static final String INSERT_CATEGORY =
+            "INSERT INTO tb_product_read_category (product_id, category_id) VALUES (:productId, :categoryId)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Uma única tabela: cada linha já é um produto completo, então não há
+     * DISTINCT nem agrupamento de linhas. O filtro de categorias é um IN
+     * sobre tb_product_read_category, servido pelo índice
+     * (category_id, product_id); com allCategories, o produto precisa ter
+     * todas as categorias (HAVING COUNT(*) = número de categorias).
+     * O total vem junto da página, com COUNT(*) OVER ().
+     */
+    @Override
+    public Page<ProductDTO> search(List<Long> categoryIds, boolean allCategories, String name,
+                                   boolean withDescription, Pageable pageable, Long knownTotal) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource("name", "%" + Utils.escapeLike(Utils.normalize(name)) + "%");
+
+        StringBuilder filters = new StringBuilder();
+        if (!categoryIds.isEmpty()) {
+            Set<Long> distinct = new TreeSet<>(categoryIds);
+            params.addValue("categoryIds", distinct);
+            filters.append(" AND id IN (SELECT product_id FROM tb_product_read_category"
+                    + " WHERE category_id IN (:categoryIds)");
+            if (allCategories && distinct.size() > 1) {
+                params.addValue("categoryCount", distinct.size());
+                filters.append(" GROUP BY product_id HAVING COUNT(*) = :categoryCount");
+            }
+            filters.append(")");
+        }
+        String where = filters.toString();
+
+        String limit = "";
+        if (pageable.isPaged()) {
+            limit = "LIMIT :limit OFFSET :offset";
+            params.addValue("limit", pageable.getPageSize());
+            params.addValue("offset", pageable.getOffset());
+        }
+
+        // Com o total já conhecido, o banco não precisa contar os filtrados.
+        String total = knownTotal == null ? "COUNT(*) OVER ()" : "0";
+
+        String sql = """
+                SELECT id, name, %s AS description, price, img_url, date,
+                       category_ids, category_names, %s AS total
+                FROM tb_product_read
+                WHERE search_name LIKE :name ESCAPE '\\'%s
+                ORDER BY %s
+                %s
+                """.formatted(withDescription ? "description" : "NULL", total, where,
+                ProductRepositoryCustomImpl.orderBy("tb_product_read", pageable.getSort()), limit);
+
+        List<ProductDTO> products = new ArrayList<>();
+        long[] totalElements = {knownTotal == null ? 0L : knownTotal};
+        Calendar utc = Calendar.getInstance(UTC);
+
+        jdbcTemplate.query(sql, params, rs -> {
+            Timestamp date = rs.getTimestamp("date", utc);
+            ProductDTO dto = new ProductDTO(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                    rs.getObject("price", Double.class), rs.getString("img_url"),
+                    date == null ? null : date.toInstant());
+            addCategories(dto, rs.getString("category_ids"), rs.getString("category_names"));
+            products.add(dto);
+            if (knownTotal == null) {
+                totalElements[0] = rs.getLong("total");
+            }
+        });
+
+        // Página além do fim: nenhuma linha volta e o total não é conhecido.
+        if (knownTotal == null && products.isEmpty() && pageable.isPaged() && pageable.getOffset() > 0) {
+            Long count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM tb_product_read WHERE search_name LIKE :name ESCAPE '\\'" + where, params, Long.class);
+            totalElements[0] = count == null ? 0L : count;
+        }
+
+        return new PageImpl<>(products, pageable, totalElements[0]);
+    }
+
+    @Override
+    public void replace(Collection<Long> ids, List<ProductDTO> products) {
+        // Em blocos, para não passar do limite de parâmetros do driver.
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += 1000) {
+            List<Long> chunk = list.subList(from, Math.min(from + 1000, list.size()));
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", chunk);
+            jdbcTemplate.update("DELETE FROM tb_product_read_category WHERE product_id IN (:ids)", params);
+            jdbcTemplate.update("DELETE FROM tb_product_read WHERE id IN (:ids)", params);
+        }
+        insertAll(products);
+    }
+
+    @Override
+    public void deleteAllRows() {
+        jdbcTemplate.update("DELETE FROM tb_product_read_category", new MapSqlParameterSource());
+        jdbcTemplate.update("DELETE FROM tb_product_read", new MapSqlParameterSource());
+    }
+
+    @Override
+    public void insertAll(List<ProductDTO> products) {
+        List<MapSqlParameterSource> rows = new ArrayList<>(products.size());
+        List<MapSqlParameterSource> categoryRows = new ArrayList<>(products.size());
+        for (ProductDTO dto : products) {
+            if (!dto.getCategories().isEmpty()) {
+                rows.add(row(dto));
+                Set<Long> categoryIds = new LinkedHashSet<>();
+                dto.getCategories().forEach(category -> categoryIds.add(category.getId()));
+                for (Long categoryId : categoryIds) {
+                    categoryRows.add(new MapSqlParameterSource()
+                            .addValue("productId", dto.getId())
+                            .addValue("categoryId", categoryId));
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows.toArray(new MapSqlParameterSource[0]));
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY, categoryRows.toArray(new MapSqlParameterSource[0]));
+        }
+    }
+
+    @Override
+    public Long lockSynchronizedVersion() {
+        // FOR UPDATE: uma segunda inicialização espera o fim desta.
+        return jdbcTemplate.queryForObject("SELECT version FROM tb_product_read_state WHERE id = 1 FOR UPDATE",
+                new MapSqlParameterSource(), Long.class);
+    }
+
+    @Override
+    public void markSynchronized(long version) {
+        jdbcTemplate.update("UPDATE tb_product_read_state SET version = :version WHERE id = 1",
+                new MapSqlParameterSource("version", version));
+    }
+
+    private static MapSqlParameterSource row(ProductDTO dto) {
+        StringBuilder categoryIds = new StringBuilder(",");
+        StringJoiner categoryNames = new StringJoiner(SEPARATOR);
+        for (CategoryDTO category : dto.getCategories()) {
+            categoryIds.append(category.getId()).append(',');
+            categoryNames.add(Objects.toString(category.getName(), ""));
+        }
+        return new MapSqlParameterSource()
+                .addValue("id", dto.getId())
+                .addValue("name", dto.getName())
+                .addValue("searchName", Utils.normalize(dto.getName()))
+                .addValue("description", dto.getDescription())
+                .addValue("price", dto.getPrice())
+                .addValue("imgUrl", dto.getImgUrl())
+                .addValue("date", dto.getDate() == null ? null : LocalDateTime.ofInstant(dto.getDate(), ZoneOffset.UTC))
+                .addValue("categoryIds", categoryIds.toString())
+                .addValue("categoryNames", categoryNames.toString());
+    }
+
+    // ",1,3," + "Livros<US>Computadores" → [CategoryDTO(1, Livros), CategoryDTO(3, Computadores)]
+    private static void addCategories(ProductDTO dto, String categoryIds, String categoryNames) {
+        String[] names = categoryNames.split(SEPARATOR, -1);
+        int position = 0;
+        for (String id : categoryIds.split(",")) {
+            if (!id.isEmpty()) {
+                dto.getCategories().add(new CategoryDTO(Long.parseLong(id), names[position++]));
+            }
+        }
+    }
+}
@@ -4,11 +4,15 @@ package com.devsuperior.dscatalog.repositories;
 import com.devsuperior.dscatalog.entities.Product;
 
 // Importa a projeção utilizada para retornar apenas os campos necessários da consulta.
+import com.devsuperior.dscatalog.projections.CategoryFacetProjection;
+import com.devsuperior.dscatalog.projections.ProductIndexProjection;
 import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.projections.ProductTextProjection;
 
 // Classes utilizadas para paginação.
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 // Interface base do Spring Data JPA que fornece métodos CRUD prontos.
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,6 +24,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository responsável pelas operações de acesso aos dados da entidade Product.
@@ -34,9 +39,15 @@ import java.util.List;
  * existsById()
  *
  * sem precisar implementá-los manualmente.
+ *
+ * As consultas com SQL montado em código ficam em ProductRepositoryCustom.
+ *
+ * Nos filtros por nome, o termo passa por escape(#name) (SpEL do Spring Data,
+ * com '\' como caractere de escape): % e _ digitados na busca são comparados
+ * literalmente, como em ProductFilter.matches e nos índices em memória.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     /**
      * Consulta paginada de produtos com filtros opcionais por:
@@ -68,7 +79,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                 INNER JOIN tb_product_category
                     ON tb_product.id = tb_product_category.product_id
                 WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN :categoryIds)
-                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
                 ORDER BY tb_product.name
             ) AS tb_result
             """,
@@ -79,7 +90,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                 INNER JOIN tb_product_category
                     ON tb_product.id = tb_product_category.product_id
                 WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN :categoryIds)
-                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
             ) AS tb_result
             """
     )
@@ -88,6 +99,88 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             String name,
             Pageable pageable
     );
+    /**
+     * Mesma consulta de searchProducts, porém retornando Slice.
+     *
+     * Com Slice o Spring Data não executa a countQuery: busca apenas
+     * pageSize + 1 registros para saber se existe uma próxima página.
+     * Usada quando o cliente não precisa do total ou quando o total
+     * já está em cache (SearchTotalsCache).
+     */
+    @Query(
+            nativeQuery = true,
+            value = """
+            SELECT * FROM (
+                SELECT DISTINCT tb_product.id, tb_product.name
+                FROM tb_product
+                INNER JOIN tb_product_category
+                    ON tb_product.id = tb_product_category.product_id
+                WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN :categoryIds)
+                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
+                ORDER BY tb_product.name
+            ) AS tb_result
+            """
+    )
+    Slice<ProductProjection> searchProductsSlice(
+            List<Long> categoryIds,
+            String name,
+            Pageable pageable
+    );
+
+    /**
+     * Apenas a contagem de searchProducts (a mesma countQuery).
+     *
+     * Permite contar em paralelo com a busca da página, em outra conexão.
+     */
+    @Query(
+            nativeQuery = true,
+            value = """
+            SELECT COUNT(*) FROM (
+                SELECT DISTINCT tb_product.id, tb_product.name
+                FROM tb_product
+                INNER JOIN tb_product_category
+                    ON tb_product.id = tb_product_category.product_id
+                WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN :categoryIds)
+                AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
+            ) AS tb_result
+            """
+    )
+    long countProducts(List<Long> categoryIds, String name);
+
+    /**
+     * Paginação por cursor (keyset) da mesma busca de searchProducts.
+     *
+     * Em vez de OFFSET, que obriga o banco a percorrer e descartar todas as
+     * linhas das páginas anteriores, a consulta continua exatamente após o
+     * último produto entregue, comparando o par (name, id):
+     *
+     * (tb_product.name, tb_product.id) > (:afterName, :afterId)
+     *
+     * Com o índice idx_product_name_id o banco posiciona direto na próxima
+     * página, então o custo é o mesmo em qualquer profundidade. Também não
+     * existe consulta de contagem.
+     *
+     * O id entra na ordenação para desempatar produtos com o mesmo nome.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT tb_product.id, tb_product.name
+            FROM tb_product
+            INNER JOIN tb_product_category
+                ON tb_product.id = tb_product_category.product_id
+            WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN :categoryIds)
+            AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
+            AND (tb_product.name, tb_product.id) > (:afterName, :afterId)
+            ORDER BY tb_product.name, tb_product.id
+            LIMIT :limit
+            """)
+    List<ProductProjection> searchProductsAfter(
+            List<Long> categoryIds,
+            String name,
+            String afterName,
+            Long afterId,
+            int limit
+    );
+
     /**
      * Busca os produtos juntamente com suas categorias.
      *
@@ -120,12 +213,96 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * obj.id IN :productIds
      *
      * garante que apenas os produtos da página atual sejam carregados.
+     *
+     * Não há ORDER BY: o BatchHydrator chama esta consulta em lotes de
+     * tamanho fixo e remonta o resultado na ordem da página.
      */
     @Query("""
             SELECT obj
             FROM Product obj
             JOIN FETCH obj.categories
-            WHERE obj.id IN :productIds ORDER BY obj.name
+            WHERE obj.id IN :productIds
             """)
     List<Product> searchProductsWithCategories(List<Long> productIds);
-}
\ No newline at end of file
+
+    /**
+     * Lista todos os pares (produto, categoria) para montar os índices
+     * de busca em memória na inicialização da aplicação.
+     *
+     * Assim como searchProducts, usa INNER JOIN: produtos sem categoria
+     * não aparecem na listagem e, portanto, também não são indexados.
+     *
+     * Usa JPQL para que a data volte como Instant, com o mesmo tipo da entidade.
+     */
+    @Query("""
+            SELECT obj.id AS id, obj.name AS name, obj.price AS price, obj.date AS date,
+                   cat.id AS categoryId
+            FROM Product obj
+            INNER JOIN obj.categories cat
+            """)
+    List<ProductIndexProjection> searchAllForIndex();
+
+    /**
+     * Conta, em uma única consulta, quantos produtos de cada categoria
+     * atendem ao filtro de nome (facets da busca).
+     *
+     * Substitui uma busca com contagem por categoria: o GROUP BY devolve
+     * todas as categorias de uma vez.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product_category.category_id AS categoryId, COUNT(*) AS total
+            FROM tb_product
+            INNER JOIN tb_product_category
+                ON tb_product.id = tb_product_category.product_id
+            WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'
+            GROUP BY tb_product_category.category_id
+            ORDER BY tb_product_category.category_id
+            """)
+    List<CategoryFacetProjection> countByCategory(String name);
+
+    /**
+     * Lista os pares (produto, categoria) de uma faixa de IDs com o texto
+     * do produto, para a reconstrução do índice full-text.
+     *
+     * Cada faixa é lida por uma thread diferente durante a reconstrução.
+     * O CAST faz a coluna TEXT voltar como String também no H2 (que a trata como CLOB).
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT tb_product.id, tb_product.name, CAST(tb_product.description AS VARCHAR) AS description,
+                   tb_product_category.category_id AS categoryId
+            FROM tb_product
+            INNER JOIN tb_product_category
+                ON tb_product.id = tb_product_category.product_id
+            WHERE tb_product.id BETWEEN :fromId AND :toId
+            ORDER BY tb_product.id
+            """)
+    List<ProductTextProjection> searchTextForIndex(Long fromId, Long toId);
+
+    @Query(nativeQuery = true, value = "SELECT COALESCE(MAX(id), 0) FROM tb_product")
+    long findMaxId();
+
+    /**
+     * Versão do produto e a soma das versões de suas categorias, no formato
+     * "3.7" (o mesmo de ETags.product). Usada para responder GET condicionais
+     * (If-None-Match) sem carregar a entidade: muda quando o produto muda e
+     * quando uma de suas categorias é renomeada.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT CONCAT(tb_product.version, '.', COALESCE(SUM(tb_category.version), 0))
+            FROM tb_product
+            LEFT JOIN tb_product_category
+                ON tb_product_category.product_id = tb_product.id
+            LEFT JOIN tb_category
+                ON tb_category.id = tb_product_category.category_id
+            WHERE tb_product.id = :id
+            GROUP BY tb_product.id, tb_product.version
+            """)
+    Optional<String> findVersionTag(Long id);
+
+    /**
+     * IDs dos produtos de uma categoria. Usada para atualizar tb_product_read
+     * quando a categoria é renomeada.
+     */
+    @Query(nativeQuery = true, value = "SELECT product_id FROM tb_product_category WHERE category_id = :categoryId")
+    List<Long> findIdsByCategory(Long categoryId);
+}
@@ -0,0 +1,84 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas de ProductRepository que precisam de SQL montado em código
+ * (ordenação dinâmica, listas IN opcionais) e, por isso, não cabem em @Query.
+ *
+ * A implementação fica em ProductRepositoryCustomImpl e é combinada
+ * automaticamente pelo Spring Data com ProductRepository.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Mesma busca de searchProducts, porém em uma única ida ao banco:
+     * a página, as categorias de cada produto e o total de elementos
+     * voltam na mesma consulta.
+     */
+    Page<ProductDTO> searchProductsSingleQuery(List<Long> categoryIds, String name, Pageable pageable);
+
+    /**
+     * Variante que recebe o total já conhecido (por exemplo, vindo de cache).
+     * Quando knownTotal não é null, o COUNT(*) OVER () não é calculado.
+     */
+    Page<ProductDTO> searchProductsSingleQuery(List<Long> categoryIds, String name, Pageable pageable, Long knownTotal);
+
+    /**
+     * Mesma consulta única, com filtros opcionais de faixa de preço e de data
+     * (limites inclusivos; null = sem limite).
+     *
+     * Com allCategories = true o produto precisa pertencer a todas as
+     * categorias informadas, e não a pelo menos uma delas.
+     */
+    Page<ProductDTO> searchProductsInRange(List<Long> categoryIds, boolean allCategories, String name,
+                                           Double minPrice, Double maxPrice,
+                                           Instant from, Instant to, Pageable pageable);
+
+    /**
+     * Percorre o catálogo inteiro, em ordem de id, com um cursor somente
+     * para frente: o driver busca fetchSize linhas por vez e cada produto
+     * é entregue ao consumer assim que todas as suas categorias são lidas.
+     *
+     * Nenhuma lista é montada; apenas o produto atual fica em memória.
+     * Deve ser chamado dentro de uma transação (no PostgreSQL o fetch size
+     * só é respeitado com autocommit desligado).
+     */
+    void streamCatalog(int fetchSize, Consumer<ProductDTO> consumer);
+
+    /**
+     * Produtos informados, com suas categorias, em ordem de id, lidos direto
+     * das tabelas (sem carregar entidades).
+     */
+    List<ProductDTO> findAllWithCategories(Collection<Long> ids);
+
+    /**
+     * Igual a findAllWithCategories; com withDescription = false a coluna
+     * description (TEXT) não é lida e fica null nos DTOs.
+     */
+    List<ProductDTO> findAllWithCategories(Collection<Long> ids, boolean withDescription);
+
+    /**
+     * Atualização em massa dos produtos que atendem ao filtro (nome contém
+     * name e, se categoryIds não estiver vazio, pertence a alguma das
+     * categorias), sem carregar entidades:
+     *
+     * priceFactor     → price = ROUND(price * priceFactor, 2)
+     * oldImgUrlPrefix → troca o prefixo de imgUrl por newImgUrlPrefix
+     *                   (apenas nos produtos cujo imgUrl começa com ele)
+     *
+     * Parâmetros null indicam que a operação não deve ser aplicada.
+     *
+     * @return
+     * IDs dos produtos alterados, em ordem crescente.
+     */
+    List<Long> bulkUpdate(List<Long> categoryIds, String name, Double priceFactor,
+                          String oldImgUrlPrefix, String newImgUrlPrefix);
+}
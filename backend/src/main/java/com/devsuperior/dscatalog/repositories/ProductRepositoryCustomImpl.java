@@ -0,0 +1,377 @@
+package com.devsuperior.dscatalog.repositories;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.util.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Implementação das consultas declaradas em ProductRepositoryCustom.
+ *
+ * Usa NamedParameterJdbcTemplate, que participa da mesma transação
+ * (e da mesma conexão) aberta pelo JPA na camada de serviço.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // As datas são gravadas pelo Hibernate em UTC.
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    // Propriedades de ordenação aceitas e suas colunas.
+    // Qualquer outra propriedade é ignorada (nunca concatenamos texto do cliente no SQL).
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "date", "date");
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Consulta única que substitui as três consultas do fluxo original
+     * (searchProducts, sua countQuery e searchProductsWithCategories).
+     *
+     * - tb_filtered: produtos que atendem aos filtros (DISTINCT por causa do JOIN);
+     * - tb_page: recorta a página e calcula o total com COUNT(*) OVER (),
+     *   que é avaliado antes do LIMIT e, portanto, conta todos os filtrados;
+     * - as duas são tabelas derivadas, e não CTEs (WITH): no H2, parâmetros
+     *   dentro de um CTE chegam como NULL e os filtros e o LIMIT deixam de valer;
+     * - o SELECT final junta as colunas restantes e as categorias da página.
+     *
+     * Cada produto aparece uma vez por categoria; as linhas são agrupadas
+     * em ProductDTO mantendo a ordem da consulta.
+     */
+    @Override
+    public Page<ProductDTO> searchProductsSingleQuery(List<Long> categoryIds, String name, Pageable pageable) {
+        return searchProductsSingleQuery(categoryIds, name, pageable, null);
+    }
+
+    @Override
+    public Page<ProductDTO> searchProductsSingleQuery(List<Long> categoryIds, String name, Pageable pageable, Long knownTotal) {
+        return search(categoryIds, false, name, null, null, null, null, pageable, knownTotal);
+    }
+
+    @Override
+    public Page<ProductDTO> searchProductsInRange(List<Long> categoryIds, boolean allCategories, String name,
+                                                  Double minPrice, Double maxPrice,
+                                                  Instant from, Instant to, Pageable pageable) {
+        return search(categoryIds, allCategories, name, minPrice, maxPrice, from, to, pageable, null);
+    }
+
+    private Page<ProductDTO> search(List<Long> categoryIds, boolean allCategories, String name,
+                                    Double minPrice, Double maxPrice,
+                                    Instant from, Instant to, Pageable pageable, Long knownTotal) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource("name", Utils.escapeLike(name));
+
+        // Filtros opcionais, acrescentados ao WHERE apenas quando informados.
+        StringBuilder filters = new StringBuilder();
+        if (!categoryIds.isEmpty() && allCategories) {
+            // Produtos que têm todas as categorias: conta quantas delas cada um possui.
+            filters.append("""
+                     AND tb_product.id IN (
+                        SELECT product_id FROM tb_product_category
+                        WHERE category_id IN (:categoryIds)
+                        GROUP BY product_id
+                        HAVING COUNT(DISTINCT category_id) = :categoryCount)""");
+            params.addValue("categoryIds", categoryIds);
+            params.addValue("categoryCount", categoryIds.stream().distinct().count());
+        } else if (!categoryIds.isEmpty()) {
+            filters.append(" AND tb_product_category.category_id IN (:categoryIds)");
+            params.addValue("categoryIds", categoryIds);
+        }
+        if (minPrice != null) {
+            filters.append(" AND tb_product.price >= :minPrice");
+            params.addValue("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            filters.append(" AND tb_product.price <= :maxPrice");
+            params.addValue("maxPrice", maxPrice);
+        }
+        // A coluna date não tem fuso e guarda o horário em UTC.
+        if (from != null) {
+            filters.append(" AND tb_product.date >= :from");
+            params.addValue("from", LocalDateTime.ofInstant(from, ZoneOffset.UTC));
+        }
+        if (to != null) {
+            filters.append(" AND tb_product.date <= :to");
+            params.addValue("to", LocalDateTime.ofInstant(to, ZoneOffset.UTC));
+        }
+        String where = filters.toString();
+
+        String limit = "";
+        if (pageable.isPaged()) {
+            limit = "LIMIT :limit OFFSET :offset";
+            params.addValue("limit", pageable.getPageSize());
+            params.addValue("offset", pageable.getOffset());
+        }
+
+        // Com o total já conhecido, o banco não precisa contar os filtrados.
+        String total = knownTotal == null ? "COUNT(*) OVER ()" : "0";
+
+        String sql = """
+                SELECT tb_page.id, tb_page.name, tb_page.price, tb_page.date, tb_page.total,
+                       tb_product.description, tb_product.img_url,
+                       tb_category.id AS category_id, tb_category.name AS category_name
+                FROM (
+                    SELECT tb_filtered.*, %s AS total
+                    FROM (
+                        SELECT DISTINCT tb_product.id, tb_product.name, tb_product.price, tb_product.date
+                        FROM tb_product
+                        INNER JOIN tb_product_category
+                            ON tb_product.id = tb_product_category.product_id
+                        WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%%', :name, '%%')) ESCAPE '\\'
+                        %s
+                    ) AS tb_filtered
+                    ORDER BY %s
+                    %s
+                ) AS tb_page
+                INNER JOIN tb_product
+                    ON tb_product.id = tb_page.id
+                INNER JOIN tb_product_category
+                    ON tb_product_category.product_id = tb_page.id
+                INNER JOIN tb_category
+                    ON tb_category.id = tb_product_category.category_id
+                ORDER BY %s, tb_category.id
+                """.formatted(total, where, orderBy("tb_filtered", pageable.getSort()), limit,
+                orderBy("tb_page", pageable.getSort()));
+
+        Map<Long, ProductDTO> products = new LinkedHashMap<>();
+        long[] totalElements = {knownTotal == null ? 0L : knownTotal};
+        Calendar utc = Calendar.getInstance(UTC);
+
+        jdbcTemplate.query(sql, params, rs -> {
+            long id = rs.getLong("id");
+            ProductDTO dto = products.get(id);
+            if (dto == null) {
+                Timestamp date = rs.getTimestamp("date", utc);
+                dto = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+                        rs.getObject("price", Double.class), rs.getString("img_url"),
+                        date == null ? null : date.toInstant());
+                products.put(id, dto);
+                if (knownTotal == null) {
+                    totalElements[0] = rs.getLong("total");
+                }
+            }
+            dto.getCategories().add(new CategoryDTO(rs.getLong("category_id"), rs.getString("category_name")));
+        });
+
+        // Página além do fim: nenhuma linha volta e o total não é conhecido.
+        // Apenas nesse caso a contagem é feita em uma consulta separada.
+        if (knownTotal == null && products.isEmpty() && pageable.isPaged() && pageable.getOffset() > 0) {
+            totalElements[0] = count(where, params);
+        }
+
+        return new PageImpl<>(new ArrayList<>(products.values()), pageable, totalElements[0]);
+    }
+
+    /**
+     * LEFT JOIN: diferente da listagem, a exportação inclui também os
+     * produtos sem categoria. As linhas de um mesmo produto chegam juntas
+     * (ORDER BY id), então basta comparar com o produto anterior.
+     */
+    @Override
+    public void streamCatalog(int fetchSize, Consumer<ProductDTO> consumer) {
+        String sql = """
+                SELECT tb_product.id, tb_product.name, tb_product.description, tb_product.price,
+                       tb_product.img_url, tb_product.date,
+                       tb_category.id AS category_id, tb_category.name AS category_name
+                FROM tb_product
+                LEFT JOIN tb_product_category
+                    ON tb_product_category.product_id = tb_product.id
+                LEFT JOIN tb_category
+                    ON tb_category.id = tb_product_category.category_id
+                ORDER BY tb_product.id, tb_category.id
+                """;
+
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        };
+
+        ProductRowGrouper grouper = new ProductRowGrouper(consumer);
+        jdbcTemplate.getJdbcOperations().query(statement, grouper);
+        grouper.finish();
+    }
+
+    @Override
+    public List<ProductDTO> findAllWithCategories(Collection<Long> ids) {
+        return findAllWithCategories(ids, true);
+    }
+
+    @Override
+    public List<ProductDTO> findAllWithCategories(Collection<Long> ids, boolean withDescription) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Sem a descrição, o banco não precisa ler o TEXT (no PostgreSQL,
+        // valores grandes ficam fora da linha, na tabela TOAST).
+        String sql = """
+                SELECT tb_product.id, tb_product.name, %s AS description, tb_product.price,
+                       tb_product.img_url, tb_product.date,
+                       tb_category.id AS category_id, tb_category.name AS category_name
+                FROM tb_product
+                LEFT JOIN tb_product_category
+                    ON tb_product_category.product_id = tb_product.id
+                LEFT JOIN tb_category
+                    ON tb_category.id = tb_product_category.category_id
+                WHERE tb_product.id IN (:ids)
+                ORDER BY tb_product.id, tb_category.id
+                """.formatted(withDescription ? "tb_product.description" : "NULL");
+        // Em blocos, para não passar do limite de parâmetros do driver.
+        List<Long> list = new ArrayList<>(ids);
+        List<ProductDTO> result = new ArrayList<>(list.size());
+        for (int from = 0; from < list.size(); from += 1000) {
+            List<Long> chunk = list.subList(from, Math.min(from + 1000, list.size()));
+            ProductRowGrouper grouper = new ProductRowGrouper(result::add);
+            jdbcTemplate.query(sql, new MapSqlParameterSource("ids", chunk), grouper);
+            grouper.finish();
+        }
+        return result;
+    }
+
+    /**
+     * Cada operação é um único UPDATE sobre o conjunto filtrado e incrementa
+     * a coluna version (@Version), como o Hibernate faria, para que os ETags
+     * e os If-Match pendentes desses produtos deixem de valer. Os IDs são
+     * lidos antes, com o mesmo filtro, para que quem chamou possa avisar os
+     * índices e caches; a transação de quem chama deve usar REPEATABLE READ
+     * para que o SELECT e o UPDATE enxerguem o mesmo conjunto de produtos.
+     */
+    @Override
+    public List<Long> bulkUpdate(List<Long> categoryIds, String name, Double priceFactor,
+                                 String oldImgUrlPrefix, String newImgUrlPrefix) {
+        MapSqlParameterSource params = new MapSqlParameterSource("name", Utils.escapeLike(name));
+        StringBuilder where = new StringBuilder("LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '\\'");
+        if (!categoryIds.isEmpty()) {
+            where.append(" AND tb_product.id IN (SELECT tb_product_category.product_id"
+                    + " FROM tb_product_category WHERE tb_product_category.category_id IN (:categoryIds))");
+            params.addValue("categoryIds", categoryIds);
+        }
+
+        Set<Long> ids = new TreeSet<>();
+
+        if (priceFactor != null) {
+            params.addValue("priceFactor", priceFactor);
+            ids.addAll(jdbcTemplate.queryForList(
+                    "SELECT tb_product.id FROM tb_product WHERE " + where, params, Long.class));
+            // CAST: no Postgres, ROUND com casas decimais só existe para NUMERIC.
+            // A escala é explícita: no H2, NUMERIC sem escala tem escala 0
+            // e o valor chegaria ao ROUND já arredondado para inteiro.
+            jdbcTemplate.update(
+                    "UPDATE tb_product SET price = ROUND(CAST(price * :priceFactor AS NUMERIC(19, 2)), 2), version = version + 1 WHERE " + where, params);
+        }
+
+        if (oldImgUrlPrefix != null) {
+            // LEFT/LENGTH em vez de LIKE: o prefixo pode conter % ou _.
+            String prefixWhere = where + " AND LEFT(tb_product.img_url, LENGTH(:oldPrefix)) = :oldPrefix";
+            params.addValue("oldPrefix", oldImgUrlPrefix);
+            params.addValue("newPrefix", newImgUrlPrefix);
+            ids.addAll(jdbcTemplate.queryForList(
+                    "SELECT tb_product.id FROM tb_product WHERE " + prefixWhere, params, Long.class));
+            jdbcTemplate.update("UPDATE tb_product"
+                    + " SET img_url = CONCAT(:newPrefix, SUBSTRING(img_url, LENGTH(:oldPrefix) + 1)), version = version + 1"
+                    + " WHERE " + prefixWhere, params);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Agrupa as linhas (produto, categoria), ordenadas por id do produto,
+     * em um ProductDTO por produto, entregando cada um assim que suas
+     * linhas terminam. Produtos sem categoria vêm com category_id nulo.
+     */
+    private static final class ProductRowGrouper implements RowCallbackHandler {
+
+        private final Consumer<ProductDTO> consumer;
+        private final Calendar utc = Calendar.getInstance(UTC);
+        private ProductDTO current;
+
+        private ProductRowGrouper(Consumer<ProductDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                Timestamp date = rs.getTimestamp("date", utc);
+                current = new ProductDTO(id, rs.getString("name"), rs.getString("description"),
+                        rs.getObject("price", Double.class), rs.getString("img_url"),
+                        date == null ? null : date.toInstant());
+            }
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                current.getCategories().add(new CategoryDTO(categoryId, rs.getString("category_name")));
+            }
+        }
+
+        // Entrega o último produto lido.
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+
+    private long count(String where, MapSqlParameterSource params) {
+        String sql = """
+                SELECT COUNT(DISTINCT tb_product.id)
+                FROM tb_product
+                INNER JOIN tb_product_category
+                    ON tb_product.id = tb_product_category.product_id
+                WHERE LOWER(tb_product.name) LIKE LOWER(CONCAT('%%', :name, '%%')) ESCAPE '\\'
+                %s
+                """.formatted(where);
+        Long result = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return result == null ? 0L : result;
+    }
+
+    // Monta o ORDER BY a partir do Pageable, sempre desempatando pelo id.
+    // Sem ordenação informada, usa o nome (mesma ordem de searchProducts).
+    // Também usado por ProductReadRepositoryCustomImpl (mesmas colunas).
+    static String orderBy(String alias, Sort sort) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column != null) {
+                columns.add(alias + "." + column + (order.isDescending() ? " DESC" : " ASC"));
+            }
+        }
+        if (columns.isEmpty()) {
+            columns.add(alias + ".name ASC");
+        }
+        columns.add(alias + ".id ASC");
+        return String.join(", ", columns);
+    }
+}
@@ -2,6 +2,8 @@ package com.devsuperior.dscatalog.repositories; // Declaração do pacote onde a
 
 import com.devsuperior.dscatalog.entities.User; // Importa a classe da entidade User.
 import com.devsuperior.dscatalog.projections.UserDetailsProjection; // Importa a interface de projeção para detalhes do usuário.
+import org.springframework.data.domain.Page; // Importa a interface Page para resultados paginados.
+import org.springframework.data.domain.Pageable; // Importa a interface Pageable com as informações de paginação.
 import org.springframework.data.jpa.repository.JpaRepository; // Importa a interface base do Spring Data JPA para repositórios.
 import org.springframework.data.jpa.repository.Query; // Importa a anotação @Query para definir consultas personalizadas.
 import org.springframework.stereotype.Repository; // Importa a anotação @Repository.
@@ -36,4 +38,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	// que é uma interface que define os campos que serão retornados pela consulta.
 	// O parâmetro ':email' na query é preenchido com o valor do argumento 'email' do método.
 	List<UserDetailsProjection> searchUserAndRolesByEmail(String email);
+
+	// searchUserIds: Listagem paginada que retorna apenas os IDs dos usuários.
+	// Como roles é EAGER, findAll(pageable) faria uma consulta extra de roles para cada usuário;
+	// aqui a paginação e a ordenação acontecem só sobre tb_user, sem JOIN.
+	@Query(value = "SELECT obj.id FROM User obj",
+			countQuery = "SELECT COUNT(obj) FROM User obj")
+	Page<Long> searchUserIds(Pageable pageable);
+
+	// searchUsersWithRoles: Carrega os usuários de uma página juntamente com seus roles (JOIN FETCH).
+	// Usado pelo BatchHydrator, que chama a consulta em lotes e mantém a ordem da página.
+	@Query("SELECT DISTINCT obj FROM User obj LEFT JOIN FETCH obj.roles WHERE obj.id IN :userIds")
+	List<User> searchUsersWithRoles(List<Long> userIds);
 }
\ No newline at end of file
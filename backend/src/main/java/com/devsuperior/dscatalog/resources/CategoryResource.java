@@ -1,15 +1,21 @@
 package com.devsuperior.dscatalog.resources;
 
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.VersionedDTO;
+import com.devsuperior.dscatalog.services.CatalogVersionService;
 import com.devsuperior.dscatalog.services.CategoryService;
+import com.devsuperior.dscatalog.services.cache.ResponseBytesCache;
+import com.devsuperior.dscatalog.services.cache.SerializedJson;
+import com.devsuperior.dscatalog.util.MediaTypes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 //Controla as requisições da api
 // @RestController: Indica que esta classe é um controlador REST, capaz de lidar com requisições HTTP.
@@ -23,13 +29,36 @@ public class CategoryResource {
     @Autowired
     private CategoryService service;
 
+    // Versão global do catálogo (ETag de GET /categories).
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    // Resposta de GET /categories já serializada.
+    @Autowired
+    private ResponseBytesCache responseCache;
+
+    // O corpo é o JSON da lista já serializado, guardado no ResponseBytesCache
+    // até a próxima alteração de categoria. O ETag é a versão global do catálogo:
+    // com If-None-Match igual a ela, responde 304 sem montar a lista.
+    // CBOR e Smile (Accept) são serializados pelo conversor do formato, sem o cache.
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> findAll(){
-        // O list está buscando os registros da classe CategoryService pelo método findAll
-        // Chama o serviço para buscar todas as categorias de forma paginada.
-        List<CategoryDTO> list = service.findAll();
+    public ResponseEntity<?> findAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                     WebRequest request){
+        SerializedJson json = responseCache.getCategories();
+        String etag = json != null ? json.getETag() : catalogVersionService.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        if (MediaTypes.prefersBinary(accept)) {
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(service.findAll());
+        }
+        if (json == null) {
+            // Chama o serviço para buscar todas as categorias e guarda o JSON no cache.
+            json = responseCache.categories(etag, () -> service.findAll());
+        }
         // Retorna uma resposta HTTP 200 OK com a lista de categorias no corpo.
-        return ResponseEntity.ok().body(list);
+        return json.toResponseEntity(acceptEncoding);
     }
 
 //    // @GetMapping: Mapeia requisições HTTP GET para o caminho base "/categories".
@@ -45,13 +74,18 @@ public class CategoryResource {
 
     // @GetMapping(value = "/{id}"): Mapeia requisições HTTP GET para "/categories/{id}", onde {id} é um parâmetro de caminho.
     // public ResponseEntity<CategoryDTO> findById(@PathVariable Long id): Retorna uma categoria específica pelo ID.
+    // Com If-None-Match igual à versão atual da categoria, responde 304 sem carregá-la.
     @GetMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id){
+    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request){
+        String etag = service.findETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         // O list está buscando os registros da classe CategoryService pelo método findAll
         // Chama o serviço para buscar uma categoria pelo ID.
         CategoryDTO dto = service.findById(id);
         // Retorna uma resposta HTTP 200 OK com a categoria encontrada no corpo.
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(dto);
     }
 
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')"): Garante que apenas usuários com os papéis ADMIN ou OPERATOR podem acessar este método.
@@ -73,12 +107,14 @@ public class CategoryResource {
     // @PutMapping(value = "/{id}"): Mapeia requisições HTTP PUT para "/categories/{id}".
     // public ResponseEntity<CategoryDTO> update(@PathVariable Long id,@RequestBody CategoryDTO dto): Atualiza uma categoria existente.
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    // If-Match (opcional): ETag obtido no GET; se a categoria mudou desde então, responde 412.
     @PutMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> update(@PathVariable Long id,@RequestBody CategoryDTO dto){
+    public ResponseEntity<CategoryDTO> update(@PathVariable Long id,@RequestBody CategoryDTO dto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         // Chama o serviço para atualizar a categoria com o ID fornecido.
-        dto = service.update(id, dto);
-        // Retorna uma resposta HTTP 200 OK com a categoria atualizada no corpo.
-        return ResponseEntity.ok().body(dto);
+        VersionedDTO<CategoryDTO> result = service.update(id, dto, ifMatch);
+        // Retorna uma resposta HTTP 200 OK com a categoria atualizada no corpo e o ETag da nova versão.
+        return ResponseEntity.ok().eTag(result.getEtag()).body(result.getValue());
     }
 
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')"): Garante que apenas usuários com os papéis ADMIN ou OPERATOR podem acessar este método.
@@ -1,17 +1,46 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPage;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateResultDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductFields;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO;
+import com.devsuperior.dscatalog.dto.ProductSuggestionDTO;
+import com.devsuperior.dscatalog.dto.VersionedDTO;
+import com.devsuperior.dscatalog.services.CatalogVersionService;
+import com.devsuperior.dscatalog.services.ProductBatchService;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.cache.ResponseBytesCache;
+import com.devsuperior.dscatalog.services.cache.SerializedJson;
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import com.devsuperior.dscatalog.util.ETags;
+import com.devsuperior.dscatalog.util.MediaTypes;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import org.springframework.data.domain.Pageable; // <-- CORRIGIDO: Importação correta do Pageable
 import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 //Controla as requisições da api
 // @RestController: Indica que esta classe é um controlador REST, capaz de lidar com requisições HTTP.
@@ -25,31 +54,254 @@ public class ProductResource {
     @Autowired
     private ProductService service;
 
+    // Exportação do catálogo em NDJSON/CSV (GET /products/export).
+    @Autowired
+    private ProductExportService exportService;
+
+    // Inserção de produtos em lote (POST /products/batch).
+    @Autowired
+    private ProductBatchService batchService;
+
+    // Versão global do catálogo (ETag de GET /products).
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    // Respostas de GET /products/{id} já serializadas.
+    @Autowired
+    private ResponseBytesCache responseCache;
+
+    // Importação de planilhas CSV em segundo plano (POST /products/import).
+    @Autowired
+    private ProductImportService importService;
+
+    // Limite do size da paginação por cursor, o mesmo das páginas do Pageable.
+    @Value("${spring.data.web.pageable.max-page-size:2000}")
+    private int maxPageSize;
+
     // @GetMapping: Mapeia requisições HTTP GET para o caminho base "/products".
-    // public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable): Retorna uma lista paginada de produtos.
+    // public ResponseEntity<?> findAll(Pageable pageable): Retorna uma lista paginada de produtos.
+    // minPrice/maxPrice/from/to: faixas opcionais de preço e de data (ISO-8601, ex.: 2024-01-01T00:00:00Z).
+    // categoryMode=all: o produto precisa estar em todas as categorias de categoryId (padrão: any).
+    // fields: campos devolvidos de cada produto (ex.: fields=id,name,price,imgUrl); sem description,
+    // a descrição nem é lida do banco.
+    //
+    // Os outros modos da listagem usam o mesmo endpoint, um de cada vez:
+    // q=texto       busca por relevância no nome e na descrição;
+    // fuzzy=true    nomes parecidos com name (erros de digitação);
+    // facets=true   a página e a quantidade de produtos de cada categoria;
+    // count=false   Slice em vez de Page, sem a contagem do total;
+    // after=cursor  paginação por cursor (keyset), com size limitado a max-page-size,
+    //               como o size das páginas.
+    // Dois modos juntos, ou um modo com categoryMode=all ou faixas, que ele
+    // não aplica, respondem 400 em vez de ignorar parte do pedido.
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> findAll(
+    public ResponseEntity<?> findAll(
             @RequestParam(value = "name", defaultValue = "") String name,
             @RequestParam(value = "categoryId", defaultValue = "0")String categoryId,
-            Pageable pageable){
+            @RequestParam(value = "categoryMode", defaultValue = "any") String categoryMode,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+            @RequestParam(value = "facets", defaultValue = "false") boolean facets,
+            @RequestParam(value = "count", defaultValue = "true") boolean count,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            Pageable pageable,
+            WebRequest request){
+
+        ProductFields selected = ProductFields.parse(fields);
+        boolean allCategories = "all".equalsIgnoreCase(categoryMode);
+        boolean hasRange = minPrice != null || maxPrice != null || from != null || to != null;
+        String mode = mode(q, fuzzy, facets, count, after);
+        if (mode != null && (allCategories || hasRange)) {
+            throw new InvalidRequestException("categoryMode=all e as faixas de preço e data não podem ser usados com " + mode);
+        }
+        if (after != null && size < 1) {
+            throw new InvalidRequestException("size deve ser maior que zero");
+        }
+
+        // O ETag da listagem junta a versão global do catálogo (muda a cada commit, em
+        // qualquer nó) com a versão dos índices em memória deste nó (muda quando ele aplica
+        // a alteração). Se nenhum dos dois mudou desde a última consulta do cliente
+        // (If-None-Match), responde 304 sem buscar nada; uma página montada pelos índices
+        // antes de receberem a alteração nunca sai com o ETag de depois dela.
+        // As duas versões ficam em memória: nenhuma consulta ao banco antes do cache.
+        String etag = variant(ETags.of(catalogVersionService.version() + "." + service.localListingVersion()),
+                request.getHeader(HttpHeaders.ACCEPT), selected);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+
+        if (q != null) {
+            // Página ordenada por relevância.
+            return ok.body(select(service.findAllByText(q, categoryId, pageable), selected));
+        }
+        if (fuzzy) {
+            // Do nome mais parecido para o menos parecido.
+            return ok.body(select(service.findAllFuzzy(name, categoryId, pageable), selected));
+        }
+        if (facets) {
+            // A página e as contagens por categoria para o filtro de nome atual.
+            FacetedPage<ProductDTO> page = service.findAllPagedWithFacets(name, categoryId, pageable);
+            return ok.body(selected.isAll() ? page : new FacetedPage<>(page.map(selected::select), page.getFacets()));
+        }
+        if (!count) {
+            // Slice: sem totalElements/totalPages, apenas "last"/"hasNext".
+            Slice<ProductDTO> slice = service.findAllSliced(name, categoryId, pageable);
+            return ok.body(selected.isAll() ? slice : slice.map(selected::select));
+        }
+        if (after != null) {
+            // GET /products?after=&size=12 → primeira página; depois, after=<nextCursor>.
+            CursorPageDTO<ProductDTO> page = service.findAllByCursor(name, categoryId, after,
+                    Math.min(size, maxPageSize));
+            return ok.body(selected.isAll() ? page : new CursorPageDTO<>(
+                    page.getContent().stream().map(selected::select).toList(), page.getSize(), page.getNextCursor()));
+        }
+
+        // Com alguma faixa informada, usa a busca com filtros de preço e data.
+        if (hasRange) {
+            Page<ProductDTO> list = service.findAllPagedInRange(name, categoryId, allCategories,
+                    minPrice, maxPrice, from, to, pageable);
+            return ok.body(select(list, selected));
+        }
 
         // PARAMETROS: page, size, sort
         // O list está buscando os registros da classe ProductService pelo método findAll
         // Chama o serviço para buscar todos os produtos de forma paginada.
-        Page<ProductDTO> list = service.findAllPaged(name, categoryId, pageable);
+        Page<ProductDTO> list = service.findAllPaged(name, categoryId, allCategories,
+                selected.includes("description"), pageable);
         // Retorna uma resposta HTTP 200 OK com a lista de produtos no corpo.
-        return ResponseEntity.ok().body(list);
+        return ok.body(select(list, selected));
+    }
+
+    // Modo da listagem pedido nos parâmetros, ou null na listagem normal.
+    private static String mode(String q, boolean fuzzy, boolean facets, boolean count, String after) {
+        List<String> modes = new ArrayList<>();
+        if (q != null) {
+            modes.add("q");
+        }
+        if (fuzzy) {
+            modes.add("fuzzy=true");
+        }
+        if (facets) {
+            modes.add("facets=true");
+        }
+        if (!count) {
+            modes.add("count=false");
+        }
+        if (after != null) {
+            modes.add("after");
+        }
+        if (modes.size() > 1) {
+            throw new InvalidRequestException("Parâmetros que não podem ser usados juntos: " + String.join(", ", modes));
+        }
+        return modes.isEmpty() ? null : modes.get(0);
+    }
+
+    // ETag de cada representação: CBOR, Smile e ?fields= têm corpos diferentes do
+    // JSON completo para a mesma versão, então cada um recebe um sufixo (ETags.variant).
+    private static String variant(String etag, String accept, ProductFields fields) {
+        MediaType binary = MediaTypes.preferredBinary(accept);
+        if (binary != null) {
+            etag = ETags.variant(etag, binary.getSubtype());
+        }
+        if (!fields.isAll()) {
+            etag = ETags.variant(etag, "fields=" + fields.key());
+        }
+        return etag;
+    }
+
+    // Com todos os campos, a página de ProductDTO é devolvida como está.
+    private static Page<?> select(Page<ProductDTO> page, ProductFields fields) {
+        return fields.isAll() ? page : page.map(fields::select);
+    }
+
+    // @GetMapping(value = "/suggest"): Atende GET /products/suggest?q=gam&limit=10.
+    // Autocompletar da caixa de busca: retorna apenas id e nome dos produtos
+    // com alguma palavra começando por "q", sem consultar o banco de dados.
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @RequestParam(value = "q", defaultValue = "") String q,
+            @RequestParam(value = "categoryId", defaultValue = "0") String categoryId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit){
+
+        // Chama o serviço para buscar as sugestões no índice em memória.
+        List<ProductSuggestionDTO> list = service.suggest(q, categoryId, limit);
+        // Retorna uma resposta HTTP 200 OK com as sugestões no corpo.
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(list);
+    }
+
+    // @GetMapping(value = "/export"): Atende GET /products/export?format=ndjson (ou csv).
+    // Exporta o catálogo inteiro de uma vez, sem paginação: os produtos são lidos
+    // por um cursor e escritos na resposta à medida que chegam do banco.
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format){
+
+        // Valida o formato antes de começar a resposta (formato inválido → 400).
+        ProductExportService.Format exportFormat = ProductExportService.Format.of(format);
+        // O corpo é escrito depois, em outra thread, direto no OutputStream da resposta.
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // @PostMapping(value = "/search-index/rebuild"): Reconstrói o índice full-text.
+    // A reconstrução roda em segundo plano; a resposta é 202 Accepted, ou
+    // 409 Conflict quando já existe uma reconstrução em andamento.
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/search-index/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex(){
+        if (!service.rebuildFullTextIndex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
     }
 
     // @GetMapping(value = "/{id}"): Mapeia requisições HTTP GET para "/products/{id}", onde {id} é um parâmetro de caminho.
-    // public ResponseEntity<ProductDTO> findById(@PathVariable Long id): Retorna um produto específico pelo ID.
+    // public ResponseEntity<?> findById(@PathVariable Long id): Retorna um produto específico pelo ID.
+    // O corpo é o JSON do ProductDTO já serializado (e comprimido com gzip, se o cliente aceitar),
+    // guardado no ResponseBytesCache: nos produtos mais acessados não há consulta ao banco.
+    // Com If-None-Match igual ao ETag atual, responde 304 sem montar o ProductDTO.
+    // Com Accept: application/cbor ou application/x-jackson-smile, o ProductDTO é
+    // serializado pelo conversor do formato pedido (o cache guarda só JSON).
+    // Com fields (ex.: fields=name,price), devolve apenas esses campos, sem o cache.
+    // Cada uma dessas representações tem seu próprio ETag (variant).
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id){
-        // O list está buscando os registros da classe ProductService pelo método findAll
-        // Chama o serviço para buscar um produto pelo ID.
-        ProductDTO dto = service.findById(id);
-        // Retorna uma resposta HTTP 200 OK com o produto encontrado no corpo.
-        return ResponseEntity.ok().body(dto);
+    public ResponseEntity<?> findById(@PathVariable Long id,
+                                      @RequestParam(value = "fields", required = false) String fields,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                      WebRequest request){
+        // O ETag vem do cache ou, em uma falha, de uma consulta apenas às colunas de versão.
+        ProductFields selected = ProductFields.parse(fields);
+        SerializedJson json = responseCache.getProduct(id);
+        String etag = json != null ? json.getETag() : service.findETag(id);
+        String variant = variant(etag, accept, selected);
+        if (request.checkNotModified(variant)) {
+            return null;
+        }
+        if (!selected.isAll()) {
+            return ResponseEntity.ok().eTag(variant).varyBy(HttpHeaders.ACCEPT).body(selected.select(service.findById(id)));
+        }
+        if (MediaTypes.prefersBinary(accept)) {
+            return ResponseEntity.ok().eTag(variant).varyBy(HttpHeaders.ACCEPT).body(service.findById(id));
+        }
+        if (json == null) {
+            // Chama o serviço para buscar o produto pelo ID e guarda o JSON no cache.
+            json = responseCache.product(id, etag, () -> service.findById(id));
+        }
+        // Retorna uma resposta HTTP 200 OK com os bytes do produto no corpo.
+        return json.toResponseEntity(acceptEncoding);
     }
 
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')"): Garante que apenas usuários com os papéis ADMIN ou OPERATOR podem acessar este método.
@@ -68,17 +320,66 @@ public class ProductResource {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    // @PostMapping(value = "/batch"): Insere vários produtos de uma vez (carga em lote).
+    // Sem @Valid: cada item é validado pelo serviço, e os itens inválidos são
+    // devolvidos com seus erros em vez de rejeitar o lote inteiro.
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/batch")
+    public ResponseEntity<ProductBatchResultDTO> insertBatch(@RequestBody List<ProductDTO> dtos){
+        // Chama o serviço que valida os itens e insere os válidos em lotes JDBC.
+        ProductBatchResultDTO result = batchService.insertAll(dtos);
+        // Retorna uma resposta HTTP 200 OK com os IDs gerados e os erros por item.
+        return ResponseEntity.ok().body(result);
+    }
+
+    // @PostMapping(value = "/import"): Recebe uma planilha CSV (campo "file" do multipart)
+    // e inicia a importação em segundo plano. Responde 202 Accepted com o ID do job;
+    // o cabeçalho Location aponta para a consulta do andamento.
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportStatusDTO> importCsv(@RequestParam("file") MultipartFile file){
+        // Chama o serviço que guarda o arquivo e agenda a importação.
+        ProductImportStatusDTO status = importService.start(file);
+        // Cria a URI de consulta do job, por exemplo /products/import/{id}.
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(status.getId()).toUri();
+        return ResponseEntity.accepted().location(uri).body(status);
+    }
+
+    // @GetMapping(value = "/import/{id}"): Consulta o andamento de uma importação
+    // (linhas lidas, inseridas, rejeitadas e os primeiros erros).
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @GetMapping(value = "/import/{id}")
+    public ResponseEntity<ProductImportStatusDTO> importStatus(@PathVariable String id){
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(importService.findById(id));
+    }
+
+    // @PatchMapping(value = "/bulk"): Atualiza em massa os produtos de um filtro
+    // (ex.: preço * 1.05 para todos os produtos de uma categoria), com um único
+    // UPDATE por operação em vez de um PUT /products/{id} por produto.
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    @PatchMapping(value = "/bulk")
+    public ResponseEntity<ProductBulkUpdateResultDTO> updateBulk(@Valid @RequestBody ProductBulkUpdateDTO dto){
+        // Chama o serviço que executa os UPDATEs e avisa os índices e caches de busca.
+        ProductBulkUpdateResultDTO result = batchService.updateAll(dto);
+        // Retorna uma resposta HTTP 200 OK com os IDs dos produtos alterados.
+        return ResponseEntity.ok().body(result);
+    }
+
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')"): Garante que apenas usuários com os papéis ADMIN ou OPERATOR podem acessar este método.
     // @PutMapping(value = "/{id}"): Mapeia requisições HTTP PUT para "/products/{id}".
     // public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto): Atualiza um produto existente.
     // @Valid: Ativa a validação dos campos do DTO.
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+    // If-Match (opcional): ETag obtido no GET; se o produto mudou desde então, responde 412
+    // em vez de sobrescrever a alteração de outro usuário.
     @PutMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto){
+    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         // Chama o serviço para atualizar o produto com o ID fornecido.
-        dto = service.update(id, dto);
-        // Retorna uma resposta HTTP 200 OK com o produto atualizado no corpo.
-        return ResponseEntity.ok().body(dto);
+        VersionedDTO<ProductDTO> result = service.update(id, dto, ifMatch);
+        // Retorna uma resposta HTTP 200 OK com o produto atualizado no corpo e o ETag da nova versão.
+        return ResponseEntity.ok().eTag(result.getEtag()).body(result.getValue());
     }
 
     // @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')"): Garante que apenas usuários com os papéis ADMIN ou OPERATOR podem acessar este método.
@@ -8,6 +8,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -91,7 +92,7 @@ public class UserResource {
         // Chama o serviço para buscar todos os usuários de forma paginada.
         Page<UserDTO> list = service.findAllPaged(pageable);
         // Retorna uma resposta HTTP 200 OK com a lista de usuários no corpo.
-        return ResponseEntity.ok().body(list);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(list);
     }
 
     /**
@@ -126,14 +127,14 @@ public class UserResource {
         // Chama o serviço para buscar um usuário pelo ID.
         UserDTO dto = service.findById(id);
         // Retorna uma resposta HTTP 200 OK com o usuário encontrado no corpo.
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(dto);
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
     @GetMapping(value = "/me")
     public ResponseEntity<UserDTO> findMe(){
         UserDTO dto = service.findMe();
-        return ResponseEntity.ok().body(dto);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(dto);
     }
 
     /**
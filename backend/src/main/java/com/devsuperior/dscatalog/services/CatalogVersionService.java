@@ -0,0 +1,176 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.entities.CatalogChange;
+import com.devsuperior.dscatalog.entities.CatalogCommit;
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogCommitRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.util.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão global do catálogo (tb_catalog_version), usada como ETag das
+ * listagens (GET /categories, GET /products).
+ *
+ * Toda transação que publica ProductChangedEvent ou CategoryChangedEvent
+ * incrementa o contador uma única vez, logo antes do commit e dentro da
+ * própria transação: a versão nova fica visível junto com as alterações.
+ * Uma carga em lote com milhares de eventos gera um único UPDATE.
+ *
+ * Na mesma transação, os ids alterados são gravados em tb_catalog_change,
+ * ligados a uma linha de tb_catalog_commit com a versão nova; é com eles
+ * que CatalogIndexer atualiza o arquivo de índice local e
+ * ProductReadModelService sincroniza tb_product_read na reinicialização.
+ * Registros com mais de catalog.change-log.retention-versions versões são
+ * apagados a cada PRUNE_EVERY versões.
+ *
+ * O UPDATE bloqueia a linha do contador até o commit, então os commits de
+ * escritas concorrentes no catálogo são serializados. Por isso tudo o que
+ * é grande (os registros de alteração, a limpeza e o flush das demais
+ * alterações da transação) é gravado antes do incremento; com a linha
+ * bloqueada restam o incremento, a leitura da versão e o UPDATE de uma
+ * linha em tb_catalog_commit.
+ *
+ * version() e etag() não consultam o banco a cada requisição: devolvem a
+ * última versão confirmada que este nó conhece, lida do banco na primeira
+ * chamada e atualizada no afterCommit de cada transação que a incrementa.
+ * Assim como os índices e caches em memória, o valor só acompanha os
+ * commits feitos por este nó.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final long PRUNE_EVERY = 1000;
+
+    // Alterações da transação atual, gravadas no beforeCommit.
+    private static final Object CHANGES = new Object();
+
+    @Autowired
+    private CatalogVersionRepository repository;
+
+    @Autowired
+    private CatalogChangeRepository changeRepository;
+
+    @Autowired
+    private CatalogCommitRepository commitRepository;
+
+    @Value("${catalog.change-log.retention-versions:100000}")
+    private long retentionVersions;
+
+    // -1 até a primeira leitura do banco.
+    private final AtomicLong version = new AtomicLong(-1);
+
+    public String etag() {
+        return ETags.of(version());
+    }
+
+    public long version() {
+        long current = version.get();
+        if (current < 0) {
+            // Um commit pode ter chegado entre as duas leituras: fica a maior.
+            current = version.accumulateAndGet(repository.current(), Math::max);
+        }
+        return current;
+    }
+
+    public long retentionVersions() {
+        return retentionVersions;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        record(event.getId(), null);
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        record(null, event.getId());
+    }
+
+    private void record(Long productId, Long categoryId) {
+        // Sem transação (delete() usa Propagation.SUPPORTS), grava imediatamente.
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            changes.add(productId, categoryId);
+            version.accumulateAndGet(save(changes), Math::max);
+            return;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(CHANGES);
+        if (changes == null) {
+            Changes created = new Changes();
+            TransactionSynchronizationManager.bindResource(CHANGES, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long saved;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    saved = save(created);
+                }
+
+                // Só depois do commit a versão nova é visível para as outras transações.
+                @Override
+                public void afterCommit() {
+                    version.accumulateAndGet(saved, Math::max);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGES);
+                }
+            });
+            changes = created;
+        }
+        changes.add(productId, categoryId);
+    }
+
+    // Devolve a versão gerada por este commit.
+    private long save(Changes changes) {
+        // Antes do incremento: o INSERT dos registros (e o flush do restante
+        // da transação) não acontece com a linha do contador bloqueada.
+        CatalogCommit commit = commitRepository.save(new CatalogCommit());
+        List<CatalogChange> rows = new ArrayList<>(changes.productIds.size() + changes.categoryIds.size());
+        changes.productIds.forEach(id -> rows.add(new CatalogChange(commit.getId(), id, null)));
+        changes.categoryIds.forEach(id -> rows.add(new CatalogChange(commit.getId(), null, id)));
+        changeRepository.saveAllAndFlush(rows);
+
+        // A limpeza usa a versão lida sem bloqueio, que só pode estar atrasada.
+        long next = repository.current() + 1;
+        if (next % PRUNE_EVERY == 0) {
+            changeRepository.deleteUpTo(next - retentionVersions);
+            commitRepository.deleteUpTo(next - retentionVersions);
+        }
+
+        repository.increment();
+        long version = repository.current();
+        commitRepository.stamp(commit.getId(), version);
+        return version;
+    }
+
+    private static final class Changes {
+
+        private final Set<Long> productIds = new LinkedHashSet<>();
+        private final Set<Long> categoryIds = new LinkedHashSet<>();
+
+        private void add(Long productId, Long categoryId) {
+            if (productId != null) {
+                productIds.add(productId);
+            }
+            if (categoryId != null) {
+                categoryIds.add(categoryId);
+            }
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.devsuperior.dscatalog.services;
 
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.VersionedDTO;
 import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.services.cache.CatalogSnapshot;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
+import com.devsuperior.dscatalog.services.exceptions.PreconditionFailedException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.util.ETags;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -22,8 +28,19 @@ public class CategoryService {
     @Autowired
     private CategoryRepository repository;
 
+    // Publica CategoryChangedEvent, que invalida as respostas em cache (ResponseBytesCache, ProductSearchCache).
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    // Cópia imutável do catálogo em memória (catalog.snapshot.enabled), lida sem locks.
+    @Autowired
+    private CatalogSnapshot snapshot;
+
     @Transactional(readOnly = true)
     public List<CategoryDTO> findAll() {
+        if (snapshot.isReady()) {
+            return snapshot.categories();
+        }
         List<Category> list = repository.findAll();
         //Fazendo com lambda
        return list.stream().map( x-> new CategoryDTO(x)).toList();
@@ -45,27 +62,55 @@ public class CategoryService {
 //    }
     @Transactional(readOnly = true)
     public CategoryDTO findById(Long id) {
+        if (snapshot.isReady()) {
+            CategoryDTO dto = snapshot.category(id);
+            if (dto == null) {
+                throw new ResourceNotFoundException("Entity not found");
+            }
+            return dto;
+        }
         Optional<Category> obj = repository.findById(id);
         //O orElseThrow vai permitir uma chamada de exceção caso não encontre o id
         Category entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
         return new CategoryDTO(entity);
     }
 
+    // ETag atual da categoria, sem carregar a entidade.
     @Transactional(readOnly = true)
+    public String findETag(Long id) {
+        return repository.findVersionById(id)
+                .map(ETags::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
+    // Sem readOnly: a transação grava a categoria e incrementa a versão do catálogo.
+    @Transactional
     public CategoryDTO insert(CategoryDTO dto) {
         Category entity = new Category();
         entity.setName(dto.getName());
         entity = repository.save(entity);
+        publisher.publishEvent(new CategoryChangedEvent(entity.getId()));
         return new CategoryDTO(entity);
     }
 
     @Transactional
     public CategoryDTO update(Long id, CategoryDTO dto) {
+        return update(id, dto, null).getValue();
+    }
+
+    // Atualiza a categoria apenas se ifMatch (cabeçalho If-Match do PUT) ainda
+    // corresponder à versão atual, e devolve o ETag da nova versão.
+    @Transactional
+    public VersionedDTO<CategoryDTO> update(Long id, CategoryDTO dto, String ifMatch) {
         try {
             Category entity = repository.getReferenceById(id);
+            if (ifMatch != null && !ETags.matches(ifMatch, ETags.category(entity))) {
+                throw new PreconditionFailedException("A categoria foi alterada desde a versão informada em If-Match");
+            }
             entity.setName(dto.getName());
-            entity = repository.save(entity);
-            return new CategoryDTO(entity);
+            entity = repository.saveAndFlush(entity);
+            publisher.publishEvent(new CategoryChangedEvent(id));
+            return new VersionedDTO<>(new CategoryDTO(entity), ETags.category(entity));
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Id not found " + id);
         }
@@ -78,6 +123,7 @@ public class CategoryService {
         }
         try {
             repository.deleteById(id);
+            publisher.publishEvent(new CategoryChangedEvent(id));
         }
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Falha de integridade referencial");
@@ -0,0 +1,241 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchErrorDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateDTO;
+import com.devsuperior.dscatalog.dto.ProductBulkUpdateResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserção de produtos em lote (POST /products/batch), para a carga
+ * noturna com dezenas de milhares de produtos.
+ *
+ * 1) Validação por item
+ *
+ * Cada produto passa pelas mesmas validações de POST /products e as
+ * categorias informadas precisam existir (carregadas em uma única consulta).
+ * Os itens inválidos são devolvidos com seus erros; os demais são inseridos.
+ *
+ * 2) Lotes JDBC
+ *
+ * Product usa uma sequência com alocação em blocos, então o Hibernate não
+ * precisa executar cada INSERT na hora para descobrir o ID. Com
+ * hibernate.jdbc.batch_size os INSERTs de tb_product e de
+ * tb_product_category são enviados em lotes. A cada chunkSize produtos o
+ * contexto de persistência é descarregado (flush) e limpo (clear), para
+ * que a memória não cresça com o tamanho da carga.
+ *
+ * 3) Transação
+ *
+ * Por padrão tudo roda em uma única transação. Com
+ * product.batch.commit-per-chunk=true cada bloco é confirmado
+ * separadamente: uma falha no banco desfaz apenas o bloco em andamento.
+ *
+ * 4) Atualização em massa (PATCH /products/bulk)
+ *
+ * Reajuste de preço e troca de prefixo de imgUrl para todos os produtos de
+ * um filtro, cada um em um único UPDATE, sem carregar entidades. Os
+ * produtos alterados são relidos por JDBC e anunciados com
+ * ProductChangedEvent, como em PUT /products/{id}, para que os índices e
+ * caches de busca descartem os valores antigos.
+ */
+@Service
+public class ProductBatchService {
+
+    @Value("${product.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${product.batch.commit-per-chunk:false}")
+    private boolean commitPerChunk;
+
+    @Value("${product.batch.max-items:50000}")
+    private int maxItems;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductBatchResultDTO insertAll(List<ProductDTO> dtos) {
+        if (dtos.size() > maxItems) {
+            throw new InvalidRequestException("O lote deve ter no máximo " + maxItems + " produtos");
+        }
+        // Um item null (ex.: [{...}, null]) não tem campos para validar: o lote inteiro é recusado.
+        int nullItem = dtos.indexOf(null);
+        if (nullItem >= 0) {
+            throw new InvalidRequestException("Produto ausente na posição " + nullItem + " do lote");
+        }
+
+        Map<Long, Category> categories = loadCategories(dtos);
+
+        List<ProductDTO> valid = new ArrayList<>(dtos.size());
+        List<ProductBatchErrorDTO> errors = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            List<FieldMessage> messages = validate(dtos.get(i), categories);
+            if (messages.isEmpty()) {
+                valid.add(dtos.get(i));
+            } else {
+                errors.add(new ProductBatchErrorDTO(i, messages));
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Long> ids = new ArrayList<>(valid.size());
+        int size = Math.max(1, chunkSize);
+
+        if (commitPerChunk) {
+            for (int from = 0; from < valid.size(); from += size) {
+                List<ProductDTO> chunk = valid.subList(from, Math.min(from + size, valid.size()));
+                transaction.executeWithoutResult(status -> ids.addAll(insertChunk(chunk, categories)));
+            }
+        } else {
+            transaction.executeWithoutResult(status -> {
+                for (int from = 0; from < valid.size(); from += size) {
+                    ids.addAll(insertChunk(valid.subList(from, Math.min(from + size, valid.size())), categories));
+                }
+            });
+        }
+        return new ProductBatchResultDTO(dtos.size(), ids, errors);
+    }
+
+    /**
+     * REPEATABLE READ: o SELECT dos IDs e o UPDATE correspondente enxergam o
+     * mesmo conjunto de produtos, então os eventos cobrem exatamente as
+     * linhas alteradas.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ProductBulkUpdateResultDTO updateAll(ProductBulkUpdateDTO dto) {
+        List<Long> categoryIds = dto.getCategoryIds() == null ? List.of() : dto.getCategoryIds();
+        String name = dto.getName() == null ? "" : dto.getName();
+        boolean imgUrl = dto.getOldImgUrlPrefix() != null || dto.getNewImgUrlPrefix() != null;
+
+        if (categoryIds.isEmpty() && name.isBlank()) {
+            throw new InvalidRequestException("Informe categoryIds ou name para filtrar os produtos");
+        }
+        if (dto.getPriceFactor() == null && !imgUrl) {
+            throw new InvalidRequestException("Informe priceFactor ou oldImgUrlPrefix e newImgUrlPrefix");
+        }
+        if (imgUrl && (dto.getOldImgUrlPrefix() == null || dto.getNewImgUrlPrefix() == null)) {
+            throw new InvalidRequestException("oldImgUrlPrefix e newImgUrlPrefix devem ser informados juntos");
+        }
+
+        List<Long> ids = productRepository.bulkUpdate(categoryIds, name, dto.getPriceFactor(),
+                dto.getOldImgUrlPrefix(), dto.getNewImgUrlPrefix());
+
+        // Os UPDATEs não passam pelo contexto de persistência: descarta o que
+        // estiver em cache nele e relê os valores novos direto das tabelas.
+        entityManager.clear();
+        for (ProductDTO product : productRepository.findAllWithCategories(ids)) {
+            publisher.publishEvent(new ProductChangedEvent(product.getId(), product));
+        }
+        return new ProductBulkUpdateResultDTO(ids);
+    }
+
+    // Uma consulta para todas as categorias citadas no lote.
+    private Map<Long, Category> loadCategories(List<ProductDTO> dtos) {
+        Set<Long> ids = new HashSet<>();
+        for (ProductDTO dto : dtos) {
+            for (CategoryDTO category : categoriesOf(dto)) {
+                if (category != null && category.getId() != null) {
+                    ids.add(category.getId());
+                }
+            }
+        }
+        Map<Long, Category> categories = new HashMap<>();
+        categoryRepository.findAllById(ids).forEach(c -> categories.put(c.getId(), c));
+        return categories;
+    }
+
+    private List<FieldMessage> validate(ProductDTO dto, Map<Long, Category> categories) {
+        List<FieldMessage> messages = new ArrayList<>();
+        for (ConstraintViolation<ProductDTO> violation : validator.validate(dto)) {
+            messages.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        for (CategoryDTO category : categoriesOf(dto)) {
+            if (category == null || category.getId() == null || !categories.containsKey(category.getId())) {
+                messages.add(new FieldMessage("categories", "Categoria não encontrada: "
+                        + (category == null ? null : category.getId())));
+            }
+        }
+        return messages;
+    }
+
+    // "categories": null no JSON chega como lista null.
+    private static List<CategoryDTO> categoriesOf(ProductDTO dto) {
+        return dto.getCategories() == null ? List.of() : dto.getCategories();
+    }
+
+    private List<Long> insertChunk(List<ProductDTO> chunk, Map<Long, Category> categories) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (ProductDTO dto : chunk) {
+            Product entity = new Product();
+            entity.setName(dto.getName());
+            entity.setDescription(dto.getDescription());
+            entity.setDate(dto.getDate());
+            entity.setImgUrl(dto.getImgUrl());
+            entity.setPrice(dto.getPrice());
+
+            // Referências sem SELECT: a existência já foi conferida na validação.
+            for (CategoryDTO category : categoriesOf(dto)) {
+                entity.getCategories().add(entityManager.getReference(Category.class, category.getId()));
+            }
+
+            // Com a sequência, o ID já está disponível aqui; o INSERT fica para o flush.
+            entityManager.persist(entity);
+            ids.add(entity.getId());
+
+            ProductDTO result = new ProductDTO(entity.getId(), entity.getName(), entity.getDescription(),
+                    entity.getPrice(), entity.getImgUrl(), entity.getDate());
+            for (CategoryDTO category : categoriesOf(dto)) {
+                result.getCategories().add(new CategoryDTO(categories.get(category.getId())));
+            }
+            // Avisa os índices de busca; eles só aplicam a alteração após o commit.
+            publisher.publishEvent(new ProductChangedEvent(result.getId(), result));
+        }
+
+        // Envia os INSERTs do bloco em lotes JDBC e libera as entidades da memória.
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+}
@@ -0,0 +1,180 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Exportação do catálogo inteiro em NDJSON (um ProductDTO em JSON por linha)
+ * ou CSV, para parceiros que hoje percorrem GET /products página a página.
+ *
+ * Cada página da listagem repete o COUNT e o OFFSET, então ler o catálogo
+ * inteiro custa O(n²) linhas no banco. Aqui o catálogo é lido uma única vez
+ * por um cursor (ProductRepository.streamCatalog) e cada produto é escrito
+ * na resposta assim que é lido: a memória usada não depende do tamanho do
+ * catálogo.
+ *
+ * A leitura roda em uma transação somente leitura com REPEATABLE READ, ou
+ * seja, sobre um snapshot: alterações feitas durante a exportação não
+ * aparecem pela metade no arquivo.
+ */
+@Service
+public class ProductExportService {
+
+    /**
+     * Formatos aceitos em GET /products/export?format=...
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidRequestException("Formato de exportação inválido: " + value);
+        }
+    }
+
+    // Quantidade de linhas que o driver busca do banco por vez.
+    @Value("${product.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Escreve o catálogo no formato informado. Chamado pelo
+     * StreamingResponseBody, fora da thread da requisição.
+     */
+    public void export(Format format, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        transaction.executeWithoutResult(status -> {
+            try {
+                if (format == Format.CSV) {
+                    exportCsv(out);
+                } else {
+                    exportNdjson(out);
+                }
+            } catch (IOException e) {
+                // Normalmente o cliente fechou a conexão; o cursor é encerrado junto com a transação.
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Mesmo JSON de GET /products/{id}, um produto por linha.
+    private void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        // Sem flush a cada produto: o buffer do gerador é enviado quando enche.
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(generator)) {
+            repository.streamCatalog(fetchSize, dto -> {
+                try {
+                    writer.write(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    // Uma linha por produto; os ids e nomes das categorias ficam separados por "|".
+    private void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("id,name,description,price,imgUrl,date,categoryIds,categoryNames\r\n");
+
+        repository.streamCatalog(fetchSize, dto -> {
+            try {
+                writer.write(csvLine(dto));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    static String csvLine(ProductDTO dto) {
+        String categoryIds = dto.getCategories().stream()
+                .map(c -> String.valueOf(c.getId()))
+                .collect(Collectors.joining("|"));
+        String categoryNames = dto.getCategories().stream()
+                .map(CategoryDTO::getName)
+                .collect(Collectors.joining("|"));
+
+        return String.join(",",
+                String.valueOf(dto.getId()),
+                csv(dto.getName()),
+                csv(dto.getDescription()),
+                dto.getPrice() == null ? "" : String.valueOf(dto.getPrice()),
+                csv(dto.getImgUrl()),
+                dto.getDate() == null ? "" : dto.getDate().toString(),
+                categoryIds,
+                csv(categoryNames)) + "\r\n";
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha ficam entre aspas,
+    // e as aspas internas são duplicadas.
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,394 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchErrorDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO.Status;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.util.CsvReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importação de produtos a partir de planilhas CSV com centenas de milhares
+ * de linhas (POST /products/import), como um job assíncrono.
+ *
+ * 1) Upload
+ *
+ * O multipart é gravado em disco pelo servlet container
+ * (spring.servlet.multipart.file-size-threshold=0) e movido para um arquivo
+ * temporário do job. A requisição responde 202 logo em seguida, com o ID do
+ * job; o andamento é consultado em GET /products/import/{id}.
+ *
+ * 2) Leitura incremental
+ *
+ * O arquivo é lido registro a registro (CsvReader). O cabeçalho define as
+ * colunas, no mesmo formato de GET /products/export?format=csv:
+ *
+ * name,description,price,imgUrl,date,categoryNames
+ *
+ * (id e categoryIds, se existirem, são ignorados). categoryNames traz os
+ * nomes separados por "|", resolvidos por um mapa nome → categoria
+ * carregado uma única vez. Cada linha passa pelas validações de ProductDTO;
+ * as inválidas são contadas e as primeiras aparecem em errors.
+ *
+ * 3) Gravação em lotes, em paralelo com a leitura
+ *
+ * As linhas válidas são agrupadas em lotes de batchSize e entregues por uma
+ * fila limitada a uma segunda virtual thread, que grava cada lote com
+ * ProductRepository.saveAll em sua própria transação. Enquanto um lote é
+ * gravado o próximo já está sendo lido; com a fila cheia a leitura espera.
+ * Em memória ficam no máximo alguns lotes, qualquer que seja o tamanho do
+ * arquivo, e nenhuma transação fica aberta durante o job inteiro.
+ *
+ * Se a gravação de um lote falhar, o job termina como FAILED; os lotes já
+ * confirmados permanecem gravados (veja inserted).
+ */
+@Service
+public class ProductImportService {
+
+    // Marca o fim da leitura na fila de lotes.
+    private static final List<ProductDTO> END = List.of();
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.max-errors:100}")
+    private int maxErrors;
+
+    // Tempo que um job terminado continua disponível para consulta.
+    @Value("${product.import.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Guarda o arquivo enviado e inicia a importação em segundo plano.
+     */
+    public ProductImportStatusDTO start(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("O arquivo CSV está vazio");
+        }
+
+        Path path;
+        try {
+            path = Files.createTempFile("product-import-", ".csv");
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Não foi possível ler o arquivo enviado");
+        }
+
+        removeExpired();
+        Job job = new Job(UUID.randomUUID().toString(), file.getOriginalFilename());
+        jobs.put(job.id, job);
+        virtualThreads.submit(() -> run(job, path));
+        return job.toDTO();
+    }
+
+    public ProductImportStatusDTO findById(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Importação não encontrada");
+        }
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        virtualThreads.shutdownNow();
+    }
+
+    private void run(Job job, Path path) {
+        BlockingQueue<List<ProductDTO>> queue = new ArrayBlockingQueue<>(2);
+        Future<?> reader = null;
+        try {
+            Map<String, CategoryDTO> categories = loadCategories();
+
+            reader = virtualThreads.submit(() -> {
+                try {
+                    read(job, path, categories, queue);
+                } finally {
+                    queue.put(END);
+                }
+                return null;
+            });
+
+            for (List<ProductDTO> batch = queue.take(); batch != END; batch = queue.take()) {
+                save(batch);
+                job.inserted.addAndGet(batch.size());
+            }
+            // Propaga um erro de leitura (arquivo malformado, cabeçalho inválido...).
+            reader.get();
+            job.finish(Status.COMPLETED, null);
+        } catch (ExecutionException e) {
+            job.finish(Status.FAILED, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(Status.FAILED, "Importação interrompida");
+        } catch (RuntimeException e) {
+            job.finish(Status.FAILED, e.getMessage());
+        } finally {
+            if (reader != null) {
+                // Interrompida, a leitura para de colocar lotes e só grava END
+                // (no finally dela). Se a gravação falhou com a fila cheia,
+                // ninguém mais a consome: esvaziá-la garante espaço para END,
+                // e a thread da leitura termina em vez de ficar presa no put.
+                reader.cancel(true);
+                queue.clear();
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // O arquivo temporário fica para o sistema operacional remover.
+            }
+        }
+    }
+
+    // Lê o arquivo e coloca os lotes de linhas válidas na fila.
+    private void read(Job job, Path path, Map<String, CategoryDTO> categories,
+                      BlockingQueue<List<ProductDTO>> queue) throws IOException, InterruptedException {
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new InvalidRequestException("O arquivo CSV está vazio");
+            }
+            Map<String, Integer> columns = columns(header);
+
+            List<ProductDTO> batch = new ArrayList<>(batchSize);
+            for (List<String> row = csv.next(); row != null; row = csv.next()) {
+                int index = job.rowsRead.incrementAndGet();
+                List<FieldMessage> errors = new ArrayList<>();
+                ProductDTO dto = toDto(row, columns, categories, errors);
+
+                if (!errors.isEmpty()) {
+                    job.reject(index, errors, maxErrors);
+                    continue;
+                }
+                batch.add(dto);
+                if (batch.size() >= batchSize) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+        }
+    }
+
+    // Posição de cada coluna pelo nome, sem diferenciar maiúsculas de minúsculas.
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "description", "price")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidRequestException("Coluna obrigatória ausente no cabeçalho: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private ProductDTO toDto(List<String> row, Map<String, Integer> columns,
+                             Map<String, CategoryDTO> categories, List<FieldMessage> errors) {
+        ProductDTO dto = new ProductDTO();
+        dto.setName(field(row, columns, "name"));
+        dto.setDescription(field(row, columns, "description"));
+
+        String imgUrl = field(row, columns, "imgurl");
+        dto.setImgUrl(imgUrl.isBlank() ? null : imgUrl);
+
+        String price = field(row, columns, "price").trim();
+        if (!price.isEmpty()) {
+            try {
+                dto.setPrice(Double.valueOf(price));
+            } catch (NumberFormatException e) {
+                errors.add(new FieldMessage("price", "Preço inválido: " + price));
+            }
+        }
+
+        String date = field(row, columns, "date").trim();
+        if (!date.isEmpty()) {
+            try {
+                dto.setDate(Instant.parse(date));
+            } catch (DateTimeParseException e) {
+                errors.add(new FieldMessage("date", "Data inválida (use o formato 2024-01-31T10:00:00Z): " + date));
+            }
+        }
+
+        for (String name : field(row, columns, "categorynames").split("\\|")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            CategoryDTO category = categories.get(name.trim().toLowerCase(Locale.ROOT));
+            if (category == null) {
+                errors.add(new FieldMessage("categories", "Categoria não encontrada: " + name.trim()));
+            } else {
+                dto.getCategories().add(category);
+            }
+        }
+
+        for (ConstraintViolation<ProductDTO> violation : validator.validate(dto)) {
+            errors.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        return dto;
+    }
+
+    // Valor da coluna na linha; vazio se a coluna não existe ou a linha é mais curta.
+    private static String field(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= row.size() ? "" : row.get(index);
+    }
+
+    // Uma consulta para todas as categorias, indexadas pelo nome em minúsculas.
+    private Map<String, CategoryDTO> loadCategories() {
+        Map<String, CategoryDTO> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categories.put(category.getName().toLowerCase(Locale.ROOT), new CategoryDTO(category));
+        }
+        return categories;
+    }
+
+    // Grava um lote em uma transação própria, com os INSERTs em lotes JDBC.
+    private void save(List<ProductDTO> batch) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Product> entities = new ArrayList<>(batch.size());
+            for (ProductDTO dto : batch) {
+                Product entity = new Product();
+                entity.setName(dto.getName());
+                entity.setDescription(dto.getDescription());
+                entity.setDate(dto.getDate());
+                entity.setImgUrl(dto.getImgUrl());
+                entity.setPrice(dto.getPrice());
+                for (CategoryDTO category : dto.getCategories()) {
+                    entity.getCategories().add(entityManager.getReference(Category.class, category.getId()));
+                }
+                entities.add(entity);
+            }
+
+            repository.saveAll(entities);
+            entityManager.flush();
+            entityManager.clear();
+
+            // Avisa os índices de busca; eles só aplicam a alteração após o commit do lote.
+            for (int i = 0; i < batch.size(); i++) {
+                ProductDTO dto = batch.get(i);
+                dto.setId(entities.get(i).getId());
+                publisher.publishEvent(new ProductChangedEvent(dto.getId(), dto));
+            }
+        });
+    }
+
+    private void removeExpired() {
+        Instant limit = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    /**
+     * Estado de um job, atualizado pelas threads da importação e lido pelas
+     * requisições de consulta.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final String fileName;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger rowsRead = new AtomicInteger();
+        private final AtomicInteger inserted = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final List<ProductBatchErrorDTO> errors = new ArrayList<>();
+        private volatile Status status = Status.RUNNING;
+        private volatile String message;
+        private volatile Instant finishedAt;
+
+        private Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        private void reject(int index, List<FieldMessage> messages, int maxErrors) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ProductBatchErrorDTO(index, messages));
+                }
+            }
+        }
+
+        private void finish(Status status, String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private ProductImportStatusDTO toDTO() {
+            List<ProductBatchErrorDTO> copy;
+            synchronized (errors) {
+                copy = List.copyOf(errors);
+            }
+            return new ProductImportStatusDTO(id, fileName, status, rowsRead.get(), inserted.get(),
+                    rejected.get(), copy, message, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.repositories.ProductReadRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantém tb_product_read (ProductRead), o modelo de leitura da listagem de
+ * produtos usado por ProductService.findAllPaged.
+ *
+ * - Na inicialização (ApplicationReadyEvent) a tabela é sincronizada com
+ *   tb_catalog_change: só os produtos alterados depois da versão registrada
+ *   em tb_product_read_state (e os produtos das categorias alteradas) são
+ *   regravados. Isso cobre as escritas feitas por nós com o modelo
+ *   desligado. A reconstrução completa, a partir de tb_product, só acontece
+ *   quando a tabela nunca foi construída, quando o registro de alterações
+ *   não cobre mais a versão registrada ou com
+ *   product.search.read-model.rebuild-on-startup=true (ex.: depois de
+ *   alterações feitas direto no banco). A linha de tb_product_read_state é
+ *   bloqueada durante a sincronização: nós que iniciam juntos não
+ *   reconstroem a tabela ao mesmo tempo.
+ * - Cada ProductChangedEvent e CategoryChangedEvent marca os produtos
+ *   afetados na transação atual (a renomeação de uma categoria afeta todos
+ *   os seus produtos). Logo antes do commit, as linhas desses produtos são
+ *   regravadas a partir das tabelas normalizadas, dentro da mesma transação:
+ *   a tabela de leitura nunca fica visível fora de sincronia, e um rollback
+ *   desfaz as duas alterações juntas.
+ *
+ * Um lote com milhares de eventos gera uma única leitura e um único INSERT
+ * em lote no fim da transação.
+ *
+ * Desligado com product.search.read-model.enabled=false: a tabela não é mantida e
+ * a listagem volta às consultas sobre tb_product.
+ */
+@Service
+public class ProductReadModelService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductReadModelService.class);
+
+    // Chave, na transação atual, do conjunto de produtos a regravar.
+    private static final Object PENDING = new Object();
+
+    @Value("${product.search.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.search.read-model.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @Value("${product.search.read-model.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Autowired
+    private ProductReadRepository repository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogVersionRepository versionRepository;
+
+    @Autowired
+    private CatalogChangeRepository changeRepository;
+
+    @Autowired
+    private CatalogVersionService versionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean ready;
+
+    /**
+     * Indica se a listagem pode ler de tb_product_read.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            synchronize(rebuildOnStartup);
+        }
+    }
+
+    /**
+     * Reconstrói a tabela inteira a partir de tb_product.
+     */
+    public void rebuild() {
+        synchronize(true);
+    }
+
+    private void synchronize(boolean full) {
+        long start = System.currentTimeMillis();
+
+        String result = new TransactionTemplate(transactionManager).execute(status -> {
+            Long synchronizedVersion = repository.lockSynchronizedVersion();
+            long version = versionRepository.current();
+
+            if (full || synchronizedVersion == null || synchronizedVersion > version
+                    || version - synchronizedVersion > versionService.retentionVersions()) {
+                long count = rebuildRows();
+                repository.markSynchronized(version);
+                return "reconstruído: " + count + " produtos";
+            }
+            if (synchronizedVersion == version) {
+                return "já sincronizado";
+            }
+            Set<Long> ids = new LinkedHashSet<>(changeRepository.findProductIdsChangedAfter(synchronizedVersion));
+            for (Long categoryId : changeRepository.findCategoryIdsChangedAfter(synchronizedVersion)) {
+                ids.addAll(productRepository.findIdsByCategory(categoryId));
+            }
+            List<Long> list = new ArrayList<>(ids);
+            for (int from = 0; from < list.size(); from += rebuildBatchSize) {
+                write(list.subList(from, Math.min(from + rebuildBatchSize, list.size())));
+            }
+            repository.markSynchronized(version);
+            return "sincronizado: " + ids.size() + " produtos alterados desde a versão " + synchronizedVersion;
+        });
+        ready = true;
+
+        LOG.info("Modelo de leitura de produtos {} em {} ms", result, System.currentTimeMillis() - start);
+    }
+
+    private long rebuildRows() {
+        long[] count = {0};
+        repository.deleteAllRows();
+        List<ProductDTO> batch = new ArrayList<>(rebuildBatchSize);
+        productRepository.streamCatalog(rebuildBatchSize, dto -> {
+            batch.add(dto);
+            if (batch.size() == rebuildBatchSize) {
+                repository.insertAll(batch);
+                count[0] += batch.size();
+                batch.clear();
+            }
+        });
+        repository.insertAll(batch);
+        return count[0] + batch.size();
+    }
+
+    // @EventListener (e não @TransactionalEventListener): roda na hora da
+    // publicação, dentro da transação de quem publicou.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            refresh(Set.of(event.getId()));
+        }
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (enabled) {
+            refresh(productRepository.findIdsByCategory(event.getId()));
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Sem transação (ex.: delete() com Propagation.SUPPORTS), a alteração
+        // já foi gravada: regrava as linhas imediatamente.
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            write(ids);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING);
+        if (pending == null) {
+            Set<Long> created = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Envia ao banco as alterações ainda pendentes no Hibernate,
+                    // para que a leitura por JDBC as enxergue.
+                    entityManager.flush();
+                    write(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                }
+            });
+            pending = created;
+        }
+        pending.addAll(ids);
+    }
+
+    private void write(Collection<Long> ids) {
+        repository.replace(ids, productRepository.findAllWithCategories(ids));
+    }
+}
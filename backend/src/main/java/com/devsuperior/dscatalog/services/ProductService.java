@@ -1,34 +1,84 @@
 package com.devsuperior.dscatalog.services;
 
 import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.FacetedPage;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductSuggestionDTO;
+import com.devsuperior.dscatalog.dto.VersionedDTO;
 import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.IdProjection;
 import com.devsuperior.dscatalog.projections.ProductProjection;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
+import com.devsuperior.dscatalog.services.exceptions.PreconditionFailedException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductReadRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.cache.CatalogSnapshot;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.search.CatalogIndexer;
+import com.devsuperior.dscatalog.services.search.CategoryBitmapIndex;
+import com.devsuperior.dscatalog.services.search.ColumnarIndex;
+import com.devsuperior.dscatalog.services.search.FullTextIndex;
+import com.devsuperior.dscatalog.services.search.FuzzyIndex;
+import com.devsuperior.dscatalog.services.search.IndexedProduct;
+import com.devsuperior.dscatalog.services.search.ProductFilter;
+import com.devsuperior.dscatalog.services.search.ProductSearchCache;
+import com.devsuperior.dscatalog.services.search.RangeIndex;
+import com.devsuperior.dscatalog.services.search.SearchTotalsCache;
+import com.devsuperior.dscatalog.services.search.SuggestionTrie;
+import com.devsuperior.dscatalog.services.search.TrigramIndex;
+import com.devsuperior.dscatalog.util.ProductCursor;
+import com.devsuperior.dscatalog.util.BatchHydrator;
+import com.devsuperior.dscatalog.util.ETags;
 import com.devsuperior.dscatalog.util.Utils;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityNotFoundException;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 // @Service indica que esta classe pertence à camada de serviço da aplicação.
 // A camada de serviço concentra as regras de negócio.
 @Service
 public class ProductService {
 
+    // Sem limites de preço ou data (apenas ordenação pelo RangeIndex).
+    private static final RangeIndex.Range NO_RANGE = new RangeIndex.Range(null, null, null, null);
+
+    // Identifica esta instância no ETag das listagens (localListingVersion).
+    private static final String INSTANCE = UUID.randomUUID().toString().substring(0, 8);
+
     // Injeta automaticamente o ProductRepository.
     // O repository é responsável por acessar os dados de Product no banco.
     @Autowired
@@ -39,6 +89,82 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    // Publica os eventos de alteração de produto.
+    // Os índices de busca em memória são atualizados a partir deles após o commit.
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    // Índice de trigramas usado para buscar produtos pelo nome sem varrer a tabela.
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Autowired
+    private TrigramIndex trigramIndex;
+
+    // Índice de palavras dos nomes para a busca tolerante a erros (?fuzzy=true).
+    @Autowired
+    private FuzzyIndex fuzzyIndex;
+
+    // Colunas ordenadas de preço e data para faixas e ordenação.
+    @Autowired
+    private RangeIndex rangeIndex;
+
+    // Bitmap de produtos por categoria para os filtros OR/AND.
+    @Autowired
+    private CategoryBitmapIndex categoryIndex;
+
+    // Árvore de prefixos dos nomes para o autocompletar (/products/suggest).
+    @Autowired
+    private SuggestionTrie suggestionTrie;
+
+    // Índice Lucene de nome e descrição para a busca por relevância (?q=).
+    @Autowired
+    private FullTextIndex fullTextIndex;
+
+    // Totais da busca já contados, ajustados a cada alteração de produto.
+    @Autowired
+    private SearchTotalsCache totalsCache;
+
+    // Páginas já buscadas, removidas a cada alteração que as afeta.
+    @Autowired
+    private ProductSearchCache searchCache;
+
+    // Modelo de leitura da listagem (tb_product_read) e quem o mantém.
+    @Autowired
+    private ProductReadRepository readRepository;
+
+    @Autowired
+    private ProductReadModelService readModel;
+
+    // Cópia imutável do catálogo em memória (catalog.snapshot.enabled), lida sem locks.
+    @Autowired
+    private CatalogSnapshot snapshot;
+
+    // Catálogo em colunas primitivas (product.search.columnar.enabled); mantido pelo CatalogIndexer.
+    @Autowired
+    private ColumnarIndex columnarIndex;
+
+    // Quando true, a busca pelo banco é feita em uma única consulta
+    // (página + categorias + total) em vez de três consultas separadas.
+    @Value("${product.search.single-query:true}")
+    private boolean singleQuery;
+
+    // Quando true (e single-query desligado), a contagem da busca roda em uma
+    // virtual thread, em paralelo com a consulta da página e das categorias.
+    @Value("${product.search.parallel-count:false}")
+    private boolean parallelCount;
+
+    // Usado para abrir a transação somente leitura da contagem em paralelo.
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Carrega os produtos da página em lotes de tamanho fixo, na ordem da busca.
+    @Autowired
+    private BatchHydrator hydrator;
+
+    // Uma virtual thread por contagem: ficam bloqueadas no banco sem ocupar threads da plataforma.
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
     // readOnly = true indica que este método apenas consulta dados.
     // Isso melhora a performance, pois não há intenção de alterar o banco.
     @Transactional(readOnly = true)
@@ -59,6 +185,15 @@ public class ProductService {
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
 
+        // Com a cópia do catálogo ligada e atualizada, responde sem acessar o banco.
+        if (snapshot.isReady()) {
+            ProductDTO dto = snapshot.product(id);
+            if (dto == null) {
+                throw new ResourceNotFoundException("Entity not found");
+            }
+            return dto;
+        }
+
         // Busca o produto no banco.
         // Como o resultado pode existir ou não, o retorno é Optional<Product>.
         Optional<Product> obj = repository.findById(id);
@@ -71,6 +206,15 @@ public class ProductService {
         return new ProductDTO(entity, entity.getCategories());
     }
 
+    // ETag atual do produto (versão do produto e de suas categorias), sem carregar a entidade.
+    // Permite responder um GET condicional com 304 sem montar o ProductDTO.
+    @Transactional(readOnly = true)
+    public String findETag(Long id) {
+        return repository.findVersionTag(id)
+                .map(ETags::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
     // Método responsável por inserir um novo produto no banco.
     @Transactional
     public ProductDTO insert(ProductDTO dto) {
@@ -85,26 +229,58 @@ public class ProductService {
         entity = repository.save(entity);
 
         // Retorna o produto salvo em formato DTO.
-        return new ProductDTO(entity, entity.getCategories());
+        ProductDTO result = new ProductDTO(entity, entity.getCategories());
+
+        // Avisa os índices de busca; eles só aplicam a alteração após o commit.
+        publisher.publishEvent(new ProductChangedEvent(result.getId(), result));
+        return result;
     }
 
     // Método responsável por atualizar um produto existente.
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
+        Product entity = updateEntity(id, dto, null);
+
+        // Retorna o produto atualizado em formato DTO.
+        ProductDTO result = new ProductDTO(entity, entity.getCategories());
+
+        // Avisa os índices de busca; eles só aplicam a alteração após o commit.
+        publisher.publishEvent(new ProductChangedEvent(result.getId(), result));
+        return result;
+    }
+
+    // Atualiza o produto apenas se ifMatch (cabeçalho If-Match do PUT) ainda
+    // corresponder ao ETag atual, e devolve o ETag da nova versão.
+    @Transactional
+    public VersionedDTO<ProductDTO> update(Long id, ProductDTO dto, String ifMatch) {
+        Product entity = updateEntity(id, dto, ifMatch);
+        ProductDTO result = new ProductDTO(entity, entity.getCategories());
+        publisher.publishEvent(new ProductChangedEvent(result.getId(), result));
+
+        // Envia o UPDATE agora para que o Hibernate incremente a versão.
+        repository.flush();
+        return new VersionedDTO<>(result, ETags.product(entity));
+    }
+
+    private Product updateEntity(Long id, ProductDTO dto, String ifMatch) {
         try {
 
             // getReferenceById busca uma referência do produto pelo id.
             // Ele não acessa imediatamente o banco, apenas cria uma referência gerenciada pelo JPA.
             Product entity = repository.getReferenceById(id);
 
+            // Confere a pré-condição com a versão carregada. Se outra transação alterar
+            // o produto depois disso, o UPDATE com "WHERE version = ?" do @Version falha
+            // (ObjectOptimisticLockingFailureException, também respondida com 412).
+            if (ifMatch != null && !ETags.matches(ifMatch, ETags.product(entity))) {
+                throw new PreconditionFailedException("O produto foi alterado desde a versão informada em If-Match");
+            }
+
             // Copia os novos dados do DTO para a entidade existente.
             copyDtoToEntity(dto, entity);
 
             // Salva as alterações no banco.
-            entity = repository.save(entity);
-
-            // Retorna o produto atualizado em formato DTO.
-            return new ProductDTO(entity, entity.getCategories());
+            return repository.save(entity);
 
         } catch (EntityNotFoundException e) {
 
@@ -129,6 +305,9 @@ public class ProductService {
             // Deleta o produto pelo id.
             repository.deleteById(id);
 
+            // Remove o produto dos índices de busca.
+            publisher.publishEvent(new ProductChangedEvent(id, null));
+
         } catch (DataIntegrityViolationException e) {
 
             // Essa exceção ocorre quando o produto não pode ser deletado
@@ -164,30 +343,125 @@ public class ProductService {
         }
     }
 
+    // Versão do que este nó tem em memória para responder às listagens (índices,
+    // cópia do catálogo e índice full-text). Eles só mudam quando o nó aplica uma alteração, que
+    // pode chegar depois do commit de outro nó; a instância entra no valor para
+    // que dois nós com contadores iguais não gerem o mesmo ETag.
+    public String localListingVersion() {
+        return INSTANCE + "-" + catalogIndexer.localVersion() + "-" + snapshot.localVersion()
+                + "-" + fullTextIndex.localVersion();
+    }
+
     // Método de busca paginada com filtros por nome e categorias.
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAllPaged(String name, String categoryId, Pageable pageable) {
+        return findAllPaged(name, categoryId, false, pageable);
+    }
 
-        // Cria uma lista vazia de ids de categorias.
-        List<Long> categoryIds = Arrays.asList();
+    // allCategories = true: o produto precisa estar em todas as categorias
+    // informadas (AND), e não em pelo menos uma delas (OR).
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllPaged(String name, String categoryId, boolean allCategories, Pageable pageable) {
+        return findAllPaged(name, categoryId, allCategories, true, pageable);
+    }
 
-        // Se categoryId for diferente de "0", significa que existe filtro por categoria.
-        if (!"0".equals(categoryId)) {
+    // withDescription = false (?fields= sem description): a descrição não é lida
+    // do banco ao carregar a página e fica null nos DTOs.
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllPaged(String name, String categoryId, boolean allCategories,
+                                         boolean withDescription, Pageable pageable) {
+
+        // Converte o parâmetro "1,2,3" em uma lista de ids de categorias.
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+        ProductFilter filter = new ProductFilter(name, categoryIds, allCategories);
+
+        // A cópia do catálogo já traz os DTOs completos: não há o que guardar em cache.
+        if (snapshot.isReady()) {
+            Page<ProductDTO> page = snapshot.search(filter, null, pageable);
+            if (page != null) {
+                return page;
+            }
+        }
 
-            // Divide a String recebida por vírgula.
-            // Exemplo: "1,2,3" vira ["1", "2", "3"].
-            String[] vet = categoryId.split(",");
+        // O cache só é usado com os índices prontos, pois é invalidado por eles.
+        if (!catalogIndexer.isReady()) {
+            return search(filter, name, categoryIds, withDescription, pageable);
+        }
 
-            // Converte o array em lista de String.
-            List<String> list = Arrays.asList(vet);
+        Page<ProductDTO> cached = searchCache.get(filter, pageable, withDescription);
+        if (cached != null) {
+            return cached;
+        }
 
-            // Converte cada String para Long.
-            // Exemplo: ["1", "2", "3"] vira [1L, 2L, 3L].
-            categoryIds = list.stream()
-                    .map(x -> Long.parseLong(x))
-                    .toList();
+        long generation = searchCache.generation();
+        Page<ProductDTO> result = search(filter, name, categoryIds, withDescription, pageable);
+        searchCache.put(filter, pageable, withDescription, result, generation);
+        return result;
+    }
+
+    // Busca sem o cache de páginas: pelo índice em memória ou pelo banco.
+    private Page<ProductDTO> search(ProductFilter filter, String name, List<Long> categoryIds,
+                                    boolean withDescription, Pageable pageable) {
+
+        // Índice colunar: categorias, nome e ordenação resolvidos sobre arrays
+        // primitivos e bitsets; só a página é carregada do banco.
+        if (catalogIndexer.isReady() && columnarIndex.isEnabled()) {
+            Page<Long> ids = columnarIndex.search(filter, null, pageable);
+            if (ids != null) {
+                return loadPage(ids, withDescription);
+            }
+        }
+
+        // Quando os índices em memória já estão prontos, a busca por nome
+        // é resolvida pelo índice de trigramas, sem LIKE '%termo%' no banco.
+        if (catalogIndexer.isReady() && isSortedByName(pageable)) {
+            return findAllPagedFromIndex(filter, pageable, null, withDescription);
+        }
+
+        // Ordenação por preço ou data: as colunas ordenadas do RangeIndex
+        // já entregam os produtos nessa ordem.
+        if (catalogIndexer.isReady() && rangeSortProperty(pageable) != null) {
+            return findAllPagedFromRangeIndex(filter, NO_RANGE, pageable, withDescription);
+        }
+
+        // AND entre categorias: sem o cache de totais. No modelo de leitura é um
+        // LIKE por categoria; nas tabelas normalizadas, GROUP BY/HAVING.
+        if (filter.isAllCategories()) {
+            if (readModel.isReady()) {
+                return readRepository.search(categoryIds, true, name, withDescription, pageable, null);
+            }
+            return repository.searchProductsInRange(categoryIds, true, name, null, null, null, null, pageable);
         }
 
+        // Total já contado para este filtro: evita a contagem no banco.
+        // Só é confiável quando os índices estão prontos, pois é ajustado por eles.
+        Long knownTotal = catalogIndexer.isReady() ? totalsCache.get(filter) : null;
+        long generation = totalsCache.generation();
+
+        Page<ProductDTO> result;
+        if (readModel.isReady()) {
+            // Modelo de leitura: uma única tabela, uma linha por produto, sem
+            // JOIN com as categorias e sem DISTINCT.
+            result = readRepository.search(categoryIds, false, name, withDescription, pageable, knownTotal);
+        } else if (singleQuery) {
+            // Uma única ida ao banco: a página, as categorias de cada produto e o
+            // total de elementos voltam juntos, sem reordenação em Java.
+            result = repository.searchProductsSingleQuery(categoryIds, name, pageable, knownTotal);
+        } else {
+            result = findAllPagedFromDatabase(categoryIds, name, pageable, knownTotal, withDescription);
+        }
+
+        if (knownTotal == null && catalogIndexer.isReady()) {
+            totalsCache.put(filter, result.getTotalElements(), generation);
+        }
+        return result;
+    }
+
+    // Busca paginada original, em três consultas ao banco.
+    // Quando knownTotal é informado, a countQuery não é executada.
+    private Page<ProductDTO> findAllPagedFromDatabase(List<Long> categoryIds, String name, Pageable pageable,
+                                                      Long knownTotal, boolean withDescription) {
+
         // Faz a busca paginada utilizando uma projeção.
         //
         // Nesta etapa NÃO carregamos o objeto Product completo.
@@ -199,19 +473,21 @@ public class ProductService {
         //
         // O resultado desta consulta contém apenas os IDs dos produtos
         // que pertencem à página solicitada.
-        Page<ProductProjection> page = repository.searchProducts(categoryIds, name, pageable);
-
-        // Extrai os IDs dos produtos retornados pela consulta paginada.
         //
-        // Exemplo:
-        //
-        // Página retornada:
-        // [3, 7, 1]
-        //
-        // Resultado:
-        //
-        // [3L, 7L, 1L]
-        List<Long> productIds = page.map(x -> x.getId()).toList();
+        // Modo paralelo: a contagem começa antes da página, em uma virtual thread
+        // com a sua própria transação (e conexão) somente leitura. O tempo total
+        // passa a ser o da consulta mais lenta, e não a soma das duas.
+        Future<Long> count = null;
+        if (knownTotal == null && parallelCount) {
+            count = virtualThreads.submit(() -> readOnlyTransaction()
+                    .execute(status -> repository.countProducts(categoryIds, name)));
+        }
+
+        // Com o total já conhecido (ou sendo contado em paralelo) usamos a
+        // variante Slice, que não executa a countQuery.
+        Slice<ProductProjection> page = knownTotal == null && count == null
+                ? repository.searchProducts(categoryIds, name, pageable)
+                : repository.searchProductsSlice(categoryIds, name, pageable);
 
         // Agora que sabemos exatamente quais produtos pertencem à página,
         // realizamos uma segunda consulta.
@@ -231,9 +507,8 @@ public class ProductService {
         //
         // Com JOIN FETCH:
         //
-        // Apenas uma consulta carrega tudo.
-        List<Product> entities = repository.searchProductsWithCategories(productIds);
-
+        // Apenas uma consulta (por lote) carrega tudo.
+        //
         // IMPORTANTE:
         //
         // O banco de dados não garante que os registros retornados
@@ -248,24 +523,29 @@ public class ProductService {
         // Consulta JOIN FETCH:
         // [1, 3, 7]
         //
-        // Para resolver esse problema utilizamos o método Utils.replace(),
-        // que reorganiza os elementos utilizando os IDs como referência,
-        // preservando a ordem correta da paginação.
-        entities = (List<Product>) Utils.replace(page.getContent(), entities);
-
-        // Converte cada entidade Product para ProductDTO.
+        // Para resolver esse problema utilizamos o BatchHydrator, que carrega
+        // os produtos em lotes de tamanho fixo e os reorganiza utilizando os
+        // IDs como referência, preservando a ordem correta da paginação.
         //
-        // Neste momento as categorias já estão carregadas,
-        // evitando consultas adicionais ao banco.
-        List<ProductDTO> dtos = entities.stream()
-                .map(p -> new ProductDTO(p, p.getCategories()))
-                .toList();
+        // Sem a descrição, a página é lida direto das tabelas (sem entidades),
+        // sem a coluna description.
+        List<ProductDTO> dtos = loadInOrder(page.getContent(), withDescription);
+
+        // Aguarda a contagem em paralelo apenas agora, depois da hidratação.
+        long totalElements;
+        if (knownTotal != null) {
+            totalElements = knownTotal;
+        } else if (count != null) {
+            totalElements = Utils.await(count);
+        } else {
+            totalElements = ((Page<ProductProjection>) page).getTotalElements();
+        }
 
         // Cria uma nova página de DTOs mantendo:
         // - os dados convertidos
         // - a paginação original
         // - o total de elementos encontrados
-        Page<ProductDTO> pageDTO = new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+        Page<ProductDTO> pageDTO = new PageImpl<>(dtos, page.getPageable(), totalElements);
 
         // Cria uma nova página de DTOs.
         //
@@ -278,4 +558,379 @@ public class ProductService {
         // exatamente como o Spring Data espera.
         return pageDTO;
     }
+
+    // Converte o parâmetro categoryId recebido na requisição em lista de ids.
+    // "0" significa que não existe filtro por categoria.
+    private static List<Long> parseCategoryIds(String categoryId) {
+
+        // Cria uma lista vazia de ids de categorias.
+        List<Long> categoryIds = Arrays.asList();
+
+        // Se categoryId for diferente de "0", significa que existe filtro por categoria.
+        if (!"0".equals(categoryId)) {
+
+            // Divide a String recebida por vírgula.
+            // Exemplo: "1,2,3" vira ["1", "2", "3"].
+            String[] vet = categoryId.split(",");
+
+            // Converte o array em lista de String.
+            List<String> list = Arrays.asList(vet);
+
+            // Converte cada String para Long.
+            // Exemplo: ["1", "2", "3"] vira [1L, 2L, 3L].
+            categoryIds = list.stream()
+                    .map(x -> Long.parseLong(x))
+                    .toList();
+        }
+
+        return categoryIds;
+    }
+
+    // Busca paginada com faixas de preço (minPrice/maxPrice) e de data (from/to),
+    // além dos filtros de nome e categoria. Os limites são inclusivos.
+    //
+    // Com os índices prontos, a faixa é resolvida por busca binária nas colunas
+    // ordenadas do RangeIndex e só a página é carregada do banco. Caso contrário,
+    // os filtros são aplicados na consulta única do banco.
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllPagedInRange(String name, String categoryId, boolean allCategories,
+                                                Double minPrice, Double maxPrice,
+                                                Instant from, Instant to, Pageable pageable) {
+
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+
+        if (snapshot.isReady()) {
+            Page<ProductDTO> page = snapshot.search(new ProductFilter(name, categoryIds, allCategories),
+                    new RangeIndex.Range(minPrice, maxPrice, from, to), pageable);
+            if (page != null) {
+                return page;
+            }
+        }
+
+        if (catalogIndexer.isReady()) {
+            RangeIndex.Range range = new RangeIndex.Range(minPrice, maxPrice, from, to);
+            if (columnarIndex.isEnabled()) {
+                Page<Long> ids = columnarIndex.search(new ProductFilter(name, categoryIds, allCategories), range, pageable);
+                if (ids != null) {
+                    return loadPage(ids, true);
+                }
+            }
+            return findAllPagedFromRangeIndex(new ProductFilter(name, categoryIds, allCategories), range, pageable, true);
+        }
+
+        return repository.searchProductsInRange(categoryIds, allCategories, name, minPrice, maxPrice, from, to, pageable);
+    }
+
+    // Busca por relevância no nome e na descrição (?q=).
+    //
+    // O FullTextIndex devolve apenas a página de IDs, já ordenada pelo ranking,
+    // e o total; os DTOs dessa página são carregados do banco na mesma ordem.
+    // A ordenação do Pageable é ignorada.
+    //
+    // Enquanto o índice não está pronto, faz a busca normal pelo nome.
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllByText(String q, String categoryId, Pageable pageable) {
+
+        if (!fullTextIndex.isReady()) {
+            return findAllPaged(q, categoryId, pageable);
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        FullTextIndex.Result result = fullTextIndex.search(q, parseCategoryIds(categoryId), offset, size);
+
+        return new PageImpl<>(loadInOrder(result.hits()), pageable, result.total());
+    }
+
+    // Inicia a reconstrução completa do índice full-text em segundo plano.
+    public boolean rebuildFullTextIndex() {
+        return fullTextIndex.startRebuild();
+    }
+
+    // Maior quantidade de sugestões retornada em uma chamada.
+    private static final int MAX_SUGGESTIONS = 50;
+
+    // Autocompletar: nomes com alguma palavra começando pelo texto digitado.
+    //
+    // Atendido apenas pela SuggestionTrie em memória, sem consultas ao banco,
+    // pois é chamado a cada tecla. Enquanto os índices não estão prontos,
+    // retorna uma lista vazia.
+    public List<ProductSuggestionDTO> suggest(String q, String categoryId, int limit) {
+
+        if (!catalogIndexer.isReady()) {
+            return List.of();
+        }
+
+        ProductFilter filter = new ProductFilter("", parseCategoryIds(categoryId));
+        int max = Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+
+        return suggestionTrie.suggest(q, filter::matches, max).stream()
+                .map(p -> new ProductSuggestionDTO(p.getId(), p.getName()))
+                .toList();
+    }
+
+    // Busca tolerante a erros de digitação ("notbook", "smarphone").
+    //
+    // Os nomes parecidos são encontrados pelo FuzzyIndex (BK-tree) em memória;
+    // o banco nunca avalia a distância entre os textos. O resultado é ordenado
+    // pela distância ao termo (a ordenação do Pageable é ignorada) e continua
+    // filtrado pelas categorias informadas.
+    //
+    // Enquanto os índices não estão prontos, faz a busca exata normal.
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllFuzzy(String name, String categoryId, Pageable pageable) {
+
+        if (!catalogIndexer.isReady()) {
+            return findAllPaged(name, categoryId, pageable);
+        }
+
+        // Filtro apenas de categorias: o nome já foi tratado pelo índice.
+        ProductFilter filter = new ProductFilter("", parseCategoryIds(categoryId));
+        List<IndexedProduct> matches = fuzzyIndex.search(name).stream()
+                .map(FuzzyIndex.Match::product)
+                .filter(filter::matches)
+                .toList();
+
+        return toPage(matches, pageable);
+    }
+
+    // Busca paginada acompanhada da quantidade de produtos por categoria
+    // para o filtro de nome atual (facets), evitando uma busca por categoria.
+    //
+    // Pelo índice, página e contagens saem da mesma passagem pelos resultados.
+    // Sem o índice, as contagens vêm de uma única consulta com GROUP BY.
+    @Transactional(readOnly = true)
+    public FacetedPage<ProductDTO> findAllPagedWithFacets(String name, String categoryId, Pageable pageable) {
+
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+
+        if (catalogIndexer.isReady() && isSortedByName(pageable)) {
+            Map<Long, Long> counts = new TreeMap<>();
+            Page<ProductDTO> page = findAllPagedFromIndex(new ProductFilter(name, categoryIds), pageable, counts, true);
+            List<CategoryFacetDTO> facets = counts.entrySet().stream()
+                    .map(e -> new CategoryFacetDTO(e.getKey(), e.getValue()))
+                    .toList();
+            return new FacetedPage<>(page, facets);
+        }
+
+        Page<ProductDTO> page = findAllPaged(name, categoryId, pageable);
+        List<CategoryFacetDTO> facets = repository.countByCategory(name).stream()
+                .map(x -> new CategoryFacetDTO(x.getCategoryId(), x.getTotal()))
+                .toList();
+        return new FacetedPage<>(page, facets);
+    }
+
+    // Busca com os mesmos filtros de findAllPaged, retornando Slice.
+    //
+    // Para clientes que só precisam saber se existe uma próxima página:
+    // o total de elementos não é calculado, então a countQuery nunca roda.
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findAllSliced(String name, String categoryId, Pageable pageable) {
+
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+
+        // Pelo índice o total sai de graça; basta converter a página em Slice.
+        if (catalogIndexer.isReady() && isSortedByName(pageable)) {
+            Page<ProductDTO> page = findAllPagedFromIndex(new ProductFilter(name, categoryIds), pageable, null, true);
+            return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+        }
+
+        Slice<ProductProjection> slice = repository.searchProductsSlice(categoryIds, name, pageable);
+        return new SliceImpl<>(loadInOrder(slice.getContent()), pageable, slice.hasNext());
+    }
+
+    // Paginação por cursor (keyset) com os mesmos filtros de findAllPaged.
+    //
+    // Busca size + 1 registros a partir da posição do cursor: o registro
+    // extra só indica se existe uma próxima página e não é devolvido.
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findAllByCursor(String name, String categoryId, String after, int size) {
+
+        List<Long> categoryIds = parseCategoryIds(categoryId);
+        ProductCursor cursor = ProductCursor.decode(after);
+        int limit = Math.max(size, 1);
+
+        List<ProductProjection> rows = repository.searchProductsAfter(
+                categoryIds, name, cursor.getName(), cursor.getId(), limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+
+        // Mantém a ordem (name, id) definida pela consulta keyset.
+        List<ProductDTO> dtos = loadInOrder(rows);
+
+        // O próximo cursor aponta para o último produto entregue nesta página.
+        String nextCursor = null;
+        if (hasNext) {
+            ProductProjection last = rows.get(rows.size() - 1);
+            nextCursor = new ProductCursor(last.getName(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(dtos, limit, nextCursor);
+    }
+
+    // Busca paginada usando o índice de trigramas.
+    //
+    // O índice devolve apenas os produtos cujo nome contém o termo;
+    // filtro por categoria, ordenação e paginação são feitos em memória
+    // sobre esses resultados. Apenas os produtos da página são carregados
+    // do banco, com JOIN FETCH das categorias.
+    //
+    // Quando facetCounts é informado, a mesma passagem pelos resultados
+    // também conta quantos produtos de cada categoria atendem ao nome.
+    //
+    // O filtro de categorias (OR ou AND) é resolvido antes, com os bitmaps do
+    // CategoryBitmapIndex. Sem termo de busca, os candidatos são diretamente
+    // os IDs do bitmap, sem percorrer o catálogo inteiro.
+    //
+    // Sem termo e sem categoria (a listagem padrão), a página é recortada da
+    // lista que o TrigramIndex já mantém em ordem de nome: nem busca, nem
+    // ordenação do catálogo a cada requisição.
+    private Page<ProductDTO> findAllPagedFromIndex(ProductFilter filter, Pageable pageable,
+                                                   Map<Long, Long> facetCounts, boolean withDescription) {
+
+        Roaring64Bitmap selected = categoryIndex.select(filter.getCategoryIds(), filter.isAllCategories());
+        boolean descending = isDescendingByName(pageable);
+
+        if (selected == null && filter.getName().isEmpty() && facetCounts == null) {
+            List<IndexedProduct> all = trigramIndex.allByName();
+            return toPage(descending ? all.reversed() : all, pageable, withDescription);
+        }
+
+        List<IndexedProduct> matches = new ArrayList<>();
+        if (selected != null && filter.getName().isEmpty() && facetCounts == null) {
+            CategoryBitmapIndex.forEach(selected, id -> {
+                IndexedProduct p = catalogIndexer.get(id);
+                if (p != null) {
+                    matches.add(p);
+                }
+            });
+        } else if (filter.getName().isEmpty()) {
+            // Só com as facetas: todos atendem ao nome, e a lista ordenada dispensa o sort no fim.
+            for (IndexedProduct p : trigramIndex.allByName()) {
+                p.getCategoryIds().forEach(id -> facetCounts.merge(id, 1L, Long::sum));
+                if (selected == null || selected.contains(p.getId())) {
+                    matches.add(p);
+                }
+            }
+            return toPage(descending ? matches.reversed() : matches, pageable, withDescription);
+        } else {
+            for (IndexedProduct p : trigramIndex.search(filter.getName())) {
+                if (facetCounts != null) {
+                    p.getCategoryIds().forEach(id -> facetCounts.merge(id, 1L, Long::sum));
+                }
+                if (selected == null || selected.contains(p.getId())) {
+                    matches.add(p);
+                }
+            }
+        }
+        matches.sort(nameComparator(pageable));
+        return toPage(matches, pageable, withDescription);
+    }
+
+    // Percorre a coluna ordenada (preço ou data) dentro da faixa, aplicando
+    // os filtros de nome e categoria a cada produto. Quando a ordenação pedida
+    // não é por preço nem por data, a ordem por nome é refeita em memória.
+    private Page<ProductDTO> findAllPagedFromRangeIndex(ProductFilter filter, RangeIndex.Range range, Pageable pageable,
+                                                        boolean withDescription) {
+
+        String property = rangeSortProperty(pageable);
+        boolean descending = property != null && pageable.getSort().getOrderFor(property).isDescending();
+
+        List<IndexedProduct> matches = new ArrayList<>();
+        for (IndexedProduct p : rangeIndex.search(range, property, descending)) {
+            if (filter.matches(p)) {
+                matches.add(p);
+            }
+        }
+        if (property == null) {
+            matches.sort(nameComparator(pageable));
+        }
+        return toPage(matches, pageable, withDescription);
+    }
+
+    // Recorta a página solicitada de uma lista já ordenada em memória e
+    // carrega do banco apenas os produtos dela, mantendo a ordem da lista.
+    private Page<ProductDTO> toPage(List<IndexedProduct> matches, Pageable pageable) {
+        return toPage(matches, pageable, true);
+    }
+
+    private Page<ProductDTO> toPage(List<IndexedProduct> matches, Pageable pageable, boolean withDescription) {
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.size()) : matches.size();
+        List<IndexedProduct> content = matches.subList(from, to);
+
+        return new PageImpl<>(loadInOrder(content, withDescription), pageable, matches.size());
+    }
+
+    // Página de IDs já ordenada (ColumnarIndex): carrega apenas os produtos dela, na mesma ordem.
+    private Page<ProductDTO> loadPage(Page<Long> ids, boolean withDescription) {
+        List<IdProjection<Long>> ordered = new ArrayList<>(ids.getNumberOfElements());
+        for (Long id : ids) {
+            ordered.add(() -> id);
+        }
+        return new PageImpl<>(loadInOrder(ordered, withDescription), ids.getPageable(), ids.getTotalElements());
+    }
+
+    // Carrega, com JOIN FETCH das categorias, os produtos de uma página já
+    // definida (apenas IDs) e devolve os DTOs na mesma ordem recebida.
+    private List<ProductDTO> loadInOrder(List<? extends IdProjection<Long>> ordered) {
+        return loadInOrder(ordered, true);
+    }
+
+    // Sem a descrição, os produtos são lidos direto das tabelas, sem a coluna
+    // description e sem montar entidades.
+    private List<ProductDTO> loadInOrder(List<? extends IdProjection<Long>> ordered, boolean withDescription) {
+        if (ordered.isEmpty()) {
+            return List.of();
+        }
+        if (!withDescription) {
+            return hydrator.hydrateInOrder(ordered, ids -> repository.findAllWithCategories(ids, false));
+        }
+        // Um produto excluído depois da busca no índice não volta do banco
+        // e é omitido pelo hydrator.
+        return hydrator.hydrateInOrder(ordered, repository::searchProductsWithCategories).stream()
+                .map(p -> new ProductDTO(p, p.getCategories()))
+                .toList();
+    }
+
+    // O índice sabe ordenar apenas por nome (a mesma ordem padrão da consulta SQL).
+    // Qualquer outra ordenação continua sendo feita pelo banco.
+    private static boolean isSortedByName(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return sort.isUnsorted() || sort.stream().allMatch(order -> order.getProperty().equals("name"));
+    }
+
+    // Transação nova e somente leitura, para consultas fora da thread da requisição.
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    // "price" ou "date" quando a ordenação é apenas por um desses atributos.
+    private static String rangeSortProperty(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() != 1) {
+            return null;
+        }
+        String property = orders.get(0).getProperty();
+        return property.equals("price") || property.equals("date") ? property : null;
+    }
+
+    private static Comparator<IndexedProduct> nameComparator(Pageable pageable) {
+        return isDescendingByName(pageable) ? TrigramIndex.NAME_ORDER.reversed() : TrigramIndex.NAME_ORDER;
+    }
+
+    private static boolean isDescendingByName(Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("name");
+        return order != null && order.isDescending();
+    }
 }
\ No newline at end of file
@@ -11,10 +11,12 @@ import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.repositories.RoleRepository;
 import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.util.BatchHydrator;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -79,14 +81,22 @@ public class UserService implements UserDetailsService {
     @Autowired
     private AuthService authService;
 
+    // @Autowired: Injeta o BatchHydrator, que carrega as entidades de uma página mantendo a ordem dos IDs.
+    @Autowired
+    private BatchHydrator hydrator;
+
     // @Transactional(readOnly = true): Indica que o método é transacional e apenas de leitura.
     // Otimiza a performance, pois não precisa gerenciar transações de escrita.
+    @Transactional(readOnly = true)
     public Page<UserDTO> findAllPaged(Pageable pageable) {
-        // Busca todos os usuários de forma paginada do repositório.
-        Page<User> list = repository.findAll(pageable);
-        // Converte a Page de entidades User para uma Page de UserDTOs usando uma expressão lambda.
-        Page<UserDTO> listDto = list.map(x-> new UserDTO(x));
-        return listDto;
+        // Busca apenas os IDs dos usuários da página (sem os roles).
+        Page<Long> ids = repository.searchUserIds(pageable);
+        // Carrega os usuários da página com os roles (JOIN FETCH), mantendo a ordem da paginação.
+        long[] userIds = ids.getContent().stream().mapToLong(Long::longValue).toArray();
+        List<User> users = hydrator.hydrate(userIds, repository::searchUsersWithRoles);
+        // Converte as entidades User para UserDTOs, preservando os dados de paginação.
+        List<UserDTO> listDto = users.stream().map(x -> new UserDTO(x)).toList();
+        return new PageImpl<>(listDto, pageable, ids.getTotalElements());
     }
 
     // @Transactional(readOnly = true): Indica que o método é transacional e apenas de leitura.
@@ -0,0 +1,515 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.devsuperior.dscatalog.services.search.IndexedProduct;
+import com.devsuperior.dscatalog.services.search.ProductFilter;
+import com.devsuperior.dscatalog.services.search.RangeIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Cópia imutável de todo o catálogo (produtos e categorias) em memória,
+ * usada para responder GET /products/{id}, a listagem filtrada de produtos
+ * e GET /categories sem acessar o banco.
+ *
+ * Leitura sem locks: cada requisição lê a referência atual (AtomicReference)
+ * uma única vez e trabalha sobre essa versão, que nunca muda.
+ *
+ * Escrita por cópia (copy-on-write):
+ *
+ * - Cada ProductChangedEvent e CategoryChangedEvent marca, na transação
+ *   atual, os produtos e categorias alterados.
+ * - Depois do commit, as alterações entram em uma fila e são aplicadas por
+ *   uma única thread própria (catalog-snapshot): esses registros são relidos
+ *   do banco e uma nova versão é montada a partir da anterior (os mapas são
+ *   copiados e a lista ordenada por nome é refeita por intercalação, em
+ *   O(n)). A troca da referência publica a nova versão de uma vez.
+ * - Como só essa thread monta versões, elas são aplicadas na ordem dos
+ *   commits e a releitura do banco nunca é feita com a conexão nem com um
+ *   lock da requisição que fez o commit: a requisição não espera a releitura
+ *   e não precisa de uma segunda conexão do pool. As alterações que chegam
+ *   enquanto a thread está ocupada são aplicadas juntas na próxima versão.
+ * - Se a releitura falhar, a cópia deixa de ser usada (isReady() = false) e
+ *   é recarregada por inteiro; se a carga também falhar, a próxima alteração
+ *   tenta de novo, e até lá as leituras continuam no banco.
+ *
+ * Do início do commit até a nova versão ser publicada, isReady() retorna
+ * false e as leituras voltam ao banco. Assim uma resposta nunca traz um ETag
+ * (lido do banco) mais novo que o corpo (lido da cópia).
+ *
+ * Os DTOs são compartilhados entre as requisições e não devem ser alterados.
+ * A cópia guarda o catálogo inteiro, incluindo as descrições: é indicada para
+ * catálogos que cabem com folga no heap e com muito mais leituras que escritas.
+ *
+ * Desligada por padrão; ligada com catalog.snapshot.enabled=true.
+ */
+@Component
+public class CatalogSnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    // Chave, na transação atual, das alterações a aplicar depois do commit.
+    private static final Object PENDING = new Object();
+
+    // Única thread que monta e publica as versões.
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${catalog.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalog.snapshot.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.EMPTY);
+
+    // Transações entre o início do commit e a publicação da nova versão.
+    private final AtomicLong inFlight = new AtomicLong();
+
+    // Alterações confirmadas e ainda não aplicadas (protegida por synchronized).
+    private final Changes queued = new Changes();
+
+    private volatile boolean loaded;
+
+    // Incrementada a cada versão publicada (carga ou alterações aplicadas).
+    private final AtomicLong localVersion = new AtomicLong();
+
+    /**
+     * Indica se as leituras podem ser respondidas pela cópia.
+     */
+    public boolean isReady() {
+        return loaded && inFlight.get() == 0;
+    }
+
+    /**
+     * Versão da cópia publicada neste nó; entra no ETag das listagens.
+     */
+    public long localVersion() {
+        return localVersion.get();
+    }
+
+    /**
+     * Produto com suas categorias, ou null quando não existe.
+     */
+    public ProductDTO product(Long id) {
+        return state.get().products.get(id);
+    }
+
+    /**
+     * Todas as categorias, em ordem de id.
+     */
+    public List<CategoryDTO> categories() {
+        return state.get().categoryList;
+    }
+
+    /**
+     * Categoria, ou null quando não existe.
+     */
+    public CategoryDTO category(Long id) {
+        return state.get().categories.get(id);
+    }
+
+    /**
+     * Página da listagem com o filtro e a faixa informados (range pode ser
+     * null), com as mesmas regras de ProductFilter.matches.
+     *
+     * Ordena por id, name, price e date; com outra propriedade na ordenação
+     * devolve null, e a busca continua pelo caminho normal.
+     */
+    public Page<ProductDTO> search(ProductFilter filter, RangeIndex.Range range, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        Comparator<IndexedProduct> comparator = comparator(sort);
+        if (comparator == null) {
+            return null;
+        }
+        State current = state.get();
+
+        // A lista já está em ordem de nome: sem ordenação explícita, ou por
+        // nome, basta percorrê-la no sentido pedido.
+        Sort.Order byName = sort.getOrderFor("name");
+        boolean nameOnly = sort.isUnsorted() || (byName != null && sort.toList().size() == 1);
+        boolean reversed = nameOnly && byName != null && byName.isDescending();
+
+        List<IndexedProduct> matches = new ArrayList<>();
+        for (int i = 0; i < current.byName.size(); i++) {
+            IndexedProduct p = current.byName.get(reversed ? current.byName.size() - 1 - i : i);
+            if (filter.matches(p) && (range == null || range.matches(p))) {
+                matches.add(p);
+            }
+        }
+        if (!nameOnly) {
+            matches.sort(comparator);
+        }
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.size()) : matches.size();
+        List<ProductDTO> content = new ArrayList<>(to - from);
+        for (IndexedProduct p : matches.subList(from, to)) {
+            content.add(current.products.get(p.getId()));
+        }
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        // Na thread das alterações: as confirmadas durante a carga são
+        // aplicadas logo depois dela.
+        try {
+            applier.submit(this::load).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao carregar a cópia do catálogo", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        applier.shutdownNow();
+    }
+
+    // @EventListener (e não @TransactionalEventListener): roda na hora da
+    // publicação, dentro da transação de quem publicou, para juntar todas as
+    // alterações da transação em uma única nova versão.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            Changes changes = new Changes();
+            changes.productIds.add(event.getId());
+            submit(changes);
+        }
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (enabled) {
+            Changes changes = new Changes();
+            changes.categoryIds.add(event.getId());
+            submit(changes);
+        }
+    }
+
+    private void submit(Changes changes) {
+        // Sem transação (ex.: delete() com Propagation.SUPPORTS), a alteração
+        // já foi gravada: entra direto na fila.
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            inFlight.incrementAndGet();
+            enqueue(changes);
+            return;
+        }
+        Changes bound = (Changes) TransactionSynchronizationManager.getResource(PENDING);
+        if (bound == null) {
+            Changes created = new Changes();
+            TransactionSynchronizationManager.bindResource(PENDING, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    inFlight.incrementAndGet();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING);
+                    if (!committing) {
+                        return;
+                    }
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(created);
+                    } else {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            });
+            bound = created;
+        }
+        bound.addAll(changes);
+    }
+
+    // Chamado com inFlight já incrementado; a tarefa o decrementa depois de
+    // publicar a versão com essas alterações.
+    private void enqueue(Changes changes) {
+        synchronized (queued) {
+            queued.addAll(changes);
+        }
+        try {
+            applier.execute(() -> {
+                try {
+                    applyQueued();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando.
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Roda apenas na thread applier.
+    private void applyQueued() {
+        Changes changes = new Changes();
+        synchronized (queued) {
+            changes.addAll(queued);
+            queued.clear();
+        }
+        if (changes.isEmpty()) {
+            // Já aplicadas junto com as de uma tarefa anterior.
+            return;
+        }
+        if (!loaded) {
+            // Carga ainda não feita (ou que falhou): a carga completa já lê estas alterações.
+            reload();
+            return;
+        }
+        try {
+            apply(changes);
+        } catch (RuntimeException e) {
+            LOG.error("Falha ao aplicar alterações na cópia do catálogo; recarregando", e);
+            loaded = false;
+            reload();
+        }
+    }
+
+    private void reload() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOG.error("Falha ao recarregar a cópia do catálogo; as leituras continuam no banco", e);
+        }
+    }
+
+    // Carga completa. Roda apenas na thread applier.
+    private void load() {
+        long start = System.currentTimeMillis();
+        loaded = false;
+
+        State loadedState = readOnlyTransaction().execute(status -> {
+            Map<Long, ProductDTO> products = new HashMap<>();
+            productRepository.streamCatalog(fetchSize, dto -> products.put(dto.getId(), dto));
+            return State.of(products, categoryRepository.findAll());
+        });
+        state.set(loadedState);
+        localVersion.incrementAndGet();
+        loaded = true;
+
+        LOG.info("Cópia do catálogo carregada: {} produtos e {} categorias em {} ms",
+                loadedState.products.size(), loadedState.categories.size(), System.currentTimeMillis() - start);
+    }
+
+    // Monta e publica a nova versão. Roda apenas na thread applier.
+    private void apply(Changes changes) {
+        State current = state.get();
+        Set<Long> productIds = new HashSet<>(changes.productIds);
+
+        State next = readOnlyTransaction().execute(status -> {
+            Map<Long, CategoryDTO> categories = null;
+            if (!changes.categoryIds.isEmpty()) {
+                categories = new HashMap<>(current.categories);
+                changes.categoryIds.forEach(categories::remove);
+                for (Category category : categoryRepository.findAllById(changes.categoryIds)) {
+                    categories.put(category.getId(), new CategoryDTO(category));
+                }
+                // O produto traz o nome de suas categorias: os produtos de uma
+                // categoria alterada também são relidos.
+                for (ProductDTO product : current.products.values()) {
+                    for (CategoryDTO category : product.getCategories()) {
+                        if (changes.categoryIds.contains(category.getId())) {
+                            productIds.add(product.getId());
+                            break;
+                        }
+                    }
+                }
+            }
+            return current.with(productIds, productRepository.findAllWithCategories(productIds), categories);
+        });
+        state.set(next);
+        localVersion.incrementAndGet();
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    // Comparador da ordenação pedida, com o id como desempate (mesma regra
+    // do ORDER BY da consulta). Valores nulos ficam no fim, como no PostgreSQL.
+    private static Comparator<IndexedProduct> comparator(Sort sort) {
+        Comparator<IndexedProduct> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedProduct> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(IndexedProduct::getId);
+                case "name" -> Comparator.comparing(IndexedProduct::getName);
+                case "price" -> nullsLast(IndexedProduct::getPrice);
+                case "date" -> nullsLast(IndexedProduct::getDate);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        Comparator<IndexedProduct> byId = Comparator.comparing(IndexedProduct::getId);
+        return result == null ? State.BY_NAME : result.thenComparing(byId);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<IndexedProduct> nullsLast(
+            Function<IndexedProduct, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Ids de produtos e categorias alterados em uma transação.
+     */
+    private static class Changes {
+
+        final Set<Long> productIds = new HashSet<>();
+        final Set<Long> categoryIds = new HashSet<>();
+
+        boolean isEmpty() {
+            return productIds.isEmpty() && categoryIds.isEmpty();
+        }
+
+        void addAll(Changes other) {
+            productIds.addAll(other.productIds);
+            categoryIds.addAll(other.categoryIds);
+        }
+
+        void clear() {
+            productIds.clear();
+            categoryIds.clear();
+        }
+    }
+
+    /**
+     * Uma versão do catálogo. Nunca é alterada depois de criada.
+     */
+    private static final class State {
+
+        static final Comparator<IndexedProduct> BY_NAME = Comparator
+                .comparing(IndexedProduct::getName)
+                .thenComparing(IndexedProduct::getId);
+
+        static final State EMPTY = new State(Map.of(), List.of(), Map.of());
+
+        final Map<Long, ProductDTO> products;
+        // Produtos em ordem de nome (e id), base da listagem.
+        final List<IndexedProduct> byName;
+        final Map<Long, CategoryDTO> categories;
+        final List<CategoryDTO> categoryList;
+
+        private State(Map<Long, ProductDTO> products, List<IndexedProduct> byName, Map<Long, CategoryDTO> categories) {
+            this.products = Collections.unmodifiableMap(products);
+            this.byName = Collections.unmodifiableList(byName);
+            this.categories = Collections.unmodifiableMap(categories);
+            this.categoryList = List.copyOf(new TreeMap<>(categories).values());
+        }
+
+        static State of(Map<Long, ProductDTO> products, List<Category> categories) {
+            List<IndexedProduct> byName = new ArrayList<>(products.size());
+            products.values().forEach(dto -> byName.add(new IndexedProduct(dto)));
+            byName.sort(BY_NAME);
+
+            Map<Long, CategoryDTO> categoryMap = new HashMap<>();
+            categories.forEach(category -> categoryMap.put(category.getId(), new CategoryDTO(category)));
+            return new State(products, byName, categoryMap);
+        }
+
+        /**
+         * Nova versão com os produtos informados substituídos (os ausentes em
+         * loaded foram removidos) e, quando categories não é null, com o novo
+         * mapa de categorias.
+         */
+        State with(Collection<Long> changedIds, List<ProductDTO> loaded, Map<Long, CategoryDTO> categories) {
+            if (changedIds.isEmpty()) {
+                return categories == null ? this : new State(products, byName, categories);
+            }
+
+            Map<Long, ProductDTO> nextProducts = new HashMap<>(products);
+            changedIds.forEach(nextProducts::remove);
+            List<IndexedProduct> added = new ArrayList<>(loaded.size());
+            for (ProductDTO dto : loaded) {
+                nextProducts.put(dto.getId(), dto);
+                added.add(new IndexedProduct(dto));
+            }
+            added.sort(BY_NAME);
+
+            // Intercala a lista anterior (sem os alterados) com os novos, já ordenados.
+            List<IndexedProduct> nextByName = new ArrayList<>(nextProducts.size());
+            int j = 0;
+            for (IndexedProduct p : byName) {
+                if (changedIds.contains(p.getId())) {
+                    continue;
+                }
+                while (j < added.size() && BY_NAME.compare(added.get(j), p) < 0) {
+                    nextByName.add(added.get(j++));
+                }
+                nextByName.add(p);
+            }
+            while (j < added.size()) {
+                nextByName.add(added.get(j++));
+            }
+
+            return new State(nextProducts, nextByName, categories == null ? this.categories : categories);
+        }
+    }
+}
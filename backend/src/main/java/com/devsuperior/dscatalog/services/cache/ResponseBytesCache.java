@@ -0,0 +1,203 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.CommitWindow;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das respostas de GET /products/{id} e GET /categories já
+ * serializadas em JSON (e, opcionalmente, comprimidas com gzip).
+ *
+ * Em um acerto a resposta é escrita direto a partir dos bytes guardados:
+ * não há consulta ao Hibernate, conversão para DTO nem serialização pelo
+ * Jackson. Cada entrada guarda também o ETag, então um GET condicional
+ * (If-None-Match) sobre uma entrada em cache é respondido com 304 sem
+ * acessar o banco. Poucos produtos concentram a maior parte dos acessos, então um
+ * cache pequeno (limitado em bytes, maximumWeight) cobre quase todo o
+ * tráfego; a política W-TinyLFU do Caffeine mantém esses produtos.
+ *
+ * Invalidação:
+ *
+ * - ProductChangedEvent remove o produto alterado.
+ * - CategoryChangedEvent remove a lista de categorias e todos os produtos,
+ *   pois o JSON de cada produto inclui os nomes de suas categorias.
+ *
+ * Assim como em ProductSearchCache, uma resposta lida do banco antes de uma
+ * alteração, ou durante o commit de uma, não é guardada.
+ *
+ * Acertos e falhas ficam em /actuator/metrics/cache.gets, com a tag
+ * cache=product-json.
+ */
+@Component
+public class ResponseBytesCache {
+
+    public static final String NAME = "product-json";
+
+    @Value("${response-cache.max-weight:33554432}")
+    private long maxWeight;
+
+    @Value("${response-cache.gzip:true}")
+    private boolean gzip;
+
+    // Corpos menores que isso não são comprimidos: o ganho não paga os cabeçalhos do gzip.
+    @Value("${response-cache.gzip-min-size:1024}")
+    private int gzipMinSize;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Long, SerializedJson> products;
+
+    private final AtomicReference<SerializedJson> categories = new AtomicReference<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    // O produto é removido no beforeCommit e de novo no fim da transação: uma
+    // leitura feita entre os dois momentos pode ter visto a versão anterior.
+    private final CommitWindow<Long> productCommits = new CommitWindow<>(
+            this::invalidateProducts, this::invalidateProducts);
+    private final CommitWindow<Long> categoryCommits = new CommitWindow<>(
+            ids -> invalidateAll(), ids -> invalidateAll());
+
+    @PostConstruct
+    void init() {
+        products = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, SerializedJson value) -> value.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, NAME);
+    }
+
+    /**
+     * JSON do produto guardado, ou null.
+     */
+    public SerializedJson getProduct(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    /**
+     * JSON do produto; em uma falha, chama o loader (normalmente
+     * ProductService.findById) e serializa o resultado.
+     *
+     * @param etag
+     * ETag do produto, lido antes do loader.
+     */
+    public SerializedJson product(Long id, String etag, Supplier<?> loader) {
+        SerializedJson cached = products.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = this.generation.get();
+        SerializedJson value = serialize(loader.get(), etag);
+        if (canStore(generation)) {
+            products.put(id, value);
+            // Uma alteração pode ter chegado entre a verificação e o put.
+            if (!canStore(generation)) {
+                products.invalidate(id);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * JSON da lista de categorias guardado, ou null.
+     */
+    public SerializedJson getCategories() {
+        return categories.get();
+    }
+
+    /**
+     * JSON da lista de categorias; em uma falha, chama o loader
+     * (CategoryService.findAll) e serializa o resultado.
+     *
+     * @param etag
+     * Versão do catálogo, lida antes do loader.
+     */
+    public SerializedJson categories(String etag, Supplier<?> loader) {
+        SerializedJson cached = categories.get();
+        if (cached != null) {
+            return cached;
+        }
+        long generation = this.generation.get();
+        SerializedJson value = serialize(loader.get(), etag);
+        if (canStore(generation)) {
+            categories.set(value);
+            if (!canStore(generation)) {
+                categories.set(null);
+            }
+        }
+        return value;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        productCommits.add(event.getId());
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categoryCommits.add(event.getId());
+    }
+
+    public long size() {
+        return products.estimatedSize();
+    }
+
+    private boolean canStore(long generation) {
+        return !productCommits.isOpen() && !categoryCommits.isOpen() && generation == this.generation.get();
+    }
+
+    private void invalidateProducts(Set<Long> ids) {
+        generation.incrementAndGet();
+        products.invalidateAll(ids);
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        categories.set(null);
+        products.invalidateAll();
+    }
+
+    private SerializedJson serialize(Object body, String etag) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta", e);
+        }
+        if (!gzip || json.length < gzipMinSize) {
+            return new SerializedJson(json, null, etag);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SerializedJson(json, out.toByteArray(), etag);
+    }
+}
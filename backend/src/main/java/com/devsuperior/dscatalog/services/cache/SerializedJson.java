@@ -0,0 +1,60 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Corpo JSON já serializado de uma resposta, seu ETag e, opcionalmente,
+ * sua versão comprimida com gzip, calculada uma única vez.
+ */
+public final class SerializedJson {
+
+    private final byte[] json;
+
+    // null quando a compressão está desligada ou não compensa (corpo pequeno).
+    private final byte[] gzip;
+
+    // ETag lido antes de carregar o corpo: na pior das hipóteses é mais antigo
+    // que o corpo, o que só faz o cliente baixá-lo de novo.
+    private final String etag;
+
+    SerializedJson(byte[] json, byte[] gzip, String etag) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    int weight() {
+        return 64 + json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    /**
+     * Resposta 200 com os bytes prontos: a versão gzip quando o cliente a
+     * aceita (Accept-Encoding) e ela existe, senão o JSON original.
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        if (gzip != null && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return response.body(json);
+    }
+}
@@ -0,0 +1,21 @@
+package com.devsuperior.dscatalog.services.events;
+
+/**
+ * Evento publicado por CategoryService sempre que uma categoria é
+ * inserida, atualizada ou removida.
+ *
+ * Assim como ProductChangedEvent, é recebido por ouvintes
+ * @TransactionalEventListener, ligados ao commit da transação.
+ */
+public class CategoryChangedEvent {
+
+    private final Long id;
+
+    public CategoryChangedEvent(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,86 @@
+package com.devsuperior.dscatalog.services.events;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Acompanha o commit das transações que publicam alterações do catálogo,
+ * para os caches que não podem guardar um valor lido enquanto uma alteração
+ * já gravada no banco ainda não chegou a eles.
+ *
+ * Cada transação que chama add() recebe uma única TransactionSynchronization
+ * com as chaves adicionadas (ex.: ids dos produtos):
+ *
+ * - beforeCommit:    isOpen() passa a ser true e onCommitting é chamado;
+ * - afterCompletion: depois de todos os afterCommit (como o do
+ *                    CatalogIndexer), onCompleted é chamado e isOpen()
+ *                    volta a ser false.
+ *
+ * O contador só é decrementado se o beforeCommit rodou: uma transação
+ * desfeita antes do commit (ex.: falha de validação depois do evento) não
+ * chama nenhum dos dois e não deixa o contador negativo.
+ */
+public final class CommitWindow<K> {
+
+    private final Consumer<Set<K>> onCommitting;
+    private final Consumer<Set<K>> onCompleted;
+
+    // Transações entre o beforeCommit e o afterCompletion.
+    private final AtomicLong open = new AtomicLong();
+
+    public CommitWindow(Consumer<Set<K>> onCommitting, Consumer<Set<K>> onCompleted) {
+        this.onCommitting = onCommitting;
+        this.onCompleted = onCompleted;
+    }
+
+    public boolean isOpen() {
+        return open.get() != 0;
+    }
+
+    public void add(K key) {
+        // Sem transação (ex.: delete() com Propagation.SUPPORTS), a alteração
+        // já foi gravada: os dois callbacks rodam imediatamente.
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<K> keys = Set.of(key);
+            onCommitting.accept(keys);
+            onCompleted.accept(keys);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<K> bound = (Set<K>) TransactionSynchronizationManager.getResource(this);
+        if (bound == null) {
+            Set<K> created = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    open.incrementAndGet();
+                    onCommitting.accept(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CommitWindow.this);
+                    if (committing) {
+                        try {
+                            onCompleted.accept(created);
+                        }
+                        finally {
+                            open.decrementAndGet();
+                        }
+                    }
+                }
+            });
+            bound = created;
+        }
+        bound.add(key);
+    }
+}
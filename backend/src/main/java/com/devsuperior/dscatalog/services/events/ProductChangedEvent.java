@@ -0,0 +1,35 @@
+package com.devsuperior.dscatalog.services.events;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+
+/**
+ * Evento publicado por ProductService sempre que um produto é
+ * inserido, atualizado ou removido.
+ *
+ * Os ouvintes utilizam @TransactionalEventListener, portanto só
+ * recebem o evento depois que a transação foi confirmada (commit).
+ */
+public class ProductChangedEvent {
+
+    private final Long id;
+
+    // Estado do produto após a alteração. Fica null quando o produto foi removido.
+    private final ProductDTO product;
+
+    public ProductChangedEvent(Long id, ProductDTO product) {
+        this.id = id;
+        this.product = product;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ProductDTO getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
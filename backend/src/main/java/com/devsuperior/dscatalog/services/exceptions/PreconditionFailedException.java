@@ -0,0 +1,11 @@
+package com.devsuperior.dscatalog.services.exceptions;
+
+// Lançada quando o If-Match de um PUT não corresponde mais à versão atual do recurso (412).
+public class PreconditionFailedException extends RuntimeException{
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String msg){
+        super(msg);
+    }
+
+}
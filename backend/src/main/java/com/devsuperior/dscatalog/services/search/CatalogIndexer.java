@@ -0,0 +1,275 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.ProductIndexProjection;
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.CatalogVersionService;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém todos os {@link ProductIndex} sincronizados com o banco de dados.
+ *
+ * - Na inicialização (ApplicationReadyEvent) lê os produtos uma única vez
+ *   e reconstrói todos os índices em paralelo.
+ * - Junta os ProductChangedEvent de cada transação de ProductService e,
+ *   depois do commit, aplica todas as alterações dela de uma vez em cada
+ *   índice (ProductIndex.updateAll).
+ *
+ * Enquanto a carga inicial não termina, isReady() retorna false e as
+ * buscas continuam sendo feitas pelo SQL.
+ *
+ * Com product.search.snapshot.enabled, a carga inicial parte do arquivo
+ * local (IndexSnapshotFile) e relê do banco apenas os produtos alterados
+ * depois da versão do arquivo (tb_catalog_change). A leitura completa de
+ * tb_product só acontece sem arquivo, com um arquivo gerado a partir de
+ * outro banco (database_id de tb_catalog_version diferente do gravado no
+ * arquivo), com um arquivo mais antigo que o registro de alterações ou com
+ * mais da metade do catálogo alterada. Ao final, o arquivo é regravado com
+ * a versão lida antes da carga.
+ */
+@Component
+public class CatalogIndexer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogIndexer.class);
+
+    // Chave das alterações da transação atual em TransactionSynchronizationManager.
+    private static final Object TRANSACTION_CHANGES = new Object();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private CatalogVersionRepository versionRepository;
+
+    @Autowired
+    private CatalogChangeRepository changeRepository;
+
+    @Autowired
+    private CatalogVersionService versionService;
+
+    @Autowired
+    private IndexSnapshotFile snapshotFile;
+
+    @Autowired
+    private List<ProductIndex> indexes;
+
+    // Estado atual de cada produto indexado; usado como "before" nas atualizações.
+    private final Map<Long, IndexedProduct> entries = new ConcurrentHashMap<>();
+
+    // Alterações confirmadas durante a carga inicial, aplicadas logo após ela.
+    private final List<ProductChangedEvent> pending = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    // Incrementada depois de cada alteração aplicada, dentro do synchronized.
+    private final AtomicLong localVersion = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        synchronized (this) {
+            ready = false;
+        }
+
+        // A versão é lida antes dos produtos: alterações feitas durante a
+        // carga ficam com versão maior e são relidas na próxima inicialização.
+        long version = snapshotFile.isEnabled() ? versionRepository.current() : 0;
+        UUID databaseId = snapshotFile.isEnabled() ? databaseId() : null;
+        IndexSnapshotFile.Snapshot snapshot = databaseId != null ? snapshotFile.read() : null;
+
+        Collection<IndexedProduct> fromFile = snapshot == null ? null : catchUp(snapshot, databaseId, version);
+        Collection<IndexedProduct> products = fromFile != null ? fromFile : load();
+
+        synchronized (this) {
+            entries.clear();
+            products.forEach(p -> entries.put(p.getId(), p));
+
+            // Cada índice é reconstruído em paralelo com os demais.
+            indexes.parallelStream().forEach(index -> index.rebuild(products));
+
+            apply(pending);
+            pending.clear();
+            ready = true;
+            localVersion.incrementAndGet();
+        }
+
+        LOG.info("Índices de produtos reconstruídos ({}): {} produtos em {} ms",
+                fromFile != null ? "arquivo" : "banco", products.size(), System.currentTimeMillis() - start);
+
+        if (databaseId != null && (fromFile == null || snapshot.catalogVersion() != version)) {
+            snapshotFile.write(databaseId, version, products);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        // Sem transação (ex.: delete() com Propagation.SUPPORTS), a alteração
+        // já foi gravada: é aplicada imediatamente.
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            onCommitted(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, ProductChangedEvent> changes =
+                (Map<Long, ProductChangedEvent>) TransactionSynchronizationManager.getResource(TRANSACTION_CHANGES);
+        if (changes == null) {
+            Map<Long, ProductChangedEvent> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_CHANGES, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onCommitted(created.values());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_CHANGES);
+                }
+            });
+            changes = created;
+        }
+        // Vale o último estado de cada produto na transação.
+        changes.put(event.getId(), event);
+    }
+
+    private synchronized void onCommitted(Collection<ProductChangedEvent> events) {
+        if (!ready) {
+            pending.addAll(events);
+            return;
+        }
+        apply(events);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Cresce a cada alteração aplicada aos índices deste nó (recarga ou
+     * evento local). Entra no ETag das listagens servidas pelos índices.
+     */
+    public long localVersion() {
+        return localVersion.get();
+    }
+
+    public IndexedProduct get(Long id) {
+        return entries.get(id);
+    }
+
+    private void apply(Collection<ProductChangedEvent> events) {
+        // Um mesmo produto pode aparecer mais de uma vez em pending (várias transações).
+        Map<Long, ProductIndex.Change> changes = new LinkedHashMap<>();
+        for (ProductChangedEvent event : events) {
+            IndexedProduct before = entries.get(event.getId());
+            IndexedProduct after = null;
+
+            // Produtos sem categoria ficam fora da listagem (INNER JOIN no SQL).
+            if (!event.isDeleted() && !event.getProduct().getCategories().isEmpty()) {
+                after = new IndexedProduct(event.getProduct());
+            }
+
+            if (after == null) {
+                entries.remove(event.getId());
+            } else {
+                entries.put(after.getId(), after);
+            }
+
+            ProductIndex.Change first = changes.get(event.getId());
+            IndexedProduct original = first != null ? first.before() : before;
+            if (original != null || after != null) {
+                changes.put(event.getId(), new ProductIndex.Change(original, after));
+            } else {
+                changes.remove(event.getId());
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            List<ProductIndex.Change> list = new ArrayList<>(changes.values());
+            Collection<IndexedProduct> all = Collections.unmodifiableCollection(entries.values());
+            for (ProductIndex index : indexes) {
+                index.updateAll(list, all);
+            }
+        }
+        localVersion.incrementAndGet();
+    }
+
+    /**
+     * Produtos do arquivo com as alterações posteriores a ele relidas do
+     * banco, ou null se for mais barato (ou necessário) ler tudo de novo.
+     */
+    private Collection<IndexedProduct> catchUp(IndexSnapshotFile.Snapshot snapshot, UUID databaseId, long version) {
+        // Arquivo de outro banco, mais novo que o banco (ex.: banco restaurado
+        // de um backup) ou mais antigo que os registros ainda guardados.
+        if (!snapshot.databaseId().equals(databaseId)
+                || snapshot.catalogVersion() > version
+                || version - snapshot.catalogVersion() > versionService.retentionVersions()) {
+            return null;
+        }
+
+        List<Long> changedIds = changeRepository.findProductIdsChangedAfter(snapshot.catalogVersion());
+        if (changedIds.size() > snapshot.products().size() / 2) {
+            return null;
+        }
+
+        Map<Long, IndexedProduct> products = new LinkedHashMap<>();
+        snapshot.products().forEach(p -> products.put(p.getId(), p));
+        changedIds.forEach(products::remove);
+
+        // Produtos removidos não voltam; os sem categoria ficam fora, como em load().
+        for (ProductDTO dto : repository.findAllWithCategories(changedIds, false)) {
+            if (!dto.getCategories().isEmpty()) {
+                products.put(dto.getId(), new IndexedProduct(dto));
+            }
+        }
+        return products.values();
+    }
+
+    // Identificador do banco, ou null (sem o arquivo) se ainda não foi gerado.
+    private UUID databaseId() {
+        String databaseId = versionRepository.databaseId();
+        if (databaseId == null) {
+            LOG.warn("tb_catalog_version sem database_id: o arquivo de índice não será usado");
+            return null;
+        }
+        return UUID.fromString(databaseId);
+    }
+
+    // Agrupa as linhas (produto, categoria) em um IndexedProduct por produto.
+    private Collection<IndexedProduct> load() {
+        Map<Long, ProductIndexProjection> rows = new LinkedHashMap<>();
+        Map<Long, Set<Long>> categories = new LinkedHashMap<>();
+
+        for (ProductIndexProjection row : repository.searchAllForIndex()) {
+            rows.putIfAbsent(row.getId(), row);
+            categories.computeIfAbsent(row.getId(), k -> new HashSet<>()).add(row.getCategoryId());
+        }
+
+        List<IndexedProduct> result = new ArrayList<>(rows.size());
+        rows.forEach((id, row) -> result.add(
+                new IndexedProduct(id, row.getName(), row.getPrice(), row.getDate(), categories.get(id))));
+        return result;
+    }
+}
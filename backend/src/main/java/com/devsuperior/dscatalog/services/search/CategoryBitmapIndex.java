@@ -0,0 +1,122 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Um bitmap compactado (Roaring) de IDs de produtos por categoria.
+ *
+ * O filtro por várias categorias deixa de ser um IN com DISTINCT no banco
+ * e passa a ser uma operação entre bitmaps:
+ *
+ * categoryId=1,3                  → bitmap(1) OR  bitmap(3)
+ * categoryId=1,3&categoryMode=all → bitmap(1) AND bitmap(3)
+ *
+ * Roaring guarda faixas densas de IDs como bitsets e faixas esparsas como
+ * listas ordenadas, então OR e AND processam blocos inteiros de uma vez
+ * e o consumo de memória acompanha a quantidade de produtos.
+ */
+@Component
+public class CategoryBitmapIndex implements ProductIndex {
+
+    private final Map<Long, Roaring64Bitmap> bitmaps = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> products) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            for (IndexedProduct p : products) {
+                add(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                for (Long categoryId : before.getCategoryIds()) {
+                    Roaring64Bitmap bitmap = bitmaps.get(categoryId);
+                    if (bitmap != null) {
+                        bitmap.removeLong(before.getId());
+                        if (bitmap.isEmpty()) {
+                            bitmaps.remove(categoryId);
+                        }
+                    }
+                }
+            }
+            if (after != null) {
+                add(after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna um novo bitmap com os produtos das categorias informadas.
+     *
+     * @param all
+     * true: o produto precisa estar em todas as categorias (AND);
+     * false: em pelo menos uma (OR).
+     *
+     * @return
+     * null quando não há filtro de categoria (todos os produtos).
+     */
+    public Roaring64Bitmap select(Collection<Long> categoryIds, boolean all) {
+        if (categoryIds.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            for (Long categoryId : categoryIds) {
+                Roaring64Bitmap bitmap = bitmaps.get(categoryId);
+                if (bitmap == null) {
+                    if (all) {
+                        return new Roaring64Bitmap();
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = bitmap.clone();
+                } else if (all) {
+                    result.and(bitmap);
+                } else {
+                    result.or(bitmap);
+                }
+            }
+            return result == null ? new Roaring64Bitmap() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Percorre os IDs de um bitmap em ordem crescente.
+    public static void forEach(Roaring64Bitmap bitmap, LongConsumer action) {
+        LongIterator it = bitmap.getLongIterator();
+        while (it.hasNext()) {
+            action.accept(it.next());
+        }
+    }
+
+    private void add(IndexedProduct p) {
+        for (Long categoryId : p.getCategoryIds()) {
+            bitmaps.computeIfAbsent(categoryId, k -> new Roaring64Bitmap()).addLong(p.getId());
+        }
+    }
+}
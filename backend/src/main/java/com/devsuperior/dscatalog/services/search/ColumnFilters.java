@@ -0,0 +1,70 @@
+package com.devsuperior.dscatalog.services.search;
+
+/**
+ * Operações de filtro do {@link ColumnarIndex} sobre colunas de tipos
+ * primitivos e bitsets de linhas (bit i = linha i, 64 linhas por long).
+ *
+ * Há duas implementações com o mesmo resultado:
+ *
+ * - VectorColumnFilters: usa a Vector API do JDK (SIMD), comparando várias
+ *   linhas por instrução. A API ainda é um módulo incubado no Java 21, então
+ *   só está disponível com --add-modules jdk.incubator.vector. O pom já o
+ *   informa na compilação, nos testes e no spring-boot:run. O manifesto de um
+ *   jar não consegue adicionar módulos: com java -jar, o parâmetro precisa estar
+ *   na linha de comando ou em JDK_JAVA_OPTIONS
+ *   (ex.: JDK_JAVA_OPTIONS="--add-modules jdk.incubator.vector").
+ * - ScalarColumnFilters: laços simples, sem desvios, usados quando o módulo
+ *   não está presente.
+ *
+ * best() escolhe a primeira disponível.
+ */
+public interface ColumnFilters {
+
+    /**
+     * Mantém em bits apenas as linhas com min <= values[i] <= max.
+     * NaN (produto sem preço) nunca passa.
+     */
+    void retainBetween(double[] values, double min, double max, long[] bits);
+
+    /**
+     * Mantém em bits apenas as linhas com min <= values[i] <= max.
+     */
+    void retainBetween(long[] values, long min, long max, long[] bits);
+
+    /**
+     * target = target AND other (mesmo tamanho).
+     */
+    void and(long[] target, long[] other);
+
+    /**
+     * target = target OR other (mesmo tamanho).
+     */
+    void or(long[] target, long[] other);
+
+    /**
+     * "vector" ou "scalar", para logs e benchmarks.
+     */
+    String name();
+
+    static ColumnFilters scalar() {
+        return new ScalarColumnFilters();
+    }
+
+    /**
+     * Implementação com a Vector API quando o módulo está presente; caso
+     * contrário, a escalar. A classe vetorizada é carregada por reflexão:
+     * sem o módulo, nem chega a ser carregada.
+     */
+    static ColumnFilters best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ColumnFilters) Class.forName("com.devsuperior.dscatalog.services.search.VectorColumnFilters")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Segue com a implementação escalar.
+            }
+        }
+        return scalar();
+    }
+}
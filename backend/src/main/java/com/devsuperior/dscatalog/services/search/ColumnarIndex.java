@@ -0,0 +1,614 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Catálogo em colunas de tipos primitivos, para filtrar e ordenar a
+ * listagem inteira sem percorrer objetos.
+ *
+ * Cada produto é uma linha; as linhas ficam em ordem de nome (e id):
+ *
+ * ids        long[]    1, 3, 2, ...
+ * prices     double[]  2190.0, 1200.0, NaN (sem preço), ...
+ * dates      long[]    epoch em ms; Long.MAX_VALUE = sem data
+ * nameCodes  int[]     posição do nome no dicionário
+ * names      byte[][]  dicionário de nomes em UTF-8 (e o mesmo nome normalizado)
+ * categories bitset de linhas por categoria (bit i = linha i)
+ *
+ * Uma busca começa pelo bitset das categorias (OR ou AND entre elas), e as
+ * faixas de preço e data apagam os bits das linhas fora da faixa, 64 linhas
+ * por vez (ColumnFilters, com SIMD quando a Vector API está disponível).
+ * O nome é conferido por último, só nas linhas que sobraram. O total é a
+ * contagem de bits; a página sai:
+ *
+ * - por nome: dos bits na ordem das linhas, sem ordenação;
+ * - por preço ou data: de um heap com as offset + size melhores linhas
+ *   (top-K), sem ordenar todos os resultados.
+ *
+ * Alterações copiam as colunas (copy-on-write, como as colunas do
+ * RangeIndex) e publicam a nova versão de uma vez; buscas não usam lock.
+ * Uma transação com muitas alterações reconstrói as colunas uma única vez.
+ * Um nome novo é acrescentado ao dicionário, e os nomes que deixaram de ser
+ * usados só são descartados na próxima reconstrução.
+ *
+ * Desligado por padrão; ligado com product.search.columnar.enabled=true.
+ */
+@Component
+public class ColumnarIndex implements ProductIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ColumnarIndex.class);
+
+    // Produto sem data: fim da ordem crescente (como NULLS LAST no PostgreSQL).
+    private static final long NO_DATE = Long.MAX_VALUE;
+
+    private final boolean enabled;
+    private final ColumnFilters filters;
+
+    private volatile Columns columns = Columns.EMPTY;
+
+    @Autowired
+    public ColumnarIndex(@Value("${product.search.columnar.enabled:false}") boolean enabled) {
+        this(enabled, ColumnFilters.best());
+        if (enabled) {
+            LOG.info("Índice colunar ligado, filtros {}", filters.name());
+            // Comum com java -jar sem o parâmetro da JVM (ver ColumnFilters).
+            if (!"vector".equals(filters.name())) {
+                LOG.warn("Vector API indisponível: inicie a JVM com --add-modules jdk.incubator.vector "
+                        + "(ou JDK_JAVA_OPTIONS) para usar os filtros SIMD");
+            }
+        }
+    }
+
+    public ColumnarIndex(boolean enabled, ColumnFilters filters) {
+        this.enabled = enabled;
+        this.filters = filters;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return columns.size;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<IndexedProduct> products) {
+        if (enabled) {
+            columns = Columns.of(products);
+        }
+    }
+
+    @Override
+    public synchronized void update(IndexedProduct before, IndexedProduct after) {
+        if (!enabled) {
+            return;
+        }
+        Columns next = columns;
+        int code = -1;
+        if (before != null) {
+            int row = next.find(before.getName(), before.getId());
+            if (row >= 0) {
+                // Mesmo nome (ex.: só o preço mudou): reaproveita a entrada do dicionário.
+                if (after != null && after.getName().equals(before.getName())) {
+                    code = next.nameCodes[row];
+                }
+                next = next.without(row);
+            }
+        }
+        if (after != null) {
+            next = next.with(after, code);
+        }
+        columns = next;
+    }
+
+    // Cada update() copia todas as colunas e bitsets (O(n)); a reconstrução
+    // ordena as linhas (O(n log n)). Com mais alterações na transação do que
+    // log2(n), uma reconstrução sai mais barata que uma cópia por produto.
+    @Override
+    public synchronized void updateAll(List<Change> changes, Collection<IndexedProduct> all) {
+        if (!enabled) {
+            return;
+        }
+        if (changes.size() > 64 - Long.numberOfLeadingZeros(columns.size)) {
+            columns = Columns.of(all);
+            return;
+        }
+        for (Change change : changes) {
+            update(change.before(), change.after());
+        }
+    }
+
+    /**
+     * Página de IDs da listagem, na ordem pedida, e o total.
+     *
+     * Ordena por name, price ou date (uma propriedade); com outra ordenação
+     * devolve null, e a busca continua pelos outros índices.
+     *
+     * @param range
+     * Faixas de preço e data; null = sem faixa.
+     */
+    public Page<Long> search(ProductFilter filter, RangeIndex.Range range, Pageable pageable) {
+        Sort.Order order = order(pageable.getSort());
+        if (order == null) {
+            return null;
+        }
+        Columns c = columns;
+
+        long[] bits = select(c, filter);
+        if (range != null && range.hasPrice()) {
+            double min = range.minPrice() == null ? Double.NEGATIVE_INFINITY : range.minPrice();
+            double max = range.maxPrice() == null ? Double.POSITIVE_INFINITY : range.maxPrice();
+            filters.retainBetween(c.prices, min, max, bits);
+        }
+        if (range != null && range.hasDate()) {
+            long from = range.from() == null ? Long.MIN_VALUE : range.from().toEpochMilli();
+            long to = range.to() == null ? NO_DATE - 1 : range.to().toEpochMilli();
+            filters.retainBetween(c.dates, from, to, bits);
+        }
+        if (!filter.getName().isEmpty()) {
+            retainName(c, filter.getName().getBytes(StandardCharsets.UTF_8), bits);
+        }
+
+        int total = 0;
+        for (long word : bits) {
+            total += Long.bitCount(word);
+        }
+        int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int limit = pageable.isPaged() ? Math.min(pageable.getPageSize(), total - offset) : total - offset;
+
+        List<Long> ids = order.getProperty().equals("name")
+                ? inRowOrder(c, bits, offset, limit, order.isDescending())
+                : topK(c, bits, offset, limit, order);
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    // Linhas das categorias do filtro (todas as linhas, sem filtro de categoria).
+    private long[] select(Columns c, ProductFilter filter) {
+        int words = words(c.size);
+        if (filter.getCategoryIds().isEmpty()) {
+            long[] bits = new long[words];
+            Arrays.fill(bits, -1L);
+            if ((c.size & 63) != 0) {
+                bits[words - 1] = (1L << (c.size & 63)) - 1;
+            }
+            return bits;
+        }
+        if (filter.isAllCategories()) {
+            long[] bits = null;
+            for (Long categoryId : filter.getCategoryIds()) {
+                long[] category = c.categories.get(categoryId);
+                if (category == null) {
+                    return new long[words];
+                }
+                if (bits == null) {
+                    bits = category.clone();
+                } else {
+                    filters.and(bits, category);
+                }
+            }
+            return bits;
+        }
+        long[] bits = new long[words];
+        for (Long categoryId : filter.getCategoryIds()) {
+            long[] category = c.categories.get(categoryId);
+            if (category != null) {
+                filters.or(bits, category);
+            }
+        }
+        return bits;
+    }
+
+    // Apaga as linhas cujo nome normalizado não contém o termo.
+    private static void retainName(Columns c, byte[] term, long[] bits) {
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            long remaining = word;
+            while (remaining != 0) {
+                int bit = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                int row = (w << 6) + bit;
+                if (!contains(c.normalizedNames[c.nameCodes[row]], term)) {
+                    word &= ~(1L << bit);
+                }
+            }
+            bits[w] = word;
+        }
+    }
+
+    // UTF-8 não tem sequências sobrepostas: buscar os bytes do termo equivale a buscar o texto.
+    private static boolean contains(byte[] text, byte[] term) {
+        outer:
+        for (int i = 0; i <= text.length - term.length; i++) {
+            for (int j = 0; j < term.length; j++) {
+                if (text[i + j] != term[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // As linhas já estão em ordem de nome: percorre os bits, pulando palavras inteiras até o offset.
+    private static List<Long> inRowOrder(Columns c, long[] bits, int offset, int limit, boolean descending) {
+        List<Long> ids = new ArrayList<>(Math.max(limit, 0));
+        int skip = offset;
+        for (int k = 0; k < bits.length && ids.size() < limit; k++) {
+            int w = descending ? bits.length - 1 - k : k;
+            long word = bits[w];
+            int count = Long.bitCount(word);
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            while (word != 0 && ids.size() < limit) {
+                int bit = descending ? 63 - Long.numberOfLeadingZeros(word) : Long.numberOfTrailingZeros(word);
+                word &= ~(1L << bit);
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ids.add(c.ids[(w << 6) + bit]);
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Mantém em um heap as offset + limit melhores linhas; a raiz é a pior
+    // delas e sai quando chega uma linha melhor.
+    private static List<Long> topK(Columns c, long[] bits, int offset, int limit, Sort.Order order) {
+        int k = offset + limit;
+        if (limit <= 0) {
+            return List.of();
+        }
+        IntBinaryOperator comparator = rowComparator(c, order);
+        int[] heap = new int[k];
+        int size = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (size < k) {
+                    heap[size] = row;
+                    siftUp(heap, size++, comparator);
+                } else if (comparator.applyAsInt(row, heap[0]) < 0) {
+                    heap[0] = row;
+                    siftDown(heap, size, comparator);
+                }
+            }
+        }
+        // Retira a pior linha de cada vez, preenchendo o resultado de trás para frente.
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, comparator);
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = offset; i < size; i++) {
+            ids.add(c.ids[sorted[i]]);
+        }
+        return ids;
+    }
+
+    // Ordem do atributo; empates em ordem crescente de id, como no RangeIndex.
+    // Double.compare põe NaN (sem preço) depois de qualquer valor.
+    private static IntBinaryOperator rowComparator(Columns c, Sort.Order order) {
+        boolean descending = order.isDescending();
+        boolean byPrice = order.getProperty().equals("price");
+        return (a, b) -> {
+            int result = byPrice ? Double.compare(c.prices[a], c.prices[b]) : Long.compare(c.dates[a], c.dates[b]);
+            if (descending) {
+                result = -result;
+            }
+            return result != 0 ? result : Long.compare(c.ids[a], c.ids[b]);
+        };
+    }
+
+    private static void siftUp(int[] heap, int i, IntBinaryOperator comparator) {
+        int row = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (comparator.applyAsInt(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = row;
+    }
+
+    private static void siftDown(int[] heap, int size, IntBinaryOperator comparator) {
+        if (size == 0) {
+            return;
+        }
+        int row = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.applyAsInt(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.applyAsInt(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = row;
+    }
+
+    // Ordenação suportada: nenhuma (nome), ou uma única por name, price ou date.
+    private static Sort.Order order(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.Order.asc("name");
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1) {
+            return null;
+        }
+        String property = orders.get(0).getProperty();
+        return property.equals("name") || property.equals("price") || property.equals("date") ? orders.get(0) : null;
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Uma versão das colunas. Nunca é alterada depois de publicada.
+     */
+    private static final class Columns {
+
+        static final Comparator<IndexedProduct> BY_NAME = Comparator
+                .comparing(IndexedProduct::getName)
+                .thenComparing(IndexedProduct::getId);
+
+        static final Columns EMPTY = new Columns(0, new long[0], new double[0], new long[0], new int[0],
+                new byte[0][], new byte[0][], 0, Map.of());
+
+        final int size;
+        final long[] ids;
+        final double[] prices;
+        final long[] dates;
+        final int[] nameCodes;
+
+        // Dicionário: só cresce. Posições além de dictionarySize podem ter sido
+        // preenchidas por versões mais novas e não são lidas por esta.
+        final byte[][] names;
+        final byte[][] normalizedNames;
+        final int dictionarySize;
+
+        final Map<Long, long[]> categories;
+
+        Columns(int size, long[] ids, double[] prices, long[] dates, int[] nameCodes,
+                byte[][] names, byte[][] normalizedNames, int dictionarySize, Map<Long, long[]> categories) {
+            this.size = size;
+            this.ids = ids;
+            this.prices = prices;
+            this.dates = dates;
+            this.nameCodes = nameCodes;
+            this.names = names;
+            this.normalizedNames = normalizedNames;
+            this.dictionarySize = dictionarySize;
+            this.categories = categories;
+        }
+
+        static Columns of(Collection<IndexedProduct> products) {
+            IndexedProduct[] sorted = products.toArray(IndexedProduct[]::new);
+            Arrays.parallelSort(sorted, BY_NAME);
+
+            int n = sorted.length;
+            long[] ids = new long[n];
+            double[] prices = new double[n];
+            long[] dates = new long[n];
+            int[] nameCodes = new int[n];
+            byte[][] names = new byte[n][];
+            byte[][] normalizedNames = new byte[n][];
+            Map<Long, long[]> categories = new HashMap<>();
+
+            // Nomes iguais ficam em linhas vizinhas: cada nome distinto entra uma vez no dicionário.
+            int dictionarySize = 0;
+            for (int i = 0; i < n; i++) {
+                IndexedProduct p = sorted[i];
+                ids[i] = p.getId();
+                prices[i] = price(p);
+                dates[i] = date(p);
+                if (i == 0 || !p.getName().equals(sorted[i - 1].getName())) {
+                    names[dictionarySize] = p.getName().getBytes(StandardCharsets.UTF_8);
+                    normalizedNames[dictionarySize] = p.getNormalizedName().getBytes(StandardCharsets.UTF_8);
+                    dictionarySize++;
+                }
+                nameCodes[i] = dictionarySize - 1;
+                for (Long categoryId : p.getCategoryIds()) {
+                    long[] bits = categories.computeIfAbsent(categoryId, k -> new long[words(n)]);
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            return new Columns(n, ids, prices, dates, nameCodes,
+                    Arrays.copyOf(names, dictionarySize), Arrays.copyOf(normalizedNames, dictionarySize),
+                    dictionarySize, categories);
+        }
+
+        String name(int row) {
+            return new String(names[nameCodes[row]], StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Linha do par (nome, id), ou -(posição de inserção) - 1.
+         */
+        int find(String name, long id) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = name(mid).compareTo(name);
+                if (cmp == 0) {
+                    cmp = Long.compare(ids[mid], id);
+                }
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        Columns without(int row) {
+            Map<Long, long[]> nextCategories = new HashMap<>();
+            categories.forEach((categoryId, bits) -> nextCategories.put(categoryId, removeBit(bits, size, row)));
+            return new Columns(size - 1, remove(ids, row), remove(prices, row), remove(dates, row),
+                    remove(nameCodes, row), names, normalizedNames, dictionarySize, nextCategories);
+        }
+
+        /**
+         * Insere o produto na posição do seu nome. Com code < 0, o nome é
+         * acrescentado ao dicionário.
+         */
+        Columns with(IndexedProduct p, int code) {
+            int found = find(p.getName(), p.getId());
+            int row = found >= 0 ? found : -found - 1;
+
+            byte[][] nextNames = names;
+            byte[][] nextNormalized = normalizedNames;
+            int nextDictionarySize = dictionarySize;
+            if (code < 0) {
+                if (dictionarySize == names.length) {
+                    int capacity = Math.max(16, dictionarySize + (dictionarySize >> 1));
+                    nextNames = Arrays.copyOf(names, capacity);
+                    nextNormalized = Arrays.copyOf(normalizedNames, capacity);
+                }
+                nextNames[dictionarySize] = p.getName().getBytes(StandardCharsets.UTF_8);
+                nextNormalized[dictionarySize] = p.getNormalizedName().getBytes(StandardCharsets.UTF_8);
+                code = nextDictionarySize++;
+            }
+
+            Map<Long, long[]> nextCategories = new HashMap<>();
+            categories.forEach((categoryId, bits) -> nextCategories.put(categoryId,
+                    insertBit(bits, size, row, p.getCategoryIds().contains(categoryId))));
+            for (Long categoryId : p.getCategoryIds()) {
+                nextCategories.computeIfAbsent(categoryId, k -> insertBit(new long[words(size)], size, row, true));
+            }
+
+            return new Columns(size + 1, insert(ids, row, p.getId()), insert(prices, row, price(p)),
+                    insert(dates, row, date(p)), insert(nameCodes, row, code),
+                    nextNames, nextNormalized, nextDictionarySize, nextCategories);
+        }
+
+        private static double price(IndexedProduct p) {
+            return p.getPrice() == null ? Double.NaN : p.getPrice();
+        }
+
+        private static long date(IndexedProduct p) {
+            return p.getDate() == null ? NO_DATE : p.getDate().toEpochMilli();
+        }
+
+        private static long[] insert(long[] values, int i, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, i);
+            result[i] = value;
+            System.arraycopy(values, i, result, i + 1, values.length - i);
+            return result;
+        }
+
+        private static double[] insert(double[] values, int i, double value) {
+            double[] result = new double[values.length + 1];
+            System.arraycopy(values, 0, result, 0, i);
+            result[i] = value;
+            System.arraycopy(values, i, result, i + 1, values.length - i);
+            return result;
+        }
+
+        private static int[] insert(int[] values, int i, int value) {
+            int[] result = new int[values.length + 1];
+            System.arraycopy(values, 0, result, 0, i);
+            result[i] = value;
+            System.arraycopy(values, i, result, i + 1, values.length - i);
+            return result;
+        }
+
+        private static long[] remove(long[] values, int i) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, i);
+            System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+            return result;
+        }
+
+        private static double[] remove(double[] values, int i) {
+            double[] result = new double[values.length - 1];
+            System.arraycopy(values, 0, result, 0, i);
+            System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+            return result;
+        }
+
+        private static int[] remove(int[] values, int i) {
+            int[] result = new int[values.length - 1];
+            System.arraycopy(values, 0, result, 0, i);
+            System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+            return result;
+        }
+
+        // Copia o bitset abrindo a posição index: os bits a partir dela andam uma casa.
+        static long[] insertBit(long[] bits, int size, int index, boolean value) {
+            long[] result = new long[words(size + 1)];
+            int w = index >>> 6;
+            System.arraycopy(bits, 0, result, 0, w);
+            long lowMask = (1L << (index & 63)) - 1;
+            long carry = 0;
+            for (int i = w; i < result.length; i++) {
+                long word = i < bits.length ? bits[i] : 0;
+                if (i == w) {
+                    result[i] = (word & lowMask) | ((word & ~lowMask) << 1) | (value ? 1L << index : 0);
+                } else {
+                    result[i] = (word << 1) | carry;
+                }
+                carry = word >>> 63;
+            }
+            return result;
+        }
+
+        // Copia o bitset sem a posição index: os bits seguintes voltam uma casa.
+        static long[] removeBit(long[] bits, int size, int index) {
+            long[] result = new long[words(size - 1)];
+            int w = index >>> 6;
+            System.arraycopy(bits, 0, result, 0, Math.min(w, result.length));
+            long lowMask = (1L << (index & 63)) - 1;
+            for (int i = w; i < result.length; i++) {
+                long word = bits[i];
+                long next = i + 1 < bits.length ? bits[i + 1] : 0;
+                if (i == w) {
+                    result[i] = (word & lowMask) | ((word >>> 1) & ~lowMask) | (next << 63);
+                } else {
+                    result[i] = (word >>> 1) | (next << 63);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.IdProjection;
+import com.devsuperior.dscatalog.projections.ProductTextProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Índice full-text (Lucene) sobre o nome e a descrição dos produtos.
+ *
+ * O índice fica em um diretório local, e não na memória da JVM: o sistema
+ * operacional mantém em cache apenas as partes mais lidas. O ranking usa
+ * BM25 (padrão do Lucene), com peso 2 para o nome.
+ *
+ * - Reconstrução: lê os produtos em faixas de IDs, cada faixa em uma thread,
+ *   e grava em um diretório novo. Enquanto isso as buscas continuam no índice
+ *   anterior; no fim as alterações recebidas nesse meio tempo são aplicadas
+ *   ao novo índice e ele passa a ser usado.
+ * - Depois de cada commit em ProductService o documento do produto é
+ *   substituído (ou removido) e fica visível na busca seguinte.
+ *
+ * Assim como nos índices em memória, produtos sem categoria não são indexados.
+ */
+@Component
+public class FullTextIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FullTextIndex.class);
+
+    // Quantidade de IDs lidos do banco por tarefa da reconstrução.
+    private static final long RANGE = 5_000;
+
+    private static final float NAME_BOOST = 2f;
+
+    // Prefixo dos diretórios criados pela reconstrução, dentro de baseDirectory.
+    private static final String DIRECTORY_PREFIX = "index-";
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Value("${product.search.fulltext.directory:${java.io.tmpdir}/dscatalog-fulltext}")
+    private Path baseDirectory;
+
+    @Value("${product.search.fulltext.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final AtomicLong localVersion = new AtomicLong();
+
+    // Índice em uso; null até o fim da primeira reconstrução.
+    private volatile Active active;
+
+    // Alterações confirmadas durante uma reconstrução, aplicadas ao novo índice.
+    private List<ProductChangedEvent> pending;
+
+    /**
+     * Resultado de uma busca: a página de IDs, em ordem de relevância,
+     * e o total de documentos encontrados.
+     */
+    public record Result(List<Hit> hits, long total) {
+    }
+
+    public record Hit(Long id, float score) implements IdProjection<Long> {
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+
+    private record Active(Path directory, IndexWriter writer, SearcherManager searchers) {
+    }
+
+    // Diretórios de execuções anteriores são descartados: o índice é sempre
+    // reconstruído na inicialização, pois o banco pode ter mudado nesse tempo.
+    // Apenas os diretórios "index-*" criados por esta classe são removidos;
+    // qualquer outro arquivo em baseDirectory é mantido.
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws IOException {
+        if (Files.isDirectory(baseDirectory)) {
+            List<Path> previous = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(baseDirectory, DIRECTORY_PREFIX + "*")) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        previous.add(entry);
+                    }
+                }
+            }
+            IOUtils.rm(previous.toArray(Path[]::new));
+        }
+        startRebuild();
+    }
+
+    /**
+     * Inicia a reconstrução completa em segundo plano.
+     *
+     * @return
+     * false se já existe uma reconstrução em andamento.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                LOG.error("Falha ao reconstruir o índice full-text", e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+                rebuilding.set(false);
+            }
+        }, "fulltext-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * Cresce a cada alteração que as buscas deste nó já enxergam; entra no
+     * ETag das listagens (como CatalogIndexer.localVersion).
+     */
+    public long localVersion() {
+        return localVersion.get();
+    }
+
+    /**
+     * Busca por relevância no nome e na descrição.
+     *
+     * @param categoryIds
+     * Quando não vazia, o produto precisa pertencer a uma das categorias.
+     */
+    public Result search(String text, Collection<Long> categoryIds, long offset, int size) {
+        Active current = active;
+        List<String> terms = analyze(text);
+        if (current == null || terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        BooleanQuery.Builder textQuery = new BooleanQuery.Builder();
+        for (String term : terms) {
+            textQuery.add(new BoostQuery(new TermQuery(new Term("name", term)), NAME_BOOST), BooleanClause.Occur.SHOULD);
+            textQuery.add(new TermQuery(new Term("description", term)), BooleanClause.Occur.SHOULD);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(textQuery.build(), BooleanClause.Occur.MUST);
+        if (!categoryIds.isEmpty()) {
+            BooleanQuery.Builder categories = new BooleanQuery.Builder();
+            for (Long categoryId : categoryIds) {
+                categories.add(new TermQuery(new Term("category", String.valueOf(categoryId))), BooleanClause.Occur.SHOULD);
+            }
+            query.add(categories.build(), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = current.searchers().acquire();
+            try {
+                return search(searcher, query.build(), offset, size);
+            } finally {
+                current.searchers().release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (pending != null) {
+            pending.add(event);
+        }
+        Active current = active;
+        if (current != null) {
+            try {
+                apply(current.writer(), event);
+                current.searchers().maybeRefresh();
+                localVersion.incrementAndGet();
+            } catch (IOException e) {
+                LOG.error("Falha ao atualizar o produto {} no índice full-text", event.getId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            close(active);
+            active = null;
+        }
+    }
+
+    private void rebuild() throws Exception {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+
+        Path directory = baseDirectory.resolve(DIRECTORY_PREFIX + start);
+        Files.createDirectories(directory);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(64);
+        IndexWriter writer = new IndexWriter(FSDirectory.open(directory), config);
+
+        // IndexWriter aceita addDocument de várias threads ao mesmo tempo.
+        long maxId = repository.findMaxId();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildThreads));
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (long from = 0; from <= maxId; from += RANGE) {
+                long fromId = from;
+                long toId = from + RANGE - 1;
+                tasks.add(executor.submit(() -> {
+                    for (Document doc : documents(repository.searchTextForIndex(fromId, toId))) {
+                        writer.addDocument(doc);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (Exception e) {
+            writer.rollback();
+            IOUtils.rm(directory);
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+        writer.commit();
+
+        Active previous;
+        synchronized (this) {
+            for (ProductChangedEvent event : pending) {
+                apply(writer, event);
+            }
+            pending = null;
+            previous = active;
+            active = new Active(directory, writer, new SearcherManager(writer, null));
+            localVersion.incrementAndGet();
+        }
+        if (previous != null) {
+            close(previous);
+        }
+
+        LOG.info("Índice full-text reconstruído: {} documentos em {} ms",
+                writer.getDocStats().numDocs, System.currentTimeMillis() - start);
+    }
+
+    private static Result search(IndexSearcher searcher, Query query, long offset, int size) throws IOException {
+        int total = searcher.count(query);
+        if (offset >= total || size <= 0) {
+            return new Result(List.of(), total);
+        }
+        int end = (int) Math.min((long) total, offset + size);
+        TopDocs top = searcher.search(query, end);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int i = (int) offset; i < top.scoreDocs.length; i++) {
+            ScoreDoc scoreDoc = top.scoreDocs[i];
+            Document doc = searcher.storedFields().document(scoreDoc.doc, Set.of("id"));
+            hits.add(new Hit(doc.getField("id").numericValue().longValue(), scoreDoc.score));
+        }
+        return new Result(hits, total);
+    }
+
+    private static void apply(IndexWriter writer, ProductChangedEvent event) throws IOException {
+        Term id = new Term("key", String.valueOf(event.getId()));
+        ProductDTO product = event.getProduct();
+        if (event.isDeleted() || product.getCategories().isEmpty()) {
+            writer.deleteDocuments(id);
+        } else {
+            Set<Long> categoryIds = product.getCategories().stream()
+                    .map(CategoryDTO::getId)
+                    .collect(Collectors.toSet());
+            writer.updateDocument(id, document(product.getId(), product.getName(), product.getDescription(), categoryIds));
+        }
+    }
+
+    // Agrupa as linhas (produto, categoria), que chegam ordenadas por id.
+    private static List<Document> documents(List<ProductTextProjection> rows) {
+        List<Document> result = new ArrayList<>();
+        int i = 0;
+        while (i < rows.size()) {
+            ProductTextProjection first = rows.get(i);
+            List<Long> categoryIds = new ArrayList<>();
+            while (i < rows.size() && rows.get(i).getId().equals(first.getId())) {
+                categoryIds.add(rows.get(i).getCategoryId());
+                i++;
+            }
+            result.add(document(first.getId(), first.getName(), first.getDescription(), categoryIds));
+        }
+        return result;
+    }
+
+    private static Document document(Long id, String name, String description, Collection<Long> categoryIds) {
+        Document doc = new Document();
+        doc.add(new StringField("key", String.valueOf(id), Field.Store.NO));
+        doc.add(new StoredField("id", id));
+        doc.add(new TextField("name", name == null ? "" : name, Field.Store.NO));
+        doc.add(new TextField("description", description == null ? "" : description, Field.Store.NO));
+        for (Long categoryId : categoryIds) {
+            doc.add(new StringField("category", String.valueOf(categoryId), Field.Store.NO));
+        }
+        return doc;
+    }
+
+    // Quebra o texto buscado em termos com o mesmo analisador da indexação.
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream("description", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static void close(Active index) {
+        try {
+            index.searchers().close();
+            index.writer().close();
+            IOUtils.rm(index.directory());
+        } catch (IOException e) {
+            LOG.warn("Falha ao remover o índice full-text {}", index.directory(), e);
+        }
+    }
+}
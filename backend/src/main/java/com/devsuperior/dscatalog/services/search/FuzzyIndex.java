@@ -0,0 +1,251 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.util.Utils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice para busca tolerante a erros de digitação ("notbook" → "notebook").
+ *
+ * As palavras dos nomes dos produtos são guardadas em uma BK-tree, uma
+ * árvore em que cada filho fica pendurado na aresta igual à sua distância
+ * de Levenshtein até o pai. Pela desigualdade triangular, ao procurar
+ * palavras a até d edições do termo só é preciso descer nas arestas entre
+ * (distância até o nó - d) e (distância até o nó + d), o que descarta a
+ * maior parte do vocabulário sem calcular a distância até cada palavra.
+ *
+ * Para cada palavra também guardamos os IDs dos produtos que a contêm.
+ * BK-trees não permitem remover nós: uma palavra que deixa de ser usada
+ * continua na árvore, mas sem produtos, e some na próxima reconstrução.
+ */
+@Component
+public class FuzzyIndex implements ProductIndex {
+
+    private static final Comparator<Match> ORDER = Comparator.comparingInt(Match::distance)
+            .thenComparing(m -> m.product().getNormalizedName())
+            .thenComparing(m -> m.product().getId());
+
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private Node root;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Produto encontrado e a soma das distâncias de cada palavra buscada
+     * até a palavra mais próxima do nome.
+     */
+    public record Match(IndexedProduct product, int distance) {
+    }
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            postings.clear();
+            root = null;
+            for (IndexedProduct p : all) {
+                add(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                products.remove(before.getId());
+                for (String word : words(before.getNormalizedName())) {
+                    Set<Long> ids = postings.get(word);
+                    if (ids != null) {
+                        ids.remove(before.getId());
+                    }
+                }
+            }
+            if (after != null) {
+                add(after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna os produtos em que cada palavra do termo tem uma palavra
+     * parecida no nome, ordenados pela distância total e depois pelo nome.
+     *
+     * A distância aceita depende do tamanho da palavra buscada:
+     * até 2 letras nenhuma edição, até 5 letras uma, e duas acima disso.
+     */
+    public List<Match> search(String term) {
+        List<String> terms = List.copyOf(words(Utils.normalize(term)));
+
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                return products.values().stream()
+                        .map(p -> new Match(p, 0))
+                        .sorted(ORDER)
+                        .toList();
+            }
+
+            Map<Long, Integer> distances = null;
+            for (String t : terms) {
+                Map<Long, Integer> current = new HashMap<>();
+                find(t, maxDistance(t)).forEach((word, distance) -> {
+                    for (Long id : postings.get(word)) {
+                        current.merge(id, distance, Math::min);
+                    }
+                });
+
+                // Todas as palavras do termo precisam aparecer no nome.
+                if (distances == null) {
+                    distances = current;
+                } else {
+                    Map<Long, Integer> previous = distances;
+                    distances = new HashMap<>();
+                    for (Map.Entry<Long, Integer> e : current.entrySet()) {
+                        Integer d = previous.get(e.getKey());
+                        if (d != null) {
+                            distances.put(e.getKey(), d + e.getValue());
+                        }
+                    }
+                }
+                if (distances.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Match> result = new ArrayList<>(distances.size());
+            distances.forEach((id, distance) -> {
+                IndexedProduct p = products.get(id);
+                if (p != null) {
+                    result.add(new Match(p, distance));
+                }
+            });
+            result.sort(ORDER);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    static int maxDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 5 ? 1 : 2;
+    }
+
+    private void add(IndexedProduct p) {
+        products.put(p.getId(), p);
+        for (String word : words(p.getNormalizedName())) {
+            Set<Long> ids = postings.get(word);
+            if (ids == null) {
+                ids = new LinkedHashSet<>();
+                postings.put(word, ids);
+                insert(word);
+            }
+            ids.add(p.getId());
+        }
+    }
+
+    private void insert(String word) {
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = levenshtein(word, node.word);
+            Node child = node.children.get(d);
+            if (child == null) {
+                node.children.put(d, new Node(word));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // Palavras do vocabulário (ainda usadas por algum produto) a até max edições.
+    private Map<String, Integer> find(String term, int max) {
+        Map<String, Integer> result = new HashMap<>();
+        if (root == null) {
+            return result;
+        }
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int d = levenshtein(term, node.word);
+            if (d <= max && !postings.get(node.word).isEmpty()) {
+                result.put(node.word, d);
+            }
+            for (Map.Entry<Integer, Node> e : node.children.entrySet()) {
+                if (e.getKey() >= d - max && e.getKey() <= d + max) {
+                    stack.add(e.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Distância de Levenshtein calculada com apenas duas linhas da matriz.
+    // A distância exata é necessária para escolher as arestas da BK-tree.
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Cópia dos produtos indexados (IndexedProduct) em um arquivo no disco
+ * local, marcada com a versão do catálogo (tb_catalog_version) em que os
+ * produtos foram lidos e com o identificador do banco (database_id) que a
+ * contou.
+ *
+ * Na reinicialização, CatalogIndexer mapeia o arquivo em memória
+ * (FileChannel.map) em vez de ler tb_product inteira, e busca no banco
+ * apenas os produtos alterados depois dessa versão (tb_catalog_change).
+ *
+ * Formato (big-endian):
+ *
+ *   cabeçalho: MAGIC (int), FORMAT (int), identificador do banco (UUID,
+ *              dois longs), versão do catálogo (long), quantidade de
+ *              produtos (int)
+ *   produto:   id (long), preço (double, NaN = sem preço),
+ *              data (long com os segundos + int com os nanos, -1 = sem data),
+ *              nome (int com o tamanho + bytes UTF-8),
+ *              categorias (int com a quantidade + um long por categoria)
+ *   rodapé:    CRC32 de todos os bytes anteriores (long)
+ *
+ * O arquivo é gravado em um temporário no mesmo diretório e movido por cima
+ * do anterior (ATOMIC_MOVE), então nunca é lido pela metade. Arquivos
+ * inválidos (outro formato, CRC diferente, mais de 2 GB) são ignorados e a
+ * carga volta a ser feita pelo banco.
+ */
+@Component
+public class IndexSnapshotFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexSnapshotFile.class);
+
+    private static final int MAGIC = 0x44534958; // "DSIX"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 16 + 8 + 4;
+    private static final int CRC_BYTES = 8;
+
+    private final boolean enabled;
+    private final Path file;
+
+    @Autowired
+    public IndexSnapshotFile(@Value("${product.search.snapshot.enabled:false}") boolean enabled,
+                             @Value("${product.search.snapshot.file:${java.io.tmpdir}/dscatalog-index.snap}") String file) {
+        this.enabled = enabled;
+        this.file = Path.of(file);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Produtos do arquivo, ou null se ele não existir ou for inválido.
+     */
+    public Snapshot read() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CRC_BYTES || size > Integer.MAX_VALUE) {
+                LOG.warn("Arquivo de índice ignorado ({} bytes): {}", size, file);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int crcPosition = (int) size - CRC_BYTES;
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, crcPosition));
+            if (crc.getValue() != buffer.getLong(crcPosition)
+                    || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                LOG.warn("Arquivo de índice inválido, ignorado: {}", file);
+                return null;
+            }
+
+            UUID databaseId = new UUID(buffer.getLong(), buffer.getLong());
+            long catalogVersion = buffer.getLong();
+            int count = buffer.getInt();
+            List<IndexedProduct> products = new ArrayList<>(count);
+            byte[] name = new byte[256];
+            for (int i = 0; i < count; i++) {
+                long id = buffer.getLong();
+                double price = buffer.getDouble();
+                long seconds = buffer.getLong();
+                int nanos = buffer.getInt();
+
+                int nameLength = buffer.getInt();
+                if (nameLength > name.length) {
+                    name = new byte[nameLength];
+                }
+                buffer.get(name, 0, nameLength);
+
+                int categoryCount = buffer.getInt();
+                List<Long> categoryIds = new ArrayList<>(categoryCount);
+                for (int c = 0; c < categoryCount; c++) {
+                    categoryIds.add(buffer.getLong());
+                }
+
+                products.add(new IndexedProduct(id, new String(name, 0, nameLength, StandardCharsets.UTF_8),
+                        Double.isNaN(price) ? null : price,
+                        nanos < 0 ? null : Instant.ofEpochSecond(seconds, nanos),
+                        categoryIds));
+            }
+            if (buffer.position() != crcPosition) {
+                LOG.warn("Arquivo de índice inválido, ignorado: {}", file);
+                return null;
+            }
+            return new Snapshot(databaseId, catalogVersion, products);
+        }
+        catch (IOException | RuntimeException e) {
+            LOG.warn("Falha ao ler o arquivo de índice {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Substitui o arquivo pelos produtos informados, lidos do banco
+     * databaseId na versão catalogVersion (ou depois dela). Falhas são apenas registradas no log:
+     * sem o arquivo, a próxima inicialização lê o catálogo do banco.
+     */
+    public void write(UUID databaseId, long catalogVersion, Collection<IndexedProduct> products) {
+        Path temp = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(databaseId.getMostSignificantBits());
+                out.writeLong(databaseId.getLeastSignificantBits());
+                out.writeLong(catalogVersion);
+                out.writeInt(products.size());
+                for (IndexedProduct product : products) {
+                    out.writeLong(product.getId());
+                    out.writeDouble(product.getPrice() == null ? Double.NaN : product.getPrice());
+                    Instant date = product.getDate();
+                    out.writeLong(date == null ? 0 : date.getEpochSecond());
+                    out.writeInt(date == null ? -1 : date.getNano());
+
+                    byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+
+                    out.writeInt(product.getCategoryIds().size());
+                    for (Long categoryId : product.getCategoryIds()) {
+                        out.writeLong(categoryId);
+                    }
+                }
+                // O CRC cobre tudo o que foi escrito até aqui.
+                out.writeLong(crc.getValue());
+            }
+
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException | RuntimeException e) {
+            LOG.warn("Falha ao gravar o arquivo de índice {}: {}", file, e.toString());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                }
+                catch (IOException ignored) {
+                    // O temporário fica para trás; não impede a próxima gravação.
+                }
+            }
+        }
+    }
+
+    public record Snapshot(UUID databaseId, long catalogVersion, List<IndexedProduct> products) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.IdProjection;
+import com.devsuperior.dscatalog.util.Utils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Representação compacta e imutável de um produto mantida em memória
+ * pelos índices de busca.
+ *
+ * Guarda apenas o necessário para filtrar e ordenar a listagem
+ * (id, nome, preço, data e categorias). Os dados completos continuam sendo
+ * carregados do banco somente para os produtos da página solicitada.
+ */
+public final class IndexedProduct implements IdProjection<Long> {
+
+    private final Long id;
+    private final String name;
+    private final String normalizedName;
+    private final Double price;
+    private final Instant date;
+    private final Set<Long> categoryIds;
+
+    public IndexedProduct(Long id, String name, Collection<Long> categoryIds) {
+        this(id, name, null, null, categoryIds);
+    }
+
+    public IndexedProduct(Long id, String name, Double price, Instant date, Collection<Long> categoryIds) {
+        this.id = id;
+        this.name = name == null ? "" : name;
+        this.normalizedName = Utils.normalize(name);
+        this.price = price;
+        this.date = date;
+        this.categoryIds = Set.copyOf(categoryIds);
+    }
+
+    public IndexedProduct(ProductDTO dto) {
+        this(dto.getId(), dto.getName(), dto.getPrice(), dto.getDate(), dto.getCategories().stream()
+                .map(CategoryDTO::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+}
@@ -0,0 +1,102 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.util.Utils;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Filtro da listagem de produtos em forma canônica.
+ *
+ * Duas requisições com o mesmo significado geram o mesmo filtro,
+ * independentemente da forma como foram escritas:
+ *
+ * name = "PC", categoryId = "3,1,3"  → key() = "pc|1,3"
+ * name = "pc", categoryId = "1,3"    → key() = "pc|1,3"
+ * name = "pc", categoryId = "1,3", categoryMode = "all" → key() = "pc|1,3|all"
+ *
+ * Por isso o filtro é usado como chave dos caches da busca. O método
+ * matches() aplica a mesma regra da consulta SQL a um produto em memória,
+ * permitindo descobrir quais entradas de cache uma alteração afeta. Nas
+ * consultas o termo é escapado (Utils.escapeLike), então % e _ também são
+ * comparados literalmente nos dois caminhos.
+ *
+ * Com allCategories = true o produto precisa pertencer a todas as
+ * categorias (categoryMode=all), e não a apenas uma delas.
+ */
+public final class ProductFilter {
+
+    private final String name;
+    private final SortedSet<Long> categoryIds;
+    private final boolean allCategories;
+
+    public ProductFilter(String name, Collection<Long> categoryIds) {
+        this(name, categoryIds, false);
+    }
+
+    public ProductFilter(String name, Collection<Long> categoryIds, boolean allCategories) {
+        this.name = Utils.normalize(name);
+        this.categoryIds = new TreeSet<>(categoryIds);
+        // Com uma categoria (ou nenhuma) os dois modos são equivalentes.
+        this.allCategories = allCategories && this.categoryIds.size() > 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SortedSet<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public boolean isAllCategories() {
+        return allCategories;
+    }
+
+    /**
+     * Indica se o produto aparece na listagem com este filtro:
+     * nome contém o termo e pertence a pelo menos uma das categorias
+     * (ou a qualquer categoria, quando não há filtro de categoria).
+     */
+    public boolean matches(IndexedProduct product) {
+        if (product == null || product.getCategoryIds().isEmpty()) {
+            return false;
+        }
+        if (!product.getNormalizedName().contains(name)) {
+            return false;
+        }
+        if (categoryIds.isEmpty()) {
+            return true;
+        }
+        if (allCategories) {
+            return product.getCategoryIds().containsAll(categoryIds);
+        }
+        for (Long categoryId : product.getCategoryIds()) {
+            if (categoryIds.contains(categoryId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String key() {
+        return name + "|" + categoryIds.stream().map(String::valueOf).collect(Collectors.joining(","))
+                + (allCategories ? "|all" : "");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ProductFilter other)) return false;
+
+        return name.equals(other.name) && categoryIds.equals(other.categoryIds)
+                && allCategories == other.allCategories;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, categoryIds, allCategories);
+    }
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.services.search;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Contrato dos índices de produtos mantidos em memória.
+ *
+ * Todos os componentes que implementam esta interface são descobertos
+ * automaticamente pelo {@link CatalogIndexer}, que:
+ *
+ * - reconstrói o índice a partir do banco na inicialização;
+ * - repassa as alterações confirmadas (commit) em ProductService, todas as
+ *   de uma transação de uma vez (updateAll).
+ */
+public interface ProductIndex {
+
+    /**
+     * Alteração de um produto: before é null em uma inserção, after em uma exclusão.
+     */
+    record Change(IndexedProduct before, IndexedProduct after) {
+    }
+
+    /**
+     * Descarta o conteúdo atual e indexa novamente todos os produtos.
+     */
+    void rebuild(Collection<IndexedProduct> products);
+
+    /**
+     * Aplica uma alteração de um único produto.
+     *
+     * @param before
+     * Estado anterior do produto (null em uma inserção).
+     *
+     * @param after
+     * Novo estado do produto (null em uma exclusão).
+     */
+    void update(IndexedProduct before, IndexedProduct after);
+
+    /**
+     * Aplica as alterações confirmadas em uma mesma transação, no máximo uma
+     * por produto. Por padrão chama update() para cada uma; índices que
+     * copiam estruturas inteiras a cada alteração aplicam o lote de uma vez.
+     *
+     * @param all
+     * Todos os produtos indexados, já com as alterações aplicadas.
+     */
+    default void updateAll(List<Change> changes, Collection<IndexedProduct> all) {
+        for (Change change : changes) {
+            update(change.before(), change.after());
+        }
+    }
+}
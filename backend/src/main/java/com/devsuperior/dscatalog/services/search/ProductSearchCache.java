@@ -0,0 +1,183 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.CommitWindow;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache das páginas retornadas por ProductService.findAllPaged.
+ *
+ * A chave é o filtro canônico (nome normalizado + categorias ordenadas)
+ * junto com o Pageable (página, tamanho e ordenação) e se a página traz a
+ * descrição dos produtos (?fields= sem description guarda páginas sem ela).
+ *
+ * - Usa Caffeine, cuja política de remoção (W-TinyLFU) mantém as buscas
+ *   mais frequentes mesmo quando aparecem muitas buscas únicas.
+ * - O limite é em bytes aproximados (maximumWeight), não em número de páginas.
+ * - Depois de cada commit em ProductService, remove apenas as páginas cujo
+ *   filtro o produto atendia antes ou passou a atender depois da alteração.
+ * - CategoryChangedEvent remove todas as páginas, pois cada produto da
+ *   página traz os nomes de suas categorias.
+ * - Acertos, falhas e remoções ficam em /actuator/metrics/cache.gets etc.,
+ *   com a tag cache=product-search.
+ * - ProductDTO é mutável: o cache guarda uma cópia da página e devolve
+ *   outra cópia a cada acerto, para que quem recebe a página não altere a
+ *   versão guardada.
+ */
+@Component
+public class ProductSearchCache implements ProductIndex {
+
+    public static final String NAME = "product-search";
+
+    @Value("${product.search.cache.max-weight:67108864}")
+    private long maxWeight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Key, Page<ProductDTO>> pages;
+
+    // Mesmo controle de SearchTotalsCache: uma página lida do banco antes de
+    // uma alteração, ou durante o commit de uma, não é guardada.
+    private final AtomicLong generation = new AtomicLong();
+    private final CommitWindow<Long> commits = new CommitWindow<>(
+            ids -> generation.incrementAndGet(),
+            ids -> generation.incrementAndGet());
+    private final CommitWindow<Long> categoryCommits = new CommitWindow<>(
+            ids -> invalidateAll(), ids -> invalidateAll());
+
+    @PostConstruct
+    void init() {
+        pages = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Page<ProductDTO> page) -> weigh(page))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, NAME);
+    }
+
+    /**
+     * Uma página sem descrição também pode ser atendida pela página completa.
+     */
+    public Page<ProductDTO> get(ProductFilter filter, Pageable pageable, boolean withDescription) {
+        Page<ProductDTO> page = pages.getIfPresent(new Key(filter, pageable, withDescription));
+        if (page == null && !withDescription) {
+            page = pages.getIfPresent(new Key(filter, pageable, true));
+        }
+        return page == null ? null : copy(page);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Guarda uma página lida do banco.
+     *
+     * @param generation
+     * Valor de generation() lido antes da busca.
+     */
+    public void put(ProductFilter filter, Pageable pageable, boolean withDescription,
+                    Page<ProductDTO> page, long generation) {
+        if (!canStore(generation)) {
+            return;
+        }
+        Key key = new Key(filter, pageable, withDescription);
+        pages.put(key, copy(page));
+
+        // Uma alteração pode ter chegado entre a verificação e o put.
+        if (!canStore(generation)) {
+            pages.invalidate(key);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        commits.add(event.getId());
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categoryCommits.add(event.getId());
+    }
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> products) {
+        invalidateAll();
+    }
+
+    // Qualquer campo do produto pode ter mudado (preço, descrição...), por isso
+    // também são removidas as páginas cujo filtro ele atende antes e depois.
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        generation.incrementAndGet();
+        pages.asMap().keySet().removeIf(key -> key.filter().matches(before) || key.filter().matches(after));
+    }
+
+    public long size() {
+        return pages.estimatedSize();
+    }
+
+    private boolean canStore(long generation) {
+        return !commits.isOpen() && !categoryCommits.isOpen() && generation == this.generation.get();
+    }
+
+    // Removida no beforeCommit e de novo no fim da transação, como em
+    // ResponseBytesCache: uma leitura entre os dois pode ter visto o nome anterior.
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private static Page<ProductDTO> copy(Page<ProductDTO> page) {
+        return page.map(ProductSearchCache::copy);
+    }
+
+    private static ProductDTO copy(ProductDTO dto) {
+        ProductDTO copy = new ProductDTO(dto.getId(), dto.getName(), dto.getDescription(), dto.getPrice(),
+                dto.getImgUrl(), dto.getDate());
+        List<CategoryDTO> categories = new ArrayList<>(dto.getCategories().size());
+        for (CategoryDTO category : dto.getCategories()) {
+            categories.add(new CategoryDTO(category.getId(), category.getName()));
+        }
+        copy.setCategories(categories);
+        return copy;
+    }
+
+    // Tamanho aproximado, em bytes, de uma página em memória.
+    private static int weigh(Page<ProductDTO> page) {
+        long bytes = 128;
+        for (ProductDTO dto : page.getContent()) {
+            bytes += 96 + chars(dto.getName()) + chars(dto.getDescription()) + chars(dto.getImgUrl());
+            for (CategoryDTO category : dto.getCategories()) {
+                bytes += 48 + chars(category.getName());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+
+    private record Key(ProductFilter filter, Pageable pageable, boolean withDescription) {
+    }
+}
@@ -0,0 +1,327 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Colunas ordenadas de preço e de data para filtros de faixa e ordenação.
+ *
+ * Cada coluna guarda dois arrays primitivos do mesmo tamanho: os valores
+ * em ordem crescente (desempate pelo id) e o id do produto de cada posição.
+ * Uma faixa como "preço entre 100 e 500" vira duas buscas binárias que
+ * delimitam as posições, e os produtos já saem na ordem do atributo.
+ *
+ * Os preços são guardados como long, com uma conversão que preserva a ordem
+ * dos double; assim as duas colunas usam a mesma implementação.
+ *
+ * As colunas são imutáveis: cada alteração cria uma cópia com o produto
+ * removido ou inserido na posição certa e troca a referência, então as
+ * buscas nunca esperam por uma alteração. As alterações de uma transação
+ * entram juntas, em uma única cópia de cada coluna (updateAll).
+ */
+@Component
+public class RangeIndex implements ProductIndex {
+
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+
+    private volatile Column prices = Column.EMPTY;
+    private volatile Column dates = Column.EMPTY;
+
+    /**
+     * Faixas de preço e data (limites inclusivos; null = sem limite).
+     */
+    public record Range(Double minPrice, Double maxPrice, Instant from, Instant to) {
+
+        public boolean hasPrice() {
+            return minPrice != null || maxPrice != null;
+        }
+
+        public boolean hasDate() {
+            return from != null || to != null;
+        }
+
+        public boolean matches(IndexedProduct p) {
+            if (hasPrice()) {
+                Double price = p.getPrice();
+                if (price == null || (minPrice != null && price < minPrice) || (maxPrice != null && price > maxPrice)) {
+                    return false;
+                }
+            }
+            if (hasDate()) {
+                Instant date = p.getDate();
+                if (date == null || (from != null && date.isBefore(from)) || (to != null && date.isAfter(to))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<IndexedProduct> all) {
+        products.clear();
+        all.forEach(p -> products.put(p.getId(), p));
+        prices = Column.of(all, RangeIndex::priceKey);
+        dates = Column.of(all, RangeIndex::dateKey);
+    }
+
+    @Override
+    public synchronized void update(IndexedProduct before, IndexedProduct after) {
+        Column newPrices = prices;
+        Column newDates = dates;
+        if (before != null) {
+            products.remove(before.getId());
+            newPrices = newPrices.without(priceKey(before), before.getId());
+            newDates = newDates.without(dateKey(before), before.getId());
+        }
+        if (after != null) {
+            newPrices = newPrices.with(priceKey(after), after.getId());
+            newDates = newDates.with(dateKey(after), after.getId());
+            products.put(after.getId(), after);
+        }
+        prices = newPrices;
+        dates = newDates;
+    }
+
+    // Uma cópia de cada coluna para o lote inteiro, e não uma por produto:
+    // O(n + k log k) para k alterações em vez de O(n·k).
+    @Override
+    public synchronized void updateAll(List<Change> changes, Collection<IndexedProduct> all) {
+        if (changes.size() == 1) {
+            update(changes.get(0).before(), changes.get(0).after());
+            return;
+        }
+        long[] removed = new long[changes.size()];
+        int removedCount = 0;
+        List<IndexedProduct> added = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            if (change.before() != null) {
+                products.remove(change.before().getId());
+                removed[removedCount++] = change.before().getId();
+            }
+            if (change.after() != null) {
+                added.add(change.after());
+            }
+        }
+        added.forEach(p -> products.put(p.getId(), p));
+
+        removed = Arrays.copyOf(removed, removedCount);
+        Arrays.sort(removed);
+        prices = prices.merge(removed, added, RangeIndex::priceKey);
+        dates = dates.merge(removed, added, RangeIndex::dateKey);
+    }
+
+    /**
+     * Retorna os produtos dentro da faixa, ordenados por "price" ou "date".
+     *
+     * @param property
+     * Atributo da ordenação. Com outro valor (ou null), usa a coluna da
+     * faixa informada, e a ordem do resultado deve ser refeita por quem chamou.
+     *
+     * @param descending
+     * Ordem decrescente do atributo; empates continuam em ordem crescente de id.
+     */
+    public List<IndexedProduct> search(Range range, String property, boolean descending) {
+        boolean byPrice = "price".equals(property) || (!"date".equals(property) && range.hasPrice());
+        Column column = byPrice ? prices : dates;
+
+        int from = 0;
+        int to = column.keys.length;
+        if (byPrice) {
+            if (range.minPrice() != null) {
+                from = column.lowerBound(priceKey(range.minPrice()));
+            }
+            if (range.maxPrice() != null) {
+                to = column.upperBound(priceKey(range.maxPrice()));
+            }
+        } else {
+            if (range.from() != null) {
+                from = column.lowerBound(range.from().toEpochMilli());
+            }
+            if (range.to() != null) {
+                to = column.upperBound(range.to().toEpochMilli());
+            }
+        }
+
+        List<IndexedProduct> result = new ArrayList<>(Math.max(0, to - from));
+        if (!descending) {
+            for (int i = from; i < to; i++) {
+                add(result, column.ids[i], range);
+            }
+            return result;
+        }
+
+        // Percorre de trás para frente, mantendo os ids de mesmo valor em ordem crescente.
+        int i = to - 1;
+        while (i >= from) {
+            int start = i;
+            while (start - 1 >= from && column.keys[start - 1] == column.keys[i]) {
+                start--;
+            }
+            for (int j = start; j <= i; j++) {
+                add(result, column.ids[j], range);
+            }
+            i = start - 1;
+        }
+        return result;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    // A coluna percorrida já limita um dos atributos; o outro é conferido aqui.
+    private void add(List<IndexedProduct> result, long id, Range range) {
+        IndexedProduct p = products.get(id);
+        if (p != null && range.matches(p)) {
+            result.add(p);
+        }
+    }
+
+    // Sem preço ou data, o produto fica no fim da ordem crescente
+    // (como NULLS LAST no PostgreSQL) e nunca entra em uma faixa.
+    private static long priceKey(IndexedProduct p) {
+        return p.getPrice() == null ? Long.MAX_VALUE : priceKey(p.getPrice());
+    }
+
+    private static long dateKey(IndexedProduct p) {
+        return p.getDate() == null ? Long.MAX_VALUE : p.getDate().toEpochMilli();
+    }
+
+    // Converte o double em um long com a mesma ordem: para negativos,
+    // inverte os bits de valor, pois a representação IEEE 754 os ordena ao contrário.
+    static long priceKey(double price) {
+        long bits = Double.doubleToLongBits(price);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static final class Column {
+
+        private static final Column EMPTY = new Column(new long[0], new long[0]);
+
+        private final long[] keys;
+        private final long[] ids;
+
+        private Column(long[] keys, long[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+
+        private static Column of(Collection<IndexedProduct> all, ToLongFunction<IndexedProduct> key) {
+            IndexedProduct[] sorted = all.toArray(IndexedProduct[]::new);
+            Arrays.parallelSort(sorted, Comparator.comparingLong(key).thenComparing(IndexedProduct::getId));
+
+            long[] keys = new long[sorted.length];
+            long[] ids = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = key.applyAsLong(sorted[i]);
+                ids[i] = sorted[i].getId();
+            }
+            return new Column(keys, ids);
+        }
+
+        // Primeira posição com valor >= key.
+        private int lowerBound(long key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Primeira posição com valor > key.
+        private int upperBound(long key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Posição do par (key, id), ou a posição onde ele seria inserido.
+        private int position(long key, long id) {
+            int i = lowerBound(key);
+            while (i < keys.length && keys[i] == key && ids[i] < id) {
+                i++;
+            }
+            return i;
+        }
+
+        private Column with(long key, long id) {
+            int i = position(key, id);
+            long[] newKeys = new long[keys.length + 1];
+            long[] newIds = new long[ids.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(ids, 0, newIds, 0, i);
+            newKeys[i] = key;
+            newIds[i] = id;
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(ids, i, newIds, i + 1, ids.length - i);
+            return new Column(newKeys, newIds);
+        }
+
+        /**
+         * Nova coluna sem as linhas dos ids em removed (ordenado) e com os
+         * produtos de added, intercalados em uma única passagem.
+         */
+        private Column merge(long[] removed, Collection<IndexedProduct> added, ToLongFunction<IndexedProduct> key) {
+            Column inserted = of(added, key);
+            long[] newKeys = new long[keys.length + inserted.keys.length];
+            long[] newIds = new long[newKeys.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < keys.length || j < inserted.keys.length) {
+                if (i < keys.length && Arrays.binarySearch(removed, ids[i]) >= 0) {
+                    i++;
+                    continue;
+                }
+                boolean old = j == inserted.keys.length || (i < keys.length
+                        && (keys[i] < inserted.keys[j] || (keys[i] == inserted.keys[j] && ids[i] < inserted.ids[j])));
+                if (old) {
+                    newKeys[n] = keys[i];
+                    newIds[n++] = ids[i++];
+                } else {
+                    newKeys[n] = inserted.keys[j];
+                    newIds[n++] = inserted.ids[j++];
+                }
+            }
+            return new Column(Arrays.copyOf(newKeys, n), Arrays.copyOf(newIds, n));
+        }
+
+        private Column without(long key, long id) {
+            int i = position(key, id);
+            if (i == keys.length || keys[i] != key || ids[i] != id) {
+                return this;
+            }
+            long[] newKeys = new long[keys.length - 1];
+            long[] newIds = new long[ids.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(ids, 0, newIds, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+            return new Column(newKeys, newIds);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.devsuperior.dscatalog.services.search;
+
+/**
+ * {@link ColumnFilters} em Java puro, usado sem a Vector API.
+ *
+ * Os laços não têm desvios (a comparação vira 0 ou 1 deslocado para a
+ * posição da linha), o que permite ao C2 vetorizá-los em parte.
+ */
+final class ScalarColumnFilters implements ColumnFilters {
+
+    @Override
+    public void retainBetween(double[] values, double min, double max, long[] bits) {
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            if (word == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(base + 64, values.length);
+            long mask = 0;
+            for (int i = base; i < end; i++) {
+                double v = values[i];
+                mask |= (v >= min & v <= max ? 1L : 0L) << (i - base);
+            }
+            bits[w] = word & mask;
+        }
+    }
+
+    @Override
+    public void retainBetween(long[] values, long min, long max, long[] bits) {
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            if (word == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(base + 64, values.length);
+            long mask = 0;
+            for (int i = base; i < end; i++) {
+                long v = values[i];
+                mask |= (v >= min & v <= max ? 1L : 0L) << (i - base);
+            }
+            bits[w] = word & mask;
+        }
+    }
+
+    @Override
+    public void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    @Override
+    public void or(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,97 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.services.events.CommitWindow;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache do total de elementos da busca de produtos, por filtro canônico.
+ *
+ * A countQuery de searchProducts repete todo o JOIN com DISTINCT apenas
+ * para preencher Page.getTotalElements(). Com este cache a contagem é
+ * feita uma vez por filtro; depois disso cada alteração confirmada em
+ * ProductService ajusta os totais em +1/-1 conforme o produto passa a
+ * atender, ou deixa de atender, cada filtro guardado.
+ */
+@Component
+public class SearchTotalsCache implements ProductIndex {
+
+    @Value("${product.search.totals-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<ProductFilter, AtomicLong> totals = new ConcurrentHashMap<>();
+
+    // Incrementado a cada alteração. Um total calculado antes de uma
+    // alteração não é guardado, pois pode não refleti-la.
+    private final AtomicLong generation = new AtomicLong();
+
+    // Transações com alterações de produto entre o commit e o ajuste dos totais.
+    // Enquanto houver alguma, uma contagem pode já incluir a alteração que ainda
+    // será somada por update(); por isso nenhum total novo é guardado.
+    private final CommitWindow<Long> commits = new CommitWindow<>(
+            ids -> generation.incrementAndGet(),
+            ids -> generation.incrementAndGet());
+
+    public Long get(ProductFilter filter) {
+        AtomicLong total = totals.get(filter);
+        return total == null ? null : total.get();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Guarda um total contado no banco.
+     *
+     * @param generation
+     * Valor de generation() lido antes da contagem.
+     */
+    public void put(ProductFilter filter, long total, long generation) {
+        if (commits.isOpen() || generation != this.generation.get()) {
+            return;
+        }
+        if (totals.size() >= maxEntries) {
+            totals.clear();
+        }
+        totals.put(filter, new AtomicLong(total));
+
+        // Uma alteração pode ter chegado entre a verificação e o put.
+        if (commits.isOpen() || generation != this.generation.get()) {
+            totals.remove(filter);
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        commits.add(event.getId());
+    }
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> products) {
+        generation.incrementAndGet();
+        totals.clear();
+    }
+
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        generation.incrementAndGet();
+        totals.forEach((filter, total) -> {
+            int delta = (filter.matches(after) ? 1 : 0) - (filter.matches(before) ? 1 : 0);
+            if (delta != 0) {
+                total.addAndGet(delta);
+            }
+        });
+    }
+
+    public int size() {
+        return totals.size();
+    }
+}
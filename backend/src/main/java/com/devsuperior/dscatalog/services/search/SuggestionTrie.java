@@ -0,0 +1,249 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.util.Utils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Árvore de prefixos compactada (radix trie) para o autocompletar.
+ *
+ * Cada nome normalizado é inserido a partir do início e a partir do
+ * início de cada palavra, para que "gam" sugira "PC Gamer". Em uma
+ * radix trie as sequências sem ramificação ficam em um único nó:
+ *
+ * "pc gamer", "pc gamer alfa", "pc office"
+ *
+ * (raiz) ─ "pc " ─┬─ "gamer" [1] ─ " alfa" [2]
+ *                 └─ "office" [3]
+ *
+ * A sugestão desce até o nó do prefixo digitado e percorre a subárvore
+ * em ordem alfabética, parando ao reunir a quantidade pedida. O custo
+ * depende do tamanho do prefixo e do limite, não do tamanho do catálogo.
+ */
+@Component
+public class SuggestionTrie implements ProductIndex {
+
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+    private Node root = new Node("");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            root = new Node("");
+            for (IndexedProduct p : all) {
+                add(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                products.remove(before.getId());
+                for (String key : keys(before.getNormalizedName())) {
+                    remove(key, before.getId());
+                }
+            }
+            if (after != null) {
+                add(after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna até limit produtos com uma palavra do nome começando pelo
+     * prefixo, em ordem alfabética, que também atendam ao filtro.
+     */
+    public List<IndexedProduct> suggest(String prefix, Predicate<IndexedProduct> filter, int limit) {
+        String normalized = Utils.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node start = find(normalized);
+            if (start == null) {
+                return List.of();
+            }
+
+            // Um produto pode ser alcançado por mais de uma palavra do nome.
+            Set<Long> seen = new LinkedHashSet<>();
+            List<IndexedProduct> result = new ArrayList<>(limit);
+
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(start);
+            while (!stack.isEmpty() && result.size() < limit) {
+                Node node = stack.pop();
+                for (Long id : node.ids) {
+                    IndexedProduct p = products.get(id);
+                    if (p != null && seen.add(id) && filter.test(p)) {
+                        result.add(p);
+                        if (result.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                // Empilha em ordem inversa para visitar os filhos em ordem alfabética.
+                for (Node child : node.children.descendingMap().values()) {
+                    stack.push(child);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private void add(IndexedProduct p) {
+        products.put(p.getId(), p);
+        for (String key : keys(p.getNormalizedName())) {
+            insert(key, p.getId());
+        }
+    }
+
+    // O nome inteiro e o restante do nome a partir de cada palavra.
+    static Set<String> keys(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < name.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+            if (wordStart) {
+                keys.add(name.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private void insert(String key, Long id) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                leaf.ids.add(id);
+                node.children.put(key.charAt(i), leaf);
+                return;
+            }
+
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // O rótulo diverge no meio: divide o nó no ponto comum.
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(key.charAt(i), middle);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        node.ids.add(id);
+    }
+
+    private void remove(String key, Long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        path.add(node);
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return;
+            }
+            node = child;
+            i += child.label.length();
+            path.add(node);
+        }
+        node.ids.remove(id);
+
+        // Remove os nós que ficaram vazios e junta com o filho único
+        // os nós sem produtos, mantendo a árvore compactada.
+        for (int j = path.size() - 1; j > 0; j--) {
+            Node current = path.get(j);
+            Node parent = path.get(j - 1);
+            if (!current.ids.isEmpty()) {
+                break;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+            } else if (current.children.size() == 1) {
+                Node only = current.children.firstEntry().getValue();
+                current.label = current.label + only.label;
+                current.ids = only.ids;
+                current.children = only.children;
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    // Nó em que termina o prefixo (ou cujo rótulo o completa).
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int n = 0;
+        while (n < label.length() && offset + n < key.length() && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static final class Node {
+        private String label;
+        private Set<Long> ids = new LinkedHashSet<>();
+        private TreeMap<Character, Node> children = new TreeMap<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.util.Utils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre os nomes dos produtos.
+ *
+ * A consulta SQL original utiliza:
+ *
+ * LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+ *
+ * Nenhum índice B-tree atende esse filtro, então o banco percorre a
+ * tabela inteira a cada busca. Aqui cada nome é quebrado em trigramas
+ * (sequências de 3 caracteres) e, para cada trigrama, guardamos os IDs
+ * dos produtos que o contêm.
+ *
+ * Exemplo:
+ *
+ * "pc gamer" → ["pc ", "c g", " ga", "gam", "ame", "mer"]
+ *
+ * Para buscar "gam" basta ler a lista do trigrama "gam". Para termos
+ * maiores, intersectamos as listas começando pela menor e depois
+ * confirmamos cada candidato com contains(), eliminando falsos positivos.
+ *
+ * Assim o custo da busca acompanha a quantidade de resultados,
+ * e não o tamanho do catálogo.
+ *
+ * Sem termo de busca (a listagem padrão), todos os produtos atendem; para
+ * não percorrer e ordenar o catálogo a cada página, o índice também mantém
+ * a lista completa já em ordem de nome (byName). Ela é imutável e trocada a
+ * cada alteração, como as colunas do RangeIndex.
+ */
+@Component
+public class TrigramIndex implements ProductIndex {
+
+    private static final int GRAM = 3;
+
+    /**
+     * Ordem da listagem por nome: nome e, no empate, id.
+     */
+    public static final Comparator<IndexedProduct> NAME_ORDER = Comparator
+            .comparing(IndexedProduct::getName)
+            .thenComparing(IndexedProduct::getId);
+
+    private final Map<Long, IndexedProduct> products = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private volatile List<IndexedProduct> byName = List.of();
+
+    // Leitores compartilham o lock; apenas as alterações são exclusivas.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void rebuild(Collection<IndexedProduct> all) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            postings.clear();
+
+            // A extração dos trigramas é feita em paralelo; as listas
+            // são conjuntos concorrentes, então não há disputa pelo lock.
+            all.parallelStream().forEach(p -> {
+                products.put(p.getId(), p);
+                for (String gram : trigrams(p.getNormalizedName())) {
+                    postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(p.getId());
+                }
+            });
+
+            List<IndexedProduct> sorted = new ArrayList<>(all);
+            sorted.sort(NAME_ORDER);
+            byName = Collections.unmodifiableList(sorted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(IndexedProduct before, IndexedProduct after) {
+        updateAll(List.of(new Change(before, after)), null);
+    }
+
+    // Uma única cópia de byName para todas as alterações da transação.
+    @Override
+    public void updateAll(List<Change> changes, Collection<IndexedProduct> all) {
+        lock.writeLock().lock();
+        try {
+            List<IndexedProduct> sorted = new ArrayList<>(byName);
+            for (Change change : changes) {
+                updatePostings(change.before(), change.after());
+                if (change.before() != null) {
+                    int i = Collections.binarySearch(sorted, change.before(), NAME_ORDER);
+                    if (i >= 0) {
+                        sorted.remove(i);
+                    }
+                }
+                if (change.after() != null) {
+                    int i = Collections.binarySearch(sorted, change.after(), NAME_ORDER);
+                    sorted.add(i < 0 ? -i - 1 : i, change.after());
+                }
+            }
+            byName = Collections.unmodifiableList(sorted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void updatePostings(IndexedProduct before, IndexedProduct after) {
+        if (before != null) {
+            products.remove(before.getId());
+            for (String gram : trigrams(before.getNormalizedName())) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(before.getId());
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+        if (after != null) {
+            products.put(after.getId(), after);
+            for (String gram : trigrams(after.getNormalizedName())) {
+                postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(after.getId());
+            }
+        }
+    }
+
+    /**
+     * Todos os produtos indexados, em NAME_ORDER. A lista é imutável e não
+     * muda depois de devolvida: alterações posteriores criam outra.
+     */
+    public List<IndexedProduct> allByName() {
+        return byName;
+    }
+
+    /**
+     * Retorna todos os produtos cujo nome contém o termo informado
+     * (sem diferenciar maiúsculas de minúsculas), na mesma semântica
+     * do LIKE '%termo%' da consulta SQL.
+     *
+     * Termos com menos de 3 caracteres não formam trigramas; nesse caso
+     * os nomes em memória são percorridos diretamente.
+     */
+    public List<IndexedProduct> search(String term) {
+        String normalized = Utils.normalize(term);
+
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < GRAM) {
+                List<IndexedProduct> result = new ArrayList<>();
+                for (IndexedProduct p : products.values()) {
+                    if (p.getNormalizedName().contains(normalized)) {
+                        result.add(p);
+                    }
+                }
+                return result;
+            }
+
+            // Ordena as listas pela quantidade de IDs para intersectar
+            // começando pela menor, reduzindo o trabalho a cada passo.
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : trigrams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            List<IndexedProduct> result = new ArrayList<>();
+            for (Long id : lists.get(0)) {
+                if (!containsInAll(lists, id)) {
+                    continue;
+                }
+                IndexedProduct p = products.get(id);
+
+                // Os trigramas garantem apenas que todos os pedaços existem;
+                // a confirmação final elimina falsos positivos.
+                if (p != null && p.getNormalizedName().contains(normalized)) {
+                    result.add(p);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
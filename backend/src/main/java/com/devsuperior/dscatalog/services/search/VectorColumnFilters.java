@@ -0,0 +1,106 @@
+package com.devsuperior.dscatalog.services.search;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnFilters} com a Vector API (SIMD).
+ *
+ * Cada comparação processa DOUBLES.length() linhas de uma vez (4 com AVX2,
+ * 8 com AVX-512). O resultado da comparação é uma máscara por linha, que
+ * toLong() converte direto nos bits do bitset: como a quantidade de linhas
+ * por vetor divide 64, um vetor nunca atravessa dois longs do bitset.
+ *
+ * Só é instanciado por ColumnFilters.best(), com o módulo
+ * jdk.incubator.vector presente.
+ */
+final class VectorColumnFilters implements ColumnFilters {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void retainBetween(double[] values, double min, double max, long[] bits) {
+        int lanes = DOUBLES.length();
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            if (word == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(base + 64, values.length);
+            long mask = 0;
+            int i = base;
+            for (; i + lanes <= end; i += lanes) {
+                DoubleVector v = DoubleVector.fromArray(DOUBLES, values, i);
+                VectorMask<Double> m = v.compare(VectorOperators.GE, min).and(v.compare(VectorOperators.LE, max));
+                mask |= m.toLong() << (i - base);
+            }
+            // Últimas linhas da coluna, que não completam um vetor.
+            for (; i < end; i++) {
+                double v = values[i];
+                mask |= (v >= min & v <= max ? 1L : 0L) << (i - base);
+            }
+            bits[w] = word & mask;
+        }
+    }
+
+    @Override
+    public void retainBetween(long[] values, long min, long max, long[] bits) {
+        int lanes = LONGS.length();
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            if (word == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(base + 64, values.length);
+            long mask = 0;
+            int i = base;
+            for (; i + lanes <= end; i += lanes) {
+                LongVector v = LongVector.fromArray(LONGS, values, i);
+                VectorMask<Long> m = v.compare(VectorOperators.GE, min).and(v.compare(VectorOperators.LE, max));
+                mask |= m.toLong() << (i - base);
+            }
+            for (; i < end; i++) {
+                long v = values[i];
+                mask |= (v >= min & v <= max ? 1L : 0L) << (i - base);
+            }
+            bits[w] = word & mask;
+        }
+    }
+
+    @Override
+    public void and(long[] target, long[] other) {
+        int i = 0;
+        for (int bound = LONGS.loopBound(target.length); i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, target, i)
+                    .and(LongVector.fromArray(LONGS, other, i))
+                    .intoArray(target, i);
+        }
+        for (; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    @Override
+    public void or(long[] target, long[] other) {
+        int i = 0;
+        for (int bound = LONGS.loopBound(target.length); i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, target, i)
+                    .or(LongVector.fromArray(LONGS, other, i))
+                    .intoArray(target, i);
+        }
+        for (; i < target.length; i++) {
+            target[i] |= other[i];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+}
@@ -0,0 +1,214 @@
+package com.devsuperior.dscatalog.util;
+
+import com.devsuperior.dscatalog.projections.IdProjection;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Carrega entidades a partir de uma lista ordenada de IDs e as devolve
+ * na mesma ordem, substituindo o par "IN :ids" + Utils.replace.
+ *
+ * 1) Lotes de tamanho fixo
+ *
+ * Cada tamanho diferente de lista no IN gera um plano de consulta
+ * diferente no cache do Hibernate e do banco. Os IDs são divididos em
+ * lotes de batchSize, e o último lote é completado (repetindo o último
+ * ID) até a próxima potência de 2:
+ *
+ * batchSize = 64, 20 IDs  → 1 lote de 32
+ * batchSize = 64, 150 IDs → 64 + 64 + 32
+ *
+ * Assim a consulta só é preparada com 1, 2, 4, ..., batchSize parâmetros.
+ *
+ * 2) Lotes em paralelo (opcional)
+ *
+ * Com hydration.parallel=true e mais de um lote, cada lote roda em uma
+ * virtual thread com sua própria transação somente leitura. As entidades
+ * voltam desanexadas, então o loader precisa trazer com JOIN FETCH tudo
+ * o que será lido depois.
+ *
+ * 3) Remontagem na ordem original
+ *
+ * Em vez de um HashMap<Long, ...> com chaves boxed, as posições dos IDs
+ * ficam em uma tabela de endereçamento aberto com long[] e int[].
+ * IDs que não voltam do banco (registro excluído) são omitidos.
+ */
+@Component
+public class BatchHydrator {
+
+    @Value("${hydration.batch-size:64}")
+    private int batchSize = 64;
+
+    @Value("${hydration.parallel:false}")
+    private boolean parallel;
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Carrega as entidades dos objetos informados (apenas o ID é usado),
+     * mantendo a ordem da lista.
+     */
+    public <T extends IdProjection<Long>> List<T> hydrateInOrder(
+            List<? extends IdProjection<Long>> ordered, Function<List<Long>, List<T>> loader) {
+        long[] ids = new long[ordered.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ordered.get(i).getId();
+        }
+        return hydrate(ids, loader);
+    }
+
+    /**
+     * Carrega as entidades dos IDs informados, mantendo a ordem do array.
+     *
+     * @param loader
+     * Consulta de um lote, normalmente um "WHERE obj.id IN :ids" com JOIN FETCH.
+     * A ordem do resultado do loader não importa.
+     */
+    public <T extends IdProjection<Long>> List<T> hydrate(long[] ids, Function<List<Long>, List<T>> loader) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        // Posição da primeira ocorrência de cada ID.
+        LongIntMap positions = new LongIntMap(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            positions.putIfAbsent(ids[i], i);
+        }
+
+        List<List<Long>> batches = batches(ids, batchSize);
+        Object[] slots = new Object[ids.length];
+
+        if (parallel && batches.size() > 1) {
+            List<Future<List<T>>> futures = new ArrayList<>(batches.size());
+            for (List<Long> batch : batches) {
+                futures.add(virtualThreads.submit(() -> loadInTransaction(batch, loader)));
+            }
+            for (Future<List<T>> future : futures) {
+                place(Utils.await(future), positions, slots);
+            }
+        } else {
+            for (List<Long> batch : batches) {
+                place(loader.apply(batch), positions, slots);
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            @SuppressWarnings("unchecked")
+            T entity = (T) slots[positions.get(id)];
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    // Divide os IDs em lotes de batchSize, completando o último até a
+    // próxima potência de 2 (limitada a batchSize).
+    static List<List<Long>> batches(long[] ids, int batchSize) {
+        int size = Math.max(1, batchSize);
+        List<List<Long>> batches = new ArrayList<>((ids.length + size - 1) / size);
+        for (int from = 0; from < ids.length; from += size) {
+            int to = Math.min(from + size, ids.length);
+            int padded = Math.min(size, Integer.highestOneBit(to - from - 1) << 1);
+            padded = Math.max(padded, to - from);
+
+            Long[] batch = new Long[padded];
+            for (int i = 0; i < padded; i++) {
+                batch[i] = ids[Math.min(from + i, to - 1)];
+            }
+            batches.add(Arrays.asList(batch));
+        }
+        return batches;
+    }
+
+    private static void place(List<? extends IdProjection<Long>> loaded, LongIntMap positions, Object[] slots) {
+        for (IdProjection<Long> entity : loaded) {
+            int position = positions.get(entity.getId());
+            if (position >= 0) {
+                slots[position] = entity;
+            }
+        }
+    }
+
+    private <T> List<T> loadInTransaction(List<Long> batch, Function<List<Long>, List<T>> loader) {
+        if (transactionManager == null) {
+            return loader.apply(batch);
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> loader.apply(batch));
+    }
+
+    /**
+     * Mapa long → int com endereçamento aberto (sondagem linear),
+     * sem objetos por entrada. Retorna -1 para chaves ausentes.
+     */
+    static final class LongIntMap {
+
+        private final long[] keys;
+
+        // Valor + 1; zero marca uma posição livre.
+        private final int[] values;
+        private final int mask;
+
+        LongIntMap(int expected) {
+            // Capacidade potência de 2 com ocupação de no máximo 50%.
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        void putIfAbsent(long key, int value) {
+            int i = slot(key);
+            while (values[i] != 0) {
+                if (keys[i] == key) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value + 1;
+        }
+
+        int get(long key) {
+            int i = slot(key);
+            while (values[i] != 0) {
+                if (keys[i] == key) {
+                    return values[i] - 1;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        // Espalha os bits do ID (sequenciais) antes de aplicar a máscara.
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.devsuperior.dscatalog.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que devolve um registro por vez, sem carregar o
+ * arquivo inteiro: só o registro atual fica em memória.
+ *
+ * - Campos separados por vírgula, registros por \n ou \r\n.
+ * - Campos entre aspas podem conter vírgulas e quebras de linha; aspas
+ *   internas são escritas duplicadas ("").
+ * - O BOM do UTF-8 no início do arquivo (gerado pelo Excel) é ignorado.
+ * - Linhas vazias são ignoradas.
+ *
+ * Exemplo:
+ *
+ * name,description,price
+ * "TV 50"", 4K",Smart TV,2190.0   → ["TV 50\", 4K", "Smart TV", "2190.0"]
+ */
+public class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean started;
+    private long record;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo.
+     */
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') {
+                position++;
+            }
+        }
+
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Aspas não fechadas no registro " + (record + 1));
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == EOF) {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                fields.add(field.toString());
+                record++;
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Quantidade de registros lidos até agora (incluindo o cabeçalho).
+     */
+    public long getRecord() {
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != EOF) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position];
+    }
+}
@@ -0,0 +1,81 @@
+package com.devsuperior.dscatalog.util;
+
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+
+/**
+ * ETags fortes montados a partir das colunas de versão (@Version).
+ *
+ * Produto:   "<versão do produto>.<soma das versões de suas categorias>"  → "3.7"
+ * Categoria: "<versão da categoria>"                                       → "2"
+ * Listagens: "<versão global>.<versão em memória do nó>"                  → "41.9f3c-12-7"
+ *
+ * O JSON de um produto traz os nomes de suas categorias, por isso a soma das
+ * versões delas também entra no ETag: renomear uma categoria muda o ETag de
+ * todos os seus produtos. As versões só crescem, então a soma também.
+ *
+ * A listagem pode vir dos índices em memória do nó, que só mudam quando ele
+ * aplica uma alteração; por isso o ETag também traz a versão desses índices
+ * (ProductService.localListingVersion).
+ *
+ * Cada representação do mesmo recurso tem seu próprio ETag forte (variant):
+ * CBOR, Smile e ?fields= acrescentam um sufixo à versão → "3.7;cbor;fields=id+name".
+ * O JSON completo usa a versão sem sufixo.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * ETag de outra representação da mesma versão: "3.7" + cbor → "3.7;cbor".
+     */
+    public static String variant(String etag, String variant) {
+        return etag.substring(0, etag.length() - 1) + ";" + variant + "\"";
+    }
+
+    /**
+     * Mesmo valor que ProductRepository.findVersionTag calcula no banco.
+     */
+    public static String product(Product entity) {
+        long categoriesVersion = 0;
+        for (Category category : entity.getCategories()) {
+            categoriesVersion += category.getVersion();
+        }
+        return of(entity.getVersion() + "." + categoriesVersion);
+    }
+
+    public static String category(Category entity) {
+        return of(entity.getVersion());
+    }
+
+    /**
+     * Verifica o cabeçalho If-Match (RFC 9110): "*" ou uma lista de ETags
+     * separados por vírgula. A comparação é forte, então ETags fracos (W/)
+     * nunca combinam. Sem cabeçalho, não há pré-condição.
+     *
+     * O ETag de qualquer representação (variant) da versão atual também
+     * combina: o cliente pode ter lido o produto em CBOR ou com ?fields=.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || withoutVariant(value).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withoutVariant(String etag) {
+        int i = etag.indexOf(';');
+        return i < 0 || !etag.endsWith("\"") ? etag : etag.substring(0, i) + "\"";
+    }
+}
@@ -0,0 +1,65 @@
+package com.devsuperior.dscatalog.util;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Tipos de mídia binários aceitos pela API, além do JSON.
+ *
+ * - application/cbor (RFC 8949)
+ * - application/x-jackson-smile (Smile, formato binário do Jackson)
+ *
+ * Os dois usam o mesmo modelo de dados do JSON (os DTOs não mudam), mas
+ * gravam números e tamanhos em binário e, no Smile, reaproveitam os nomes
+ * de campos repetidos: uma página de produtos fica menor e é serializada
+ * mais rápido.
+ */
+public final class MediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private MediaTypes() {
+    }
+
+    /**
+     * Verifica se o cabeçalho Accept prefere CBOR ou Smile, ou seja, se um
+     * deles tem a maior qualidade (q) da lista. Em empate vale o primeiro.
+     * Sem cabeçalho, só com curingas ou com um valor inválido, a resposta é JSON.
+     */
+    public static boolean prefersBinary(String accept) {
+        return preferredBinary(accept) != null;
+    }
+
+    /**
+     * O formato binário preferido (application/cbor ou
+     * application/x-jackson-smile), ou null quando a resposta é JSON.
+     */
+    public static MediaType preferredBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType preferred = null;
+        for (MediaType type : types) {
+            if (preferred == null || type.getQualityValue() > preferred.getQualityValue()) {
+                preferred = type;
+            }
+        }
+        if (preferred != null && preferred.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+            return MediaType.APPLICATION_CBOR;
+        }
+        if (preferred != null && preferred.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+            return APPLICATION_SMILE;
+        }
+        return null;
+    }
+}
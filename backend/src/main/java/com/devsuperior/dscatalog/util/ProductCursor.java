@@ -0,0 +1,63 @@
+package com.devsuperior.dscatalog.util;
+
+import com.devsuperior.dscatalog.services.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de um produto na ordenação (name, id), usada pela paginação por cursor.
+ *
+ * O cursor é enviado ao cliente como um token opaco:
+ *
+ * Base64URL("id:name")
+ *
+ * Exemplo:
+ *
+ * (name = "PC Gamer", id = 4) → "NDpQQyBHYW1lcg"
+ *
+ * O id vem primeiro porque o nome pode conter ':'.
+ */
+public final class ProductCursor {
+
+    // Posição anterior a qualquer produto: usada para buscar a primeira página.
+    public static final ProductCursor FIRST = new ProductCursor("", 0L);
+
+    private final String name;
+    private final Long id;
+
+    public ProductCursor(String name, Long id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converte o token recebido do cliente.
+     * Um token vazio representa a primeira página.
+     */
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ProductCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Cursor inválido");
+        }
+    }
+}
@@ -7,7 +7,10 @@ import com.devsuperior.dscatalog.projections.IdProjection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Classe utilitária que contém métodos auxiliares reutilizáveis.
@@ -66,7 +69,12 @@ public class Utils {
      *
      * @return
      * Lista reorganizada mantendo a ordem da lista original.
+     *
+     * @deprecated
+     * Use BatchHydrator, que também faz a consulta em lotes de tamanho fixo
+     * e remonta a ordem sem criar um HashMap com chaves boxed.
      */
+    @Deprecated
     public static <ID> List<? extends IdProjection<ID>> replace(
             List<? extends IdProjection<ID>> ordered,
             List<? extends IdProjection<ID>> unordered) {
@@ -143,4 +151,81 @@ public class Utils {
          */
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Normaliza um texto para comparações de busca.
+     *
+     * Aplica a mesma regra usada na consulta SQL:
+     *
+     * LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))
+     *
+     * ou seja, apenas converte para minúsculas. Valores nulos
+     * são tratados como texto vazio.
+     *
+     * Exemplo:
+     *
+     * "PC Gamer" → "pc gamer"
+     *
+     * @param text
+     * Texto original.
+     *
+     * @return
+     * Texto normalizado.
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Escapa os curingas do LIKE (% e _) e o próprio caractere de escape (\),
+     * para consultas com ESCAPE '\'. Assim o termo é comparado literalmente,
+     * como no contains() dos índices em memória.
+     *
+     * Exemplo:
+     *
+     * "50%_off" → "50\%\_off"
+     *
+     * Mesma regra do escape(...) das consultas @Query do Spring Data.
+     */
+    public static String escapeLike(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Aguarda o resultado de uma tarefa enviada a um executor (ex.: as
+     * virtual threads da contagem em paralelo e do BatchHydrator).
+     *
+     * Uma RuntimeException da tarefa é relançada como está, para chegar ao
+     * chamador com o mesmo tipo de uma chamada feita na própria thread.
+     *
+     * @param future
+     * Tarefa em execução.
+     *
+     * @return
+     * Resultado da tarefa.
+     */
+    public static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tarefa interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Medição comum a todos os benchmarks deste pacote: aquecimento, iterações
+ * cronometradas e bytes alocados pela thread que mede.
+ *
+ * O resultado de cada operação é guardado em um campo volatile, para que o
+ * JIT não descarte uma chamada cujo retorno ninguém usa. Cada benchmark
+ * escreve os resultados no próprio Logger.
+ */
+final class Benchmarks {
+
+    private static volatile Object sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Tempo e alocação médios de uma operação.
+     */
+    record Result(double nanosPerOp, long bytesPerOp) {
+
+        double millis() {
+            return nanosPerOp / 1_000_000.0;
+        }
+
+        double micros() {
+            return nanosPerOp / 1_000.0;
+        }
+
+        double seconds() {
+            return nanosPerOp / 1_000_000_000.0;
+        }
+    }
+
+    static Result measure(int warmup, int iterations, Supplier<?> operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        for (int i = 0; i < warmup; i++) {
+            sink = operation.get();
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        return new Result((double) elapsed / iterations, allocated / iterations);
+    }
+
+    /**
+     * Uma única execução, sem aquecimento (ex.: a gravação de um lote inteiro).
+     */
+    static Result once(Supplier<?> operation) {
+        return measure(0, 1, operation);
+    }
+
+    /**
+     * Número com três casas decimais, para as mensagens do log.
+     */
+    static String format(double value) {
+        return String.format("%.3f", value);
+    }
+}
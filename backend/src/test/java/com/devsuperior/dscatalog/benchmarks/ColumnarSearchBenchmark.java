@@ -0,0 +1,144 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.search.ColumnFilters;
+import com.devsuperior.dscatalog.services.search.ColumnarIndex;
+import com.devsuperior.dscatalog.services.search.IndexedProduct;
+import com.devsuperior.dscatalog.services.search.ProductFilter;
+import com.devsuperior.dscatalog.services.search.RangeIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Compara a listagem filtrada pelo ColumnarIndex com a consulta do banco
+ * (searchProductsInRange), e os filtros escalares com os da Vector API.
+ *
+ * Filtro medido: categorias 1 ou 3, preço entre 100 e 500, ordenado por
+ * preço, página 10 com 20 produtos.
+ *
+ * - columnarVersusSql: catálogo de 1M produtos gravado no H2 (o rollback do
+ *   teste descarta tudo). 10M não cabe no H2 em memória com o heap padrão.
+ * - scalarVersusVector: só em memória, com 1M e 10M produtos (tamanhos
+ *   alteráveis com -Dbenchmark.sizes=...). Com 10M, use -Xmx4g ou mais.
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=ColumnarSearchBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ColumnarSearchBenchmark {
+
+    private static final int SQL_PRODUCTS = 1_000_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ColumnarSearchBenchmark.class);
+
+    private static final List<Long> CATEGORY_IDS = List.of(1L, 3L);
+    private static final RangeIndex.Range RANGE = new RangeIndex.Range(100.0, 500.0, null, null);
+    private static final Pageable PAGEABLE = PageRequest.of(10, 20, Sort.by("price"));
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void columnarVersusSql() {
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < SQL_PRODUCTS; i++) {
+            rows.add(new Object[]{"Benchmark Product " + i, "Description " + i, price(i)});
+            if (rows.size() == 10_000) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+        jdbcTemplate.update("""
+                INSERT INTO tb_product_category (product_id, category_id)
+                SELECT id, 1 + MOD(id, 3) FROM tb_product WHERE name LIKE 'Benchmark Product %'
+                """);
+
+        // Mesmos produtos (uma categoria cada), montados direto a partir do banco.
+        List<IndexedProduct> products = jdbcTemplate.query("""
+                SELECT tb_product.id, tb_product.name, tb_product.price, tb_product_category.category_id
+                FROM tb_product
+                JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+                WHERE tb_product.name LIKE 'Benchmark Product %'
+                """, (rs, i) -> new IndexedProduct(rs.getLong("id"), rs.getString("name"),
+                rs.getDouble("price"), null, Set.of(rs.getLong("category_id"))));
+        ColumnarIndex index = new ColumnarIndex(true, ColumnFilters.best());
+        index.rebuild(products);
+
+        double sql = millis(() -> repository.searchProductsInRange(CATEGORY_IDS, false, "", 100.0, 500.0,
+                null, null, PAGEABLE));
+        double columnar = millis(() -> index.search(new ProductFilter("", CATEGORY_IDS), RANGE, PAGEABLE));
+
+        LOG.info("Listagem filtrada com {} produtos:", SQL_PRODUCTS);
+        LOG.info("  SQL (H2)          : {} ms/requisição", Benchmarks.format(sql));
+        LOG.info("  índice colunar    : {} ms/requisição (sem carregar a página)", Benchmarks.format(columnar));
+    }
+
+    @Test
+    public void scalarVersusVector() {
+        ColumnFilters vector = ColumnFilters.best();
+        if (vector.name().equals("scalar")) {
+            LOG.warn("Vector API indisponível: rode com --add-modules jdk.incubator.vector");
+        }
+        for (String size : System.getProperty("benchmark.sizes", "1000000,10000000").split(",")) {
+            int n = Integer.parseInt(size.trim());
+            List<IndexedProduct> products = new ArrayList<>(n);
+            Instant date = Instant.parse("2024-01-01T00:00:00Z");
+            for (int i = 0; i < n; i++) {
+                products.add(new IndexedProduct((long) i + 1, "Product " + i, price(i), date, Set.of(1L + i % 3)));
+            }
+
+            ColumnarIndex scalarIndex = new ColumnarIndex(true, ColumnFilters.scalar());
+            scalarIndex.rebuild(products);
+            double scalar = millis(() -> scalarIndex.search(new ProductFilter("", CATEGORY_IDS), RANGE, PAGEABLE));
+
+            ColumnarIndex vectorIndex = new ColumnarIndex(true, vector);
+            vectorIndex.rebuild(products);
+            products = null;
+            double vectorized = millis(() -> vectorIndex.search(new ProductFilter("", CATEGORY_IDS), RANGE, PAGEABLE));
+
+            LOG.info("Índice colunar com {} produtos:", n);
+            LOG.info("  filtros scalar    : {} ms/requisição", Benchmarks.format(scalar));
+            LOG.info("  filtros {} : {} ms/requisição", String.format("%-9s", vector.name()), Benchmarks.format(vectorized));
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_product (id, name, description, price, img_url, date, version) "
+                        + "VALUES (NEXT VALUE FOR tb_product_seq, ?, ?, ?, '', NOW(), 0)",
+                rows);
+    }
+
+    // Preços espalhados entre 1 e 1000, sem seguir a ordem dos ids.
+    private static double price(int i) {
+        return 1 + (i * 7919L % 100_000) / 100.0;
+    }
+
+    private static double millis(Supplier<?> search) {
+        return Benchmarks.measure(WARMUP, ITERATIONS, search).millis();
+    }
+}
@@ -0,0 +1,71 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.services.search.IndexedProduct;
+import com.devsuperior.dscatalog.util.BatchHydrator;
+import com.devsuperior.dscatalog.util.Utils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compara a remontagem da ordem da página com Utils.replace (HashMap com
+ * chaves boxed) e com o BatchHydrator (lotes de tamanho fixo e mapa de
+ * long primitivo), em vazão (µs/operação) e alocação (bytes/operação).
+ *
+ * O "banco" é um mapa em memória, para medir apenas o custo de montar
+ * os lotes e reorganizar o resultado.
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=HydrationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class HydrationBenchmark {
+
+    private static final int[] PAGE_SIZES = {20, 200, 2000};
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(HydrationBenchmark.class);
+
+    private final BatchHydrator hydrator = new BatchHydrator();
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void compareReplaceWithBatchHydrator() {
+        for (int size : PAGE_SIZES) {
+            List<IndexedProduct> page = new ArrayList<>(size);
+            for (long id = 1; id <= size; id++) {
+                page.add(new IndexedProduct(id * 7, "Product " + id, List.of()));
+            }
+            Map<Long, IndexedProduct> table = new HashMap<>();
+            page.forEach(p -> table.put(p.getId(), p));
+
+            // Devolve os produtos de um IN em ordem inversa à da página,
+            // com o mesmo custo por ID nos dois caminhos.
+            Function<List<Long>, List<IndexedProduct>> loader = ids -> {
+                List<IndexedProduct> rows = new ArrayList<>(ids.size());
+                for (int i = ids.size() - 1; i >= 0; i--) {
+                    rows.add(table.get(ids.get(i)));
+                }
+                return rows;
+            };
+
+            // Caminho anterior: um único IN com todos os IDs + Utils.replace.
+            Benchmarks.Result replace = Benchmarks.measure(WARMUP, ITERATIONS, () -> Utils.replace(page,
+                    loader.apply(page.stream().map(IndexedProduct::getId).toList())));
+            Benchmarks.Result batched = Benchmarks.measure(WARMUP, ITERATIONS, () -> hydrator.hydrateInOrder(page, loader));
+
+            LOG.info("Página com {} produtos:", size);
+            LOG.info("  Utils.replace : {} µs/op  {} bytes/op", Benchmarks.format(replace.micros()), replace.bytesPerOp());
+            LOG.info("  BatchHydrator : {} µs/op  {} bytes/op", Benchmarks.format(batched.micros()), batched.bytesPerOp());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compara a busca paginada com a contagem executada em sequência (padrão)
+ * e em paralelo em uma virtual thread (product.search.parallel-count=true).
+ *
+ * As duas estratégias são reproduzidas aqui com as consultas do
+ * ProductRepository, como em ProductSearchBenchmark; a carga das categorias
+ * da página é igual nas duas e fica de fora. A correção do modo paralelo no
+ * ProductService é verificada por ParallelCountIT.
+ *
+ * A contagem em paralelo usa outra transação, que não enxerga dados ainda
+ * não confirmados; por isso o catálogo extra é gravado com commit e
+ * removido no final, em vez de depender do rollback do teste.
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=ParallelCountBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ParallelCountBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelCountBenchmark.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeAll
+    void setUp() {
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Object[]{"Benchmark Product " + i, "Description " + i, 10.0 + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_product (id, name, description, price, img_url, date, version) "
+                        + "VALUES (NEXT VALUE FOR tb_product_seq, ?, ?, ?, '', NOW(), 0)",
+                products);
+        jdbcTemplate.update("""
+                INSERT INTO tb_product_category (product_id, category_id)
+                SELECT id, 1 + MOD(id, 3) FROM tb_product WHERE name LIKE 'Benchmark Product %'
+                """);
+    }
+
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.update("""
+                DELETE FROM tb_product_category WHERE product_id IN
+                (SELECT id FROM tb_product WHERE name LIKE 'Benchmark Product %')
+                """);
+        jdbcTemplate.update("DELETE FROM tb_product WHERE name LIKE 'Benchmark Product %'");
+        virtualThreads.close();
+    }
+
+    @Test
+    public void compareSequentialWithParallelCount() {
+        Pageable pageable = PageRequest.of(10, 20);
+        List<Long> categoryIds = List.of(1L, 2L);
+        String name = "product 1";
+
+        Page<ProductProjection> expected = readOnly().execute(status -> sequential(categoryIds, name, pageable));
+        Page<ProductProjection> page = readOnly().execute(status -> parallel(categoryIds, name, pageable));
+        Assertions.assertEquals(expected.getTotalElements(), page.getTotalElements());
+        Assertions.assertEquals(expected.getContent().size(), page.getContent().size());
+
+        Benchmarks.Result sequential = Benchmarks.measure(WARMUP, ITERATIONS,
+                () -> readOnly().execute(status -> sequential(categoryIds, name, pageable)));
+        Benchmarks.Result parallel = Benchmarks.measure(WARMUP, ITERATIONS,
+                () -> readOnly().execute(status -> parallel(categoryIds, name, pageable)));
+
+        LOG.info("Busca paginada com {} produtos:", PRODUCTS);
+        LOG.info("  contagem em sequência : {} ms/requisição", Benchmarks.format(sequential.millis()));
+        LOG.info("  contagem em paralelo  : {} ms/requisição", Benchmarks.format(parallel.millis()));
+    }
+
+    // Padrão de ProductService.findAllPagedFromDatabase: a página e a countQuery,
+    // uma depois da outra, na mesma conexão.
+    private Page<ProductProjection> sequential(List<Long> categoryIds, String name, Pageable pageable) {
+        return repository.searchProducts(categoryIds, name, pageable);
+    }
+
+    // Com product.search.parallel-count=true: a contagem começa antes, em uma
+    // virtual thread com a sua própria transação, e a página vem como Slice.
+    private Page<ProductProjection> parallel(List<Long> categoryIds, String name, Pageable pageable) {
+        Future<Long> count = virtualThreads.submit(() -> newReadOnly()
+                .execute(status -> repository.countProducts(categoryIds, name)));
+        Slice<ProductProjection> slice = repository.searchProductsSlice(categoryIds, name, pageable);
+        try {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), count.get());
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Transação somente leitura, como a de findAllPaged.
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private TransactionTemplate newReadOnly() {
+        TransactionTemplate transaction = readOnly();
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
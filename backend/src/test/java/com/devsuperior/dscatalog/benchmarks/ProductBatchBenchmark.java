@@ -0,0 +1,96 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.ProductBatchService;
+import com.devsuperior.dscatalog.services.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a vazão de ingestão (produtos/s) de POST /products repetido
+ * (ProductService.insert, uma transação e um INSERT por produto) com
+ * POST /products/batch (ProductBatchService, INSERTs em lotes JDBC).
+ *
+ * Os produtos são gravados com commit e removidos depois de cada medição.
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=ProductBatchBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProductBatchBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductBatchBenchmark.class);
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("""
+                DELETE FROM tb_product_category WHERE product_id IN
+                (SELECT id FROM tb_product WHERE name LIKE 'Batch Product %')
+                """);
+        jdbcTemplate.update("DELETE FROM tb_product WHERE name LIKE 'Batch Product %'");
+    }
+
+    @Test
+    public void singleInserts() {
+        List<ProductDTO> products = products();
+
+        Benchmarks.Result result = Benchmarks.once(() -> {
+            products.forEach(service::insert);
+            return products;
+        });
+        report("POST /products (um por vez)", result);
+    }
+
+    @Test
+    public void batchInsert() {
+        List<ProductDTO> products = products();
+
+        ProductBatchResultDTO[] inserted = new ProductBatchResultDTO[1];
+        Benchmarks.Result result = Benchmarks.once(() -> inserted[0] = batchService.insertAll(products));
+        report("POST /products/batch", result);
+
+        Assertions.assertEquals(PRODUCTS, inserted[0].getInserted());
+    }
+
+    private static List<ProductDTO> products() {
+        List<ProductDTO> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductDTO dto = new ProductDTO(null, "Batch Product " + i, "Description " + i,
+                    10.0 + i, "", Instant.parse("2024-01-01T00:00:00Z"));
+            dto.getCategories().add(new CategoryDTO(1L + i % 3, null));
+            products.add(dto);
+        }
+        return products;
+    }
+
+    private static void report(String label, Benchmarks.Result result) {
+        LOG.info("{}: {} produtos em {} s ({} produtos/s)", label, PRODUCTS,
+                Benchmarks.format(result.seconds()), Math.round(PRODUCTS / result.seconds()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductReadRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.ProductReadModelService;
+import com.devsuperior.dscatalog.util.Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compara a busca paginada de produtos em três consultas
+ * (searchProducts + countQuery + searchProductsWithCategories + Utils.replace)
+ * com a consulta única de searchProductsSingleQuery e com a leitura do
+ * modelo de leitura (tb_product_read, ProductReadRepository.search).
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=ProductSearchBenchmark -Dbenchmark=true
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProductSearchBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchBenchmark.class);
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductReadRepository readRepository;
+
+    @Autowired
+    private ProductReadModelService readModel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Gera um catálogo maior que o de data.sql; o rollback do teste descarta tudo.
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Object[]{"Benchmark Product " + i, "Description " + i, 10.0 + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_product (id, name, description, price, img_url, date, version) "
+                        + "VALUES (NEXT VALUE FOR tb_product_seq, ?, ?, ?, '', NOW(), 0)",
+                products);
+        jdbcTemplate.update("""
+                INSERT INTO tb_product_category (product_id, category_id)
+                SELECT id, 1 + MOD(id, 3) FROM tb_product WHERE name LIKE 'Benchmark Product %'
+                """);
+        // Os INSERTs acima não passam pelos serviços: recria o modelo de leitura.
+        readModel.rebuild();
+    }
+
+    @Test
+    public void compareThreeQueriesWithSingleQuery() {
+        Pageable pageable = PageRequest.of(10, 20);
+        List<Long> categoryIds = List.of();
+        String name = "product 1";
+
+        double threeQueries = millis(() -> threeQueries(categoryIds, name, pageable));
+        double singleQuery = millis(() -> repository.searchProductsSingleQuery(categoryIds, name, pageable));
+        double readModelQuery = millis(() -> readRepository.search(categoryIds, false, name, true, pageable, null));
+
+        LOG.info("Busca paginada com {} produtos:", PRODUCTS);
+        LOG.info("  três consultas     : {} ms/requisição", Benchmarks.format(threeQueries));
+        LOG.info("  consulta única     : {} ms/requisição", Benchmarks.format(singleQuery));
+        LOG.info("  modelo de leitura  : {} ms/requisição", Benchmarks.format(readModelQuery));
+    }
+
+    // Fluxo original de ProductService.findAllPaged(name, categoryId, pageable),
+    // medido de propósito com o Utils.replace depreciado.
+    @SuppressWarnings({"deprecation", "unchecked"})
+    private Page<ProductDTO> threeQueries(List<Long> categoryIds, String name, Pageable pageable) {
+        Page<ProductProjection> page = repository.searchProducts(categoryIds, name, pageable);
+        List<Long> productIds = page.map(ProductProjection::getId).toList();
+        List<Product> entities = repository.searchProductsWithCategories(productIds);
+        entities = (List<Product>) Utils.replace(page.getContent(), entities);
+        List<ProductDTO> dtos = entities.stream().map(p -> new ProductDTO(p, p.getCategories())).toList();
+        return new PageImpl<>(dtos, page.getPageable(), page.getTotalElements());
+    }
+
+    private static double millis(Supplier<Page<ProductDTO>> search) {
+        return Benchmarks.measure(WARMUP, ITERATIONS, search).millis();
+    }
+}
@@ -0,0 +1,83 @@
+package com.devsuperior.dscatalog.benchmarks;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara JSON, CBOR e Smile na serialização de uma página de ProductDTO
+ * (o corpo de GET /products): tamanho da resposta (bytes/página) e tempo
+ * de serialização (µs/página).
+ *
+ * Os ObjectMappers são montados como em JacksonConfig; só a fábrica muda.
+ *
+ * Não roda junto com os testes normais. Para executar:
+ *
+ * mvn test -Dtest=SerializationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SerializationBenchmark {
+
+    private static final int[] PAGE_SIZES = {20, 200, 2000};
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+    @Test
+    public void compareFormats() throws JsonProcessingException {
+        for (int size : PAGE_SIZES) {
+            Page<ProductDTO> page = page(size);
+
+            LOG.info("Página com {} produtos:", size);
+            report("JSON ", json, page);
+            report("CBOR ", cbor, page);
+            report("Smile", smile, page);
+        }
+    }
+
+    private static Page<ProductDTO> page(int size) {
+        List<ProductDTO> content = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            ProductDTO dto = new ProductDTO(id, "Product " + id,
+                    "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor.",
+                    100.0 + id * 0.99, "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/" + id + "-big.jpg",
+                    Instant.parse("2020-07-13T20:50:07.123450Z").plusSeconds(id));
+            dto.getCategories().add(new CategoryDTO(1L + id % 3, "Category " + (1 + id % 3)));
+            dto.getCategories().add(new CategoryDTO(4L, "Promoções"));
+            content.add(dto);
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+    }
+
+    private static void report(String label, ObjectMapper mapper, Page<ProductDTO> page) throws JsonProcessingException {
+        int bytes = mapper.writeValueAsBytes(page).length;
+        Benchmarks.Result result = Benchmarks.measure(WARMUP, ITERATIONS, () -> {
+            try {
+                return mapper.writeValueAsBytes(page);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        LOG.info("  {} : {} bytes/página  {} µs/página", label, bytes, Benchmarks.format(result.micros()));
+    }
+}
@@ -1,13 +1,19 @@
 package com.devsuperior.dscatalog.repositories;
 
+import com.devsuperior.dscatalog.dto.ProductDTO;
 import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.projections.ProductProjection;
 import com.devsuperior.dscatalog.tests.Factory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.List;
 import java.util.Optional;
 
 @DataJpaTest
@@ -74,4 +80,71 @@ public class ProductRepositoryTest {
         //●	Assert: declare o que deveria acontecer (resultado esperado)
         Assertions.assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void searchProductsSingleQueryShouldReturnSortedPageWithCategoriesAndTotal(){
+        //●	Act: execute as ações necessária
+        Page<ProductDTO> result = repository.searchProductsSingleQuery(List.of(), "", PageRequest.of(0, 3));
+
+        //●	Assert: declare o que deveria acontecer (resultado esperado)
+        Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+        Assertions.assertEquals(3, result.getContent().size());
+        Assertions.assertEquals("Macbook Pro", result.getContent().get(0).getName());
+        Assertions.assertFalse(result.getContent().get(0).getCategories().isEmpty());
+    }
+
+    @Test
+    public void searchProductsSingleQueryShouldFilterByCategory(){
+        // Na categoria 1 (Eletrônicos) há apenas a Smart TV, que também está na 3.
+        Page<ProductDTO> result = repository.searchProductsSingleQuery(List.of(1L), "", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(1L, result.getTotalElements());
+        Assertions.assertEquals("Smart TV", result.getContent().get(0).getName());
+        Assertions.assertEquals(2, result.getContent().get(0).getCategories().size());
+    }
+
+    @Test
+    public void searchProductsSingleQueryShouldFilterByNameAndCategory(){
+        Page<ProductDTO> byName = repository.searchProductsSingleQuery(List.of(), "pc", PageRequest.of(0, 5));
+        Page<ProductDTO> byNameAndCategory = repository.searchProductsSingleQuery(List.of(1L, 3L), "PC", PageRequest.of(0, 5));
+
+        Assertions.assertEquals(21L, byName.getTotalElements());
+        Assertions.assertEquals(21L, byNameAndCategory.getTotalElements());
+        Assertions.assertEquals(5, byNameAndCategory.getContent().size());
+        Assertions.assertTrue(byNameAndCategory.getContent().stream().allMatch(p -> p.getName().startsWith("PC Gamer")));
+    }
+
+    @Test
+    public void searchProductsInRangeShouldApplyPriceRangeAndAllCategories(){
+        Page<ProductDTO> expensive = repository.searchProductsInRange(List.of(), false, "", 2300.0, null,
+                null, null, PageRequest.of(0, 10, Sort.by("price")));
+        Page<ProductDTO> bothCategories = repository.searchProductsInRange(List.of(1L, 3L), true, "", null, null,
+                null, null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(16L, 24L, 25L), expensive.map(ProductDTO::getId).toList());
+        Assertions.assertEquals(3L, expensive.getTotalElements());
+        Assertions.assertEquals(List.of(2L), bothCategories.map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void nameFiltersShouldMatchLikeWildcardsLiterally(){
+        // Renomeia um produto existente: uma inserção mudaria o próximo id esperado em outro teste.
+        Product product = repository.findById(existingId).get();
+        product.setName("Cupom 50% off_1");
+        long id = repository.saveAndFlush(product).getId();
+        PageRequest pageRequest = PageRequest.of(0, 30);
+
+        // Com % e _ como curingas, "0%o" e "c_p" também atenderiam a "Cupom 50% off_1".
+        Assertions.assertEquals(List.of(id),
+                repository.searchProducts(List.of(), "50%", pageRequest).map(ProductProjection::getId).toList());
+        Assertions.assertEquals(0L, repository.searchProducts(List.of(), "c_p", pageRequest).getTotalElements());
+        Assertions.assertEquals(1L, repository.countProducts(List.of(), "f_1"));
+        Assertions.assertEquals(0L, repository.countProducts(List.of(), "0%o"));
+        Assertions.assertTrue(repository.countByCategory("0%o").isEmpty());
+        Assertions.assertEquals(List.of(id),
+                repository.searchProductsSingleQuery(List.of(), "50%", pageRequest).map(ProductDTO::getId).toList());
+        Assertions.assertEquals(0L, repository.searchProductsSingleQuery(List.of(), "c_p", pageRequest).getTotalElements());
+        Assertions.assertEquals(0L, repository.searchProductsInRange(List.of(), false, "0%o", null, null,
+                null, null, pageRequest).getTotalElements());
+    }
+}
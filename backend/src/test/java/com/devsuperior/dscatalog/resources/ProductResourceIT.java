@@ -1,22 +1,40 @@
 package com.devsuperior.dscatalog.resources;
 
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.ProductService;
 import com.devsuperior.dscatalog.tests.Factory;
 import com.devsuperior.dscatalog.tests.TokenUtil;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -45,6 +63,12 @@ public class ProductResourceIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
     /**
      * Classe utilitária criada para obter um token JWT válido nos testes.
      * Esse token será usado em endpoints protegidos por autenticação.
@@ -123,6 +147,54 @@ public class ProductResourceIT {
         result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
     }
 
+    @Test
+    public void findAllShouldReturnOnlySelectedFieldsWhenFieldsIsInformed() throws Exception {
+
+        ResultActions result = mockMvc.perform(get("/products?page=0&size=12&sort=name,asc&fields=name,price")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+
+        // O id sempre vem; description, imgUrl, date e categories não.
+        result.andExpect(jsonPath("$.content[0].id").exists());
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].price").exists());
+        result.andExpect(jsonPath("$.content[0].description").doesNotExist());
+        result.andExpect(jsonPath("$.content[0].categories").doesNotExist());
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenFieldIsUnknown() throws Exception {
+
+        ResultActions result = mockMvc.perform(get("/products?fields=name,password")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnFirstPageAndNextCursorWhenAfterIsEmpty() throws Exception {
+
+        /*
+         * ACT
+         * after vazio -> primeira página da paginação por cursor.
+         */
+        ResultActions result = mockMvc.perform(get("/products?after=&size=3")
+                .accept(MediaType.APPLICATION_JSON));
+
+        /*
+         * ASSERT
+         * Os produtos seguem a ordem por nome e existe um cursor para a próxima página.
+         */
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.content.length()").value(3));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[1].name").value("PC Gamer"));
+        result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
+        result.andExpect(jsonPath("$.nextCursor").exists());
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 
@@ -196,4 +268,316 @@ public class ProductResourceIT {
          */
         result.andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenIfNoneMatchEqualsETag() throws Exception {
+
+        // Primeira leitura: obtém o ETag atual do produto.
+        String etag = mockMvc.perform(get("/products/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Assertions.assertNotNull(etag);
+
+        // Segunda leitura com If-None-Match: o produto não mudou, então não há corpo.
+        ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+                .header("If-None-Match", etag)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void findByIdShouldReturnCborWhenAcceptIsCbor() throws Exception {
+
+        ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+                .accept(MediaType.APPLICATION_CBOR));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+        // Decodifica o corpo binário com o mesmo modelo de dados do JSON.
+        byte[] body = result.andReturn().getResponse().getContentAsByteArray();
+        JsonNode dto = new ObjectMapper(new CBORFactory()).readTree(body);
+        Assertions.assertEquals(existingId, dto.get("id").asLong());
+    }
+
+    @Test
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+
+        String jsonBody = objectMapper.writeValueAsString(Factory.createProductDTO());
+
+        // ETag que não corresponde à versão atual do produto.
+        ResultActions result = mockMvc.perform(put("/products/{id}", existingId)
+                .header("Authorization", "Bearer " + bearerToken)
+                .header("If-Match", "\"999.0\"")
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void updateShouldAcceptIfMatchFromAnotherRepresentation() throws Exception {
+
+        // ETag de uma leitura em CBOR com ?fields=: mesma versão, outra representação.
+        String etag = mockMvc.perform(get("/products/{id}?fields=name", existingId)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        Assertions.assertTrue(etag.endsWith(";cbor;fields=id+name\""));
+
+        String jsonBody = objectMapper.writeValueAsString(Factory.createProductDTO());
+        ResultActions result = mockMvc.perform(put("/products/{id}", existingId)
+                .header("Authorization", "Bearer " + bearerToken)
+                .header("If-Match", etag)
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+    }
+
+    @Test
+    public void exportShouldStreamOneJsonLinePerProduct() throws Exception {
+
+        /*
+         * ACT
+         * A exportação é assíncrona (StreamingResponseBody): a primeira requisição
+         * apenas inicia a resposta e o asyncDispatch obtém o corpo escrito.
+         */
+        MvcResult started = mockMvc.perform(get("/products/export?format=ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+        /*
+         * ASSERT
+         * Uma linha JSON por produto, em ordem de id, com as categorias.
+         */
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentType("application/x-ndjson"));
+
+        String[] lines = started.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(countTotalProducts, lines.length);
+
+        ProductDTO first = objectMapper.readValue(lines[0], ProductDTO.class);
+        Assertions.assertEquals(existingId, first.getId());
+        Assertions.assertFalse(first.getCategories().isEmpty());
+    }
+
+    @Test
+    public void exportShouldReturnBadRequestWhenFormatIsInvalid() throws Exception {
+
+        ResultActions result = mockMvc.perform(get("/products/export?format=xml"));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void insertBatchShouldInsertValidItemsAndReportInvalidOnes() throws Exception {
+
+        /*
+         * ARRANGE
+         * Três produtos: um válido, um com nome curto demais e um com categoria inexistente.
+         */
+        ProductDTO valid = Factory.createProductDTO();
+        ProductDTO shortName = Factory.createProductDTO();
+        shortName.setName("abc");
+        ProductDTO unknownCategory = Factory.createProductDTO();
+        unknownCategory.getCategories().get(0).setId(999L);
+
+        String jsonBody = objectMapper.writeValueAsString(List.of(valid, shortName, unknownCategory));
+
+        /*
+         * ACT
+         */
+        ResultActions result = mockMvc.perform(post("/products/batch")
+                .header("Authorization", "Bearer " + bearerToken)
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        /*
+         * ASSERT
+         * Apenas o item válido é inserido; os outros voltam com o índice e os erros.
+         */
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.received").value(3));
+        result.andExpect(jsonPath("$.inserted").value(1));
+        result.andExpect(jsonPath("$.ids[0]").exists());
+        result.andExpect(jsonPath("$.errors[0].index").value(1));
+        result.andExpect(jsonPath("$.errors[0].errors[0].fieldName").value("name"));
+        result.andExpect(jsonPath("$.errors[1].index").value(2));
+        result.andExpect(jsonPath("$.errors[1].errors[0].fieldName").value("categories"));
+    }
+
+    @Test
+    public void insertBatchShouldReturnBadRequestWhenItemIsNull() throws Exception {
+
+        /*
+         * ARRANGE
+         * Um produto válido seguido de um item null.
+         */
+        String jsonBody = "[" + objectMapper.writeValueAsString(Factory.createProductDTO()) + ",null]";
+
+        /*
+         * ACT
+         */
+        ResultActions result = mockMvc.perform(post("/products/batch")
+                .header("Authorization", "Bearer " + bearerToken)
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        /*
+         * ASSERT
+         * O lote inteiro é recusado, sem inserir o item válido.
+         */
+        result.andExpect(status().isBadRequest());
+        result.andExpect(jsonPath("$.message").value("Produto ausente na posição 1 do lote"));
+    }
+
+    @Test
+    public void updateBulkShouldMultiplyPriceOfProductsInCategory() throws Exception {
+
+        /*
+         * ARRANGE
+         * Na categoria 1 (Eletrônicos) há apenas o produto 2 (Smart TV, 2190.0).
+         */
+        String jsonBody = """
+                {"categoryIds": [1], "priceFactor": 1.05}
+                """;
+
+        /*
+         * ACT
+         */
+        ResultActions result = mockMvc.perform(patch("/products/bulk")
+                .header("Authorization", "Bearer " + bearerToken)
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        /*
+         * ASSERT
+         */
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.updated").value(1));
+        result.andExpect(jsonPath("$.ids[0]").value(2L));
+
+        // Direto no banco: GET /products/{id} só deixa de usar o cache após o commit.
+        Assertions.assertEquals(2299.5, productRepository.findById(2L).orElseThrow().getPrice());
+    }
+
+    @Test
+    public void updateBulkShouldReturnBadRequestWhenThereIsNoFilter() throws Exception {
+        ResultActions result = mockMvc.perform(patch("/products/bulk")
+                .header("Authorization", "Bearer " + bearerToken)
+                .content("{\"priceFactor\": 1.05}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void importCsvShouldReturnBadRequestWhenFileIsEmpty() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv", new byte[0]);
+
+        ResultActions result = mockMvc.perform(multipart("/products/import")
+                .file(file)
+                .header("Authorization", "Bearer " + bearerToken));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    /**
+     * A importação grava em transações próprias, em segundo plano: o teste roda
+     * sem a transação da classe e remove no final os produtos que importou.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void importCsvShouldInsertValidRowsAndReportRejectedOnes() throws Exception {
+        String csv = "name,description,price,imgUrl,date,categoryNames\n"
+                + "Importado pelo teste 1,Descrição,10.5,,2024-01-31T10:00:00Z,Livros\n"
+                + "Importado pelo teste 2,Descrição,abc,,,Livros\n"
+                + "Importado pelo teste 3,Descrição,20.0,,,Categoria inexistente\n"
+                + "Importado pelo teste 4,Descrição,30.0,,,livros|Computadores\n";
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        try {
+            MvcResult started = mockMvc.perform(multipart("/products/import")
+                            .file(file)
+                            .header("Authorization", "Bearer " + bearerToken))
+                    .andExpect(status().isAccepted())
+                    .andReturn();
+            String id = objectMapper.readTree(started.getResponse().getContentAsString()).get("id").asText();
+
+            JsonNode job = awaitImport(id);
+
+            Assertions.assertEquals("COMPLETED", job.get("status").asText());
+            Assertions.assertEquals(4, job.get("rowsRead").asInt());
+            Assertions.assertEquals(2, job.get("inserted").asInt());
+            Assertions.assertEquals(2, job.get("rejected").asInt());
+            Assertions.assertEquals(2, job.get("errors").get(0).get("index").asInt());
+            Assertions.assertEquals("price", job.get("errors").get(0).get("errors").get(0).get("fieldName").asText());
+            Assertions.assertEquals(3, job.get("errors").get(1).get("index").asInt());
+            Assertions.assertEquals(List.of("Importado pelo teste 1", "Importado pelo teste 4"), importedProducts().stream()
+                    .map(Product::getName).sorted().toList());
+        }
+        finally {
+            for (Product product : importedProducts()) {
+                productService.delete(product.getId());
+            }
+        }
+    }
+
+    @Test
+    public void importStatusShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/import/{id}", "inexistente")
+                .header("Authorization", "Bearer " + bearerToken));
+
+        result.andExpect(status().isNotFound());
+    }
+
+    // Consulta GET /products/import/{id} até a importação terminar.
+    private JsonNode awaitImport(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            MvcResult result = mockMvc.perform(get("/products/import/{id}", id)
+                            .header("Authorization", "Bearer " + bearerToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode job = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (!job.get("status").asText().equals("RUNNING")) {
+                return job;
+            }
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "A importação não terminou");
+            Thread.sleep(20);
+        }
+    }
+
+    private List<Product> importedProducts() {
+        return productRepository.findAll().stream()
+                .filter(product -> product.getName().startsWith("Importado pelo teste"))
+                .toList();
+    }
+
+    @Test
+    public void metricsShouldReturnUnauthorizedWhenNoTokenIsGiven() throws Exception {
+        ResultActions result = mockMvc.perform(get("/actuator/metrics/cache.gets"));
+
+        result.andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void metricsShouldReturnOkWhenAdminIsLogged() throws Exception {
+        ResultActions result = mockMvc.perform(get("/actuator/metrics/cache.gets")
+                .header("Authorization", "Bearer " + bearerToken));
+
+        result.andExpect(status().isOk());
+    }
+}
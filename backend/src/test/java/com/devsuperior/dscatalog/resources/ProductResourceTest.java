@@ -1,10 +1,23 @@
 package com.devsuperior.dscatalog.resources;
 
+import com.devsuperior.dscatalog.dto.CursorPageDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchErrorDTO;
+import com.devsuperior.dscatalog.dto.ProductBatchResultDTO;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO.Status;
+import com.devsuperior.dscatalog.dto.VersionedDTO;
+import com.devsuperior.dscatalog.resources.exceptions.FieldMessage;
+import com.devsuperior.dscatalog.services.CatalogVersionService;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.services.ProductBatchService;
+import com.devsuperior.dscatalog.services.ProductExportService;
+import com.devsuperior.dscatalog.services.ProductImportService;
 import com.devsuperior.dscatalog.services.ProductService;
+import com.devsuperior.dscatalog.services.cache.ResponseBytesCache;
 import com.devsuperior.dscatalog.tests.Factory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,18 +25,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 // @WebMvcTest: Anotação de teste do Spring Boot que foca apenas nos componentes da camada web (controladores).
@@ -31,18 +53,41 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // value = ProductResource.class: Indica que apenas o controlador ProductResource.class deve ser carregado no contexto de teste.
 // excludeAutoConfiguration = {SecurityAutoConfiguration.class}: Exclui a configuração automática de segurança do Spring Security.
 // Isso é útil para testar o controlador sem a necessidade de autenticação, simplificando o teste de endpoints públicos ou a lógica de autorização específica do controlador.
+// @Import: o ResponseBytesCache real (com um MeterRegistry em memória) é usado em GET /products/{id},
+// que serializa o ProductDTO devolvido pelo mock do serviço.
 @WebMvcTest(value = ProductResource.class, excludeAutoConfiguration = {SecurityAutoConfiguration.class})
+@Import({ResponseBytesCache.class, SimpleMeterRegistry.class})
 public class ProductResourceTest {
 
     // MockMvc: Objeto principal para realizar chamadas simuladas aos endpoints REST.
     @Autowired
     private MockMvc mockMvc;
 
+    // Cada dependência do ProductResource precisa de um @MockBean aqui (ou de
+    // um bean real em @Import), na mesma ordem dos campos do controlador: sem
+    // ela, o contexto não sobe e todos os testes da classe falham.
+
     // @MockitoBean: Cria um Mock do ProductService e o injeta no contexto do Spring,
     // substituindo o bean real. Isso permite simular o comportamento do serviço.
     @MockBean
     private ProductService service;
 
+    // Usado nos testes de GET /products/export.
+    @MockBean
+    private ProductExportService exportService;
+
+    // Usado nos testes de POST /products/batch.
+    @MockBean
+    private ProductBatchService batchService;
+
+    // Versão usada no ETag de GET /products.
+    @MockBean
+    private CatalogVersionService catalogVersionService;
+
+    // Usado nos testes de GET /products/import/{id}.
+    @MockBean
+    private ProductImportService importService;
+
     // ObjectMapper: Utilitário para converter objetos Java em JSON e vice-versa.
     @Autowired
     private ObjectMapper objectMapper;
@@ -88,10 +133,17 @@ public class ProductResourceTest {
         Mockito.when(service.insert(any())).thenReturn(productDTO);
 
         // Configura o mock para retornar o DTO atualizado quando o ID existir
-        Mockito.when(service.update(eq(existingId), any())).thenReturn(productDTO);
+        Mockito.when(service.update(eq(existingId), any(), any()))
+                .thenReturn(new VersionedDTO<>(productDTO, "\"1.0\""));
 
         // Configura o mock para lançar exceção ao tentar atualizar um ID inexistente
-        Mockito.when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(service.update(eq(nonExistingId), any(), any())).thenThrow(ResourceNotFoundException.class);
+
+        // ETags usados nos GETs condicionais
+        Mockito.when(service.findETag(existingId)).thenReturn("\"0.0\"");
+        Mockito.when(service.findETag(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+        Mockito.when(catalogVersionService.version()).thenReturn(0L);
+        Mockito.when(service.localListingVersion()).thenReturn("a1-0-0");
 
         // Configura o mock para não fazer nada (void) quando deletar um ID existente
         Mockito.doNothing().when(service).delete(existingId);
@@ -218,6 +270,145 @@ public class ProductResourceTest {
         result.andExpect(status().isOk());
     }
 
+    @Test
+    public void findAllShouldChangeETagWhenLocalIndexesApplyChange() throws Exception {
+        // ARRANGE: o cliente já tem a página com o ETag atual
+        Mockito.when(service.findAllPaged(any(), any(), eq(false), eq(true), any())).thenReturn(page);
+
+        // ACT + ASSERT: sem mudanças, responde 304
+        mockMvc.perform(get("/products").header("If-None-Match", "\"0.a1-0-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        // A versão global não mudou, mas os índices deste nó aplicaram uma alteração:
+        // a página pode ser outra, então o ETag também muda.
+        Mockito.when(service.localListingVersion()).thenReturn("a1-1-0");
+        mockMvc.perform(get("/products").header("If-None-Match", "\"0.a1-0-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0.a1-1-0\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenListingModesAreCombined() throws Exception {
+        // Busca por texto e cursor não podem ser atendidos juntos.
+        mockMvc.perform(get("/products?q=notebook&after=")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        // A busca por texto não aplica faixas de preço.
+        mockMvc.perform(get("/products?q=notebook&minPrice=100")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(service, Mockito.never()).findAllByText(any(), any(), any());
+        Mockito.verify(service, Mockito.never()).findAllByCursor(any(), any(), any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void findAllByTextShouldApplyFieldsAndETag() throws Exception {
+        Mockito.when(service.findAllByText(eq("notebook"), eq("0"), any())).thenReturn(page);
+
+        mockMvc.perform(get("/products?q=notebook&fields=id,name")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0.a1-0-0;fields=id+name\""))
+                .andExpect(jsonPath("$.content[0].name").exists())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    public void findAllByCursorShouldCapSizeAndRejectNonPositiveSize() throws Exception {
+        Mockito.when(service.findAllByCursor(eq(""), eq("0"), eq(""), Mockito.anyInt()))
+                .thenReturn(new CursorPageDTO<>(List.of(productDTO), 1, null));
+
+        mockMvc.perform(get("/products?after=&size=1000000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        Mockito.verify(service).findAllByCursor("", "0", "", 2000);
+
+        mockMvc.perform(get("/products?after=&size=0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportShouldStreamServiceOutputAsAttachment() throws Exception {
+        // O serviço escreve direto no OutputStream da resposta.
+        Mockito.doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("name\nSmart TV\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).export(eq(ProductExportService.Format.CSV), any());
+
+        MvcResult started = mockMvc.perform(get("/products/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+        result.andExpect(status().isOk());
+        result.andExpect(content().contentType("text/csv"));
+        result.andExpect(header().string("Content-Disposition", "attachment; filename=\"products.csv\""));
+        result.andExpect(content().string("name\nSmart TV\n"));
+    }
+
+    @Test
+    public void exportShouldReturnBadRequestWhenFormatIsInvalid() throws Exception {
+        ResultActions result = mockMvc.perform(get("/products/export?format=xml"));
+
+        result.andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(exportService);
+    }
+
+    @Test
+    public void insertBatchShouldReturnIdsAndItemErrors() throws Exception {
+        ProductBatchResultDTO batch = new ProductBatchResultDTO(2, List.of(30L),
+                List.of(new ProductBatchErrorDTO(1, List.of(new FieldMessage("price", "Preço deve ser positivo")))));
+        Mockito.when(batchService.insertAll(any())).thenReturn(batch);
+
+        String jsonBody = objectMapper.writeValueAsString(List.of(productDTO, productDTO));
+        ResultActions result = mockMvc.perform(post("/products/batch")
+                .content(jsonBody)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.received").value(2));
+        result.andExpect(jsonPath("$.inserted").value(1));
+        result.andExpect(jsonPath("$.ids[0]").value(30));
+        result.andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    public void importStatusShouldReturnJobWhenIdExists() throws Exception {
+        ProductImportStatusDTO job = new ProductImportStatusDTO("job-1", "products.csv", Status.COMPLETED,
+                3, 2, 1, List.of(new ProductBatchErrorDTO(2, List.of(new FieldMessage("price", "Preço inválido: abc")))),
+                null, Instant.parse("2024-01-31T10:00:00Z"), Instant.parse("2024-01-31T10:00:05Z"));
+        Mockito.when(importService.findById("job-1")).thenReturn(job);
+
+        ResultActions result = mockMvc.perform(get("/products/import/{id}", "job-1")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().stringValues("Vary", hasItem("Accept")));
+        result.andExpect(jsonPath("$.status").value("COMPLETED"));
+        result.andExpect(jsonPath("$.inserted").value(2));
+        result.andExpect(jsonPath("$.rejected").value(1));
+        result.andExpect(jsonPath("$.errors[0].index").value(2));
+        result.andExpect(jsonPath("$.errors[0].errors[0].fieldName").value("price"));
+    }
+
+    @Test
+    public void importStatusShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+        Mockito.when(importService.findById("job-2")).thenThrow(ResourceNotFoundException.class);
+
+        ResultActions result = mockMvc.perform(get("/products/import/{id}", "job-2")
+                .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotFound());
+    }
+
     @Test
     public void findByIdShouldReturnProductWhenIdExists() throws Exception{
         // ARRANGE: instancie os objetos necessários
@@ -238,6 +429,24 @@ public class ProductResourceTest {
         result.andExpect(jsonPath("$.description").exists());
     }
 
+    @Test
+    public void findByIdShouldSendOneETagPerRepresentation() throws Exception {
+        mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"0.0\""));
+        mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"0.0;cbor\""));
+        mockMvc.perform(get("/products/{id}?fields=price,name", existingId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"0.0;fields=id+name+price\""));
+
+        // O ETag do JSON não vale para o CBOR: o corpo é outro.
+        mockMvc.perform(get("/products/{id}", existingId).header("If-None-Match", "\"0.0\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/products/{id}", existingId).header("If-None-Match", "\"0.0;cbor\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void findByIdShouldReturnNotFoundWhenIdDoesNotExists() throws Exception {
         // ARRANGE: instancie os objetos necessários
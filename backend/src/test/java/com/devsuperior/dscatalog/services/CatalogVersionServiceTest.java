@@ -0,0 +1,153 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.entities.CatalogChange;
+import com.devsuperior.dscatalog.entities.CatalogCommit;
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogCommitRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogVersionServiceTest {
+
+    @InjectMocks
+    private CatalogVersionService service;
+
+    @Mock
+    private CatalogVersionRepository repository;
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @Mock
+    private CatalogCommitRepository commitRepository;
+
+    // Ordem das gravações, para conferir o que acontece antes do incremento.
+    private List<String> writes;
+    private List<CatalogChange> savedRows;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "retentionVersions", 100L);
+        writes = new ArrayList<>();
+        savedRows = new ArrayList<>();
+
+        // lenient: o teste de rollback não chega a gravar.
+        Mockito.lenient().when(commitRepository.save(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            CatalogCommit commit = invocation.getArgument(0);
+            ReflectionTestUtils.setField(commit, "id", 10L);
+            writes.add("commit");
+            return commit;
+        });
+        Mockito.lenient().when(changeRepository.saveAllAndFlush(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            List<CatalogChange> rows = invocation.getArgument(0);
+            savedRows.addAll(rows);
+            writes.add("changes");
+            return rows;
+        });
+        Mockito.lenient().when(repository.increment()).thenAnswer(invocation -> {
+            writes.add("increment");
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void commitShouldRecordChangesOnceBeforeIncrementingVersion() {
+        Mockito.when(repository.current()).thenReturn(41L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.onProductChanged(new ProductChangedEvent(1L, null));
+        service.onProductChanged(new ProductChangedEvent(1L, null));
+        service.onProductChanged(new ProductChangedEvent(2L, null));
+        service.onCategoryChanged(new CategoryChangedEvent(3L));
+        commit();
+
+        Assertions.assertEquals(List.of("commit", "changes", "increment"), writes);
+        Assertions.assertEquals(3, savedRows.size());
+        Assertions.assertEquals(List.of(1L, 2L), savedRows.stream()
+                .filter(row -> row.getProductId() != null).map(CatalogChange::getProductId).toList());
+        Assertions.assertEquals(3L, savedRows.get(2).getCategoryId());
+        Assertions.assertTrue(savedRows.stream().allMatch(row -> row.getCommitId() == 10L));
+        Mockito.verify(commitRepository).stamp(10L, 41L);
+        Mockito.verify(changeRepository, Mockito.never()).deleteUpTo(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    public void rollbackShouldNotRecordChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.onProductChanged(new ProductChangedEvent(1L, null));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Assertions.assertTrue(writes.isEmpty());
+    }
+
+    @Test
+    public void commitShouldPruneOldChangesEveryThousandVersionsBeforeIncrementing() {
+        // A versão gerada por este commit será 1000.
+        Mockito.when(repository.current()).thenReturn(999L);
+        Mockito.when(changeRepository.deleteUpTo(900L)).thenAnswer(invocation -> {
+            writes.add("prune");
+            return 0;
+        });
+
+        service.onProductChanged(new ProductChangedEvent(1L, null));
+
+        Assertions.assertEquals(List.of("commit", "changes", "prune", "increment"), writes);
+        Mockito.verify(commitRepository).deleteUpTo(900L);
+    }
+
+    @Test
+    public void versionShouldReadDatabaseOnceAndFollowCommitsOfThisNode() {
+        Mockito.when(repository.current()).thenReturn(41L);
+        Assertions.assertEquals(41L, service.version());
+        Assertions.assertEquals("\"41\"", service.etag());
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.onProductChanged(new ProductChangedEvent(1L, null));
+        Mockito.when(repository.current()).thenReturn(42L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.beforeCommit(false));
+
+        // Antes do commit, as outras transações ainda veem a versão anterior.
+        Assertions.assertEquals(41L, service.version());
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        Assertions.assertEquals(42L, service.version());
+        // Uma leitura na primeira chamada; as duas outras são do próprio commit (limpeza e stamp).
+        Mockito.verify(repository, Mockito.times(3)).current();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,60 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.ProductProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+// Busca paginada com a contagem em paralelo (product.search.parallel-count=true).
+//
+// Sem o modelo de leitura e sem a consulta única, e ordenada por id (nenhum
+// índice em memória atende essa ordem), a busca chega às três consultas ao
+// banco com a contagem em uma virtual thread. A página e o total precisam ser
+// os mesmos da consulta em sequência (searchProducts, página + countQuery).
+//
+// Sem @Transactional: a contagem em paralelo usa outra transação e só
+// enxerga dados confirmados, como os de data.sql.
+@SpringBootTest(properties = {
+        "product.search.parallel-count=true",
+        "product.search.single-query=false",
+        "product.search.read-model.enabled=false"
+})
+public class ParallelCountIT {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Test
+    public void findAllPagedShouldReturnSamePageAndTotalAsSequentialCount() {
+        assertSameAsSequential("", "0", List.of(), PageRequest.of(0, 5, Sort.by("id")));
+        assertSameAsSequential("", "0", List.of(), PageRequest.of(2, 5, Sort.by("id")));
+        assertSameAsSequential("pc", "0", List.of(), PageRequest.of(0, 2, Sort.by("id")));
+        assertSameAsSequential("", "1,3", List.of(1L, 3L), PageRequest.of(0, 3, Sort.by("id")));
+    }
+
+    @Test
+    public void findAllPagedShouldReturnTotalWhenPageIsBeyondLastOne() {
+        assertSameAsSequential("", "0", List.of(), PageRequest.of(100, 5, Sort.by("id")));
+    }
+
+    private void assertSameAsSequential(String name, String categoryId, List<Long> categoryIds, Pageable pageable) {
+        Page<ProductProjection> expected = repository.searchProducts(categoryIds, name, pageable);
+
+        Page<ProductDTO> result = service.findAllPaged(name, categoryId, pageable);
+
+        Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+        Assertions.assertEquals(expected.map(ProductProjection::getId).toList(), result.map(ProductDTO::getId).toList());
+    }
+}
@@ -0,0 +1,163 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO;
+import com.devsuperior.dscatalog.dto.ProductImportStatusDTO.Status;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.entities.Product;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    private static final String HEADER = "name,description,price,imgUrl,date,categoryNames\n";
+
+    @InjectMocks
+    private ProductImportService service;
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    // Sem transação real: a TransactionTemplate só chama o mock.
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Threads de plataforma no lugar das virtual threads, para conferir que todas terminam.
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(service, "virtualThreads", executor);
+        ReflectionTestUtils.setField(service, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxErrors", 100);
+        ReflectionTestUtils.setField(service, "retentionMinutes", 60L);
+
+        Mockito.when(categoryRepository.findAll()).thenReturn(List.of(
+                new Category(1L, "Livros"), new Category(2L, "Eletrônicos")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void importShouldSaveValidRowsAndReportRejectedOnes() throws InterruptedException {
+        Mockito.when(entityManager.getReference(ArgumentMatchers.eq(Category.class), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> new Category(invocation.getArgument(1), null));
+        List<String> saved = new ArrayList<>();
+        Mockito.when(repository.saveAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Iterable<Product> entities = invocation.getArgument(0);
+            entities.forEach(entity -> saved.add(entity.getName()));
+            return entities;
+        });
+
+        ProductImportStatusDTO started = service.start(csv(HEADER
+                + "Produto importado 1,Descrição,10.5,,2024-01-31T10:00:00Z,Livros\n"
+                + "Produto importado 2,Descrição,abc,,,Livros\n"
+                + "Produto importado 3,Descrição,20.0,,,Inexistente\n"
+                + "Abc,Descrição,20.0,,,Livros\n"
+                + "Produto importado 5,Descrição,30.0,,,livros|Eletrônicos\n"));
+        ProductImportStatusDTO job = awaitFinished(started.getId());
+
+        Assertions.assertEquals(Status.COMPLETED, job.getStatus());
+        Assertions.assertEquals(5, job.getRowsRead());
+        Assertions.assertEquals(2, job.getInserted());
+        Assertions.assertEquals(3, job.getRejected());
+        Assertions.assertEquals(List.of("Produto importado 1", "Produto importado 5"), saved);
+
+        // O índice de cada erro é a posição da linha no arquivo, sem o cabeçalho.
+        Assertions.assertEquals(List.of(2, 3, 4), job.getErrors().stream().map(e -> e.getIndex()).toList());
+        Assertions.assertEquals("price", job.getErrors().get(0).getErrors().get(0).getFieldName());
+        Assertions.assertEquals("categories", job.getErrors().get(1).getErrors().get(0).getFieldName());
+        Assertions.assertEquals("name", job.getErrors().get(2).getErrors().get(0).getFieldName());
+        assertThreadsFinished();
+    }
+
+    @Test
+    public void importShouldFailAndReleaseReaderWhenSaveFails() throws InterruptedException {
+        Mockito.when(entityManager.getReference(ArgumentMatchers.eq(Category.class), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> new Category(invocation.getArgument(1), null));
+        // Enquanto o primeiro lote é gravado, a leitura enche a fila e fica esperando.
+        Mockito.when(repository.saveAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            throw new IllegalStateException("Falha ao gravar o lote");
+        });
+
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 1; i <= 20; i++) {
+            content.append("Produto importado ").append(i).append(",Descrição,10.0,,,Livros\n");
+        }
+        ProductImportStatusDTO job = awaitFinished(service.start(csv(content.toString())).getId());
+
+        Assertions.assertEquals(Status.FAILED, job.getStatus());
+        Assertions.assertEquals("Falha ao gravar o lote", job.getMessage());
+        Assertions.assertEquals(0, job.getInserted());
+        assertThreadsFinished();
+    }
+
+    @Test
+    public void importShouldFailWhenRequiredColumnIsMissing() throws InterruptedException {
+        ProductImportStatusDTO job = awaitFinished(service.start(csv("name,price\nProduto importado,10.0\n")).getId());
+
+        Assertions.assertEquals(Status.FAILED, job.getStatus());
+        Assertions.assertEquals("Coluna obrigatória ausente no cabeçalho: description", job.getMessage());
+        Mockito.verify(repository, Mockito.never()).saveAll(ArgumentMatchers.any());
+        assertThreadsFinished();
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "products.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ProductImportStatusDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ProductImportStatusDTO job = service.findById(id);
+        while (job.getStatus() == Status.RUNNING) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "A importação não terminou");
+            Thread.sleep(10);
+            job = service.findById(id);
+        }
+        return job;
+    }
+
+    // Sem interromper nada: o job e a leitura precisam terminar sozinhos.
+    private void assertThreadsFinished() throws InterruptedException {
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), "Uma thread da importação ficou presa");
+    }
+}
@@ -0,0 +1,114 @@
+package com.devsuperior.dscatalog.services;
+
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.repositories.ProductReadRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductReadModelServiceTest {
+
+    @InjectMocks
+    private ProductReadModelService service;
+
+    @Mock
+    private ProductReadRepository repository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogVersionRepository versionRepository;
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    // Sem transação real: a TransactionTemplate só chama o mock.
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersionService versionService = new CatalogVersionService();
+        ReflectionTestUtils.setField(versionService, "retentionVersions", 100L);
+
+        ReflectionTestUtils.setField(service, "versionService", versionService);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "rebuildBatchSize", 1000);
+    }
+
+    @Test
+    public void onApplicationReadyShouldRebuildWhenTableWasNeverBuilt() {
+        // Sem o stub, o Mockito devolve 0L para um método Long, e não null.
+        Mockito.when(repository.lockSynchronizedVersion()).thenReturn(null);
+        Mockito.when(versionRepository.current()).thenReturn(5L);
+
+        service.onApplicationReady();
+
+        Assertions.assertTrue(service.isReady());
+        Mockito.verify(repository).deleteAllRows();
+        Mockito.verify(repository).markSynchronized(5L);
+    }
+
+    @Test
+    public void onApplicationReadyShouldRewriteOnlyProductsChangedAfterSynchronizedVersion() {
+        Mockito.when(repository.lockSynchronizedVersion()).thenReturn(3L);
+        Mockito.when(versionRepository.current()).thenReturn(5L);
+        Mockito.when(changeRepository.findProductIdsChangedAfter(3L)).thenReturn(List.of(1L, 2L));
+        Mockito.when(changeRepository.findCategoryIdsChangedAfter(3L)).thenReturn(List.of(7L));
+        Mockito.when(productRepository.findIdsByCategory(7L)).thenReturn(List.of(2L, 9L));
+
+        service.onApplicationReady();
+
+        Assertions.assertTrue(service.isReady());
+        Mockito.verify(repository, Mockito.never()).deleteAllRows();
+        Mockito.verify(repository).replace(List.of(1L, 2L, 9L), List.of());
+        Mockito.verify(repository).markSynchronized(5L);
+    }
+
+    @Test
+    public void onApplicationReadyShouldNotWriteWhenTableIsSynchronized() {
+        Mockito.when(repository.lockSynchronizedVersion()).thenReturn(5L);
+        Mockito.when(versionRepository.current()).thenReturn(5L);
+
+        service.onApplicationReady();
+
+        Assertions.assertTrue(service.isReady());
+        Mockito.verify(repository, Mockito.never()).deleteAllRows();
+        Mockito.verify(repository, Mockito.never()).replace(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void onApplicationReadyShouldRebuildWhenChangeLogNoLongerCoversVersion() {
+        Mockito.when(repository.lockSynchronizedVersion()).thenReturn(1L);
+        Mockito.when(versionRepository.current()).thenReturn(200L);
+
+        service.onApplicationReady();
+
+        Mockito.verify(repository).deleteAllRows();
+        Mockito.verify(repository).markSynchronized(200L);
+    }
+
+    @Test
+    public void onApplicationReadyShouldDoNothingWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        service.onApplicationReady();
+
+        Assertions.assertFalse(service.isReady());
+        Mockito.verify(repository, Mockito.never()).lockSynchronizedVersion();
+    }
+}
@@ -1,9 +1,14 @@
 package com.devsuperior.dscatalog.services;
 
+import com.devsuperior.dscatalog.dto.CategoryFacetDTO;
+import com.devsuperior.dscatalog.dto.FacetedPage;
 import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.devsuperior.dscatalog.repositories.ProductReadRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository; // Importação adicionada
 import com.devsuperior.dscatalog.repositories.UserRepository;
+import com.devsuperior.dscatalog.services.search.CatalogIndexer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +19,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 // @SpringBootTest: Carrega o contexto completo da aplicação Spring Boot.
 // Isso significa que todos os beans, configurações e o banco de dados (H2 em memória, geralmente) serão inicializados.
 // É usado para testes de integração (IT - Integration Test).
@@ -27,6 +36,12 @@ public class ProductServiceIT {
     @Autowired
     private ProductRepository productRepository; // Injeção do ProductRepository
 
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
     @Autowired
     private UserRepository repository; // Mantido, caso seja usado em outros testes não mostrados
 
@@ -122,4 +137,85 @@ public class ProductServiceIT {
         Assertions.assertEquals("PC Gamer", result.getContent().get(1).getName());
         Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void readModelSearchShouldReturnSamePageAsNormalizedTables(){
+        // Categorias 1 ou 3, nome contendo "pc", ordenado por preço (desempate por id).
+        PageRequest pageRequest = PageRequest.of(0, 5, Sort.by("price"));
+        List<Long> categoryIds = List.of(1L, 3L);
+
+        Page<ProductDTO> expected = productRepository.searchProductsSingleQuery(categoryIds, "PC", pageRequest);
+        Page<ProductDTO> result = productReadRepository.search(categoryIds, false, "PC", true, pageRequest, null);
+
+        // Os 21 "PC Gamer" de data.sql estão na categoria 3.
+        Assertions.assertEquals(21L, result.getTotalElements());
+        Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+        Assertions.assertEquals(expected.map(ProductDTO::getId).toList(), result.map(ProductDTO::getId).toList());
+        Assertions.assertEquals(expected.getContent().get(0).getCategories().get(0).getName(),
+                result.getContent().get(0).getCategories().get(0).getName());
+    }
+
+    @Test
+    public void readModelSearchShouldRequireAllCategoriesWhenAllCategoriesIsTrue(){
+        // Categorias 1 e 3 ao mesmo tempo (o produto 2 está nas duas).
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("name"));
+        List<Long> categoryIds = List.of(1L, 3L);
+
+        Page<ProductDTO> expected = productRepository.searchProductsInRange(categoryIds, true, "",
+                null, null, null, null, pageRequest);
+        Page<ProductDTO> result = productReadRepository.search(categoryIds, true, "", true, pageRequest, null);
+
+        Assertions.assertEquals(List.of(2L), result.map(ProductDTO::getId).toList());
+        Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+        Assertions.assertEquals(expected.map(ProductDTO::getId).toList(), result.map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void findAllPagedWithFacetsShouldCountProductsOfEachCategoryMatchingName(){
+        Map<Long, Long> expected = countByCategory("pc");
+
+        // Ordenado por nome: página e contagens saem do índice em memória.
+        Assertions.assertTrue(catalogIndexer.isReady());
+        FacetedPage<ProductDTO> fromIndex = service.findAllPagedWithFacets("pc", "0", PageRequest.of(0, 10, Sort.by("name")));
+        // Ordenado por preço: contagens da consulta com GROUP BY.
+        FacetedPage<ProductDTO> fromDatabase = service.findAllPagedWithFacets("pc", "0", PageRequest.of(0, 10, Sort.by("price")));
+
+        Assertions.assertFalse(expected.isEmpty());
+        Assertions.assertEquals(expected, toMap(fromIndex.getFacets()));
+        Assertions.assertEquals(expected, toMap(fromDatabase.getFacets()));
+        Assertions.assertEquals(fromDatabase.getTotalElements(), fromIndex.getTotalElements());
+    }
+
+    @Test
+    public void findAllPagedWithFacetsShouldFilterPageButNotCountsWhenCategoryIsInformed(){
+        // As contagens ignoram o filtro de categoria: o cliente mostra o "(n)" de
+        // todas as categorias, inclusive das que não estão selecionadas.
+        Map<Long, Long> expected = countByCategory("");
+
+        for (Sort sort : List.of(Sort.by("name"), Sort.by("price"))) {
+            FacetedPage<ProductDTO> result = service.findAllPagedWithFacets("", "1", PageRequest.of(0, 50, sort));
+
+            Assertions.assertEquals(expected, toMap(result.getFacets()));
+            Assertions.assertEquals(expected.get(1L), result.getTotalElements());
+            Assertions.assertTrue(result.getContent().stream()
+                    .allMatch(p -> p.getCategories().stream().anyMatch(c -> c.getId() == 1L)));
+        }
+    }
+
+    // Contagem esperada calculada direto das entidades.
+    private Map<Long, Long> countByCategory(String name){
+        Map<Long, Long> counts = new TreeMap<>();
+        for (Product p : productRepository.findAll()) {
+            if (p.getName().toLowerCase().contains(name)) {
+                p.getCategories().forEach(c -> counts.merge(c.getId(), 1L, Long::sum));
+            }
+        }
+        return counts;
+    }
+
+    private static Map<Long, Long> toMap(List<CategoryFacetDTO> facets){
+        Map<Long, Long> counts = new TreeMap<>();
+        facets.forEach(f -> counts.put(f.getCategoryId(), f.getCount()));
+        return counts;
+    }
+}
@@ -5,6 +5,7 @@ import com.devsuperior.dscatalog.entities.Category;
 import com.devsuperior.dscatalog.entities.Product;
 import com.devsuperior.dscatalog.repositories.CategoryRepository;
 import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.cache.CatalogSnapshot;
 import com.devsuperior.dscatalog.services.exceptions.DatabaseException;
 import com.devsuperior.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.devsuperior.dscatalog.tests.Factory;
@@ -18,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -55,6 +57,14 @@ public class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    // Mock do publicador de eventos (atualização dos índices de busca)
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    // Mock da cópia do catálogo em memória; isReady() retorna false e as consultas vão ao repositório
+    @Mock
+    private CatalogSnapshot snapshot;
+
     // =========================
     // DADOS DE APOIO (TEST FIXTURES)
     // =========================
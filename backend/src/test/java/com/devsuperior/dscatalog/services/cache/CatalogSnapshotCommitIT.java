@@ -0,0 +1,138 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.services.CategoryService;
+import com.devsuperior.dscatalog.services.ProductService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+// Sem @Transactional: as alterações fazem commit de verdade, e só então a
+// cópia é atualizada. Cada teste desfaz o que gravou, pois o banco em memória
+// é compartilhado com os outros testes.
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+public class CatalogSnapshotCommitIT {
+
+    @Autowired
+    private CatalogSnapshot snapshot;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CatalogVersionRepository versionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void insertUpdateAndDeleteShouldBeVisibleAfterCommit() throws InterruptedException {
+        ProductDTO dto = new ProductDTO(null, "Produto da cópia", "Descrição", 10.0, "", Instant.now());
+        dto.getCategories().add(new CategoryDTO(1L, null));
+
+        Long id = productService.insert(dto).getId();
+        try {
+            awaitApplied();
+            Assertions.assertEquals("Produto da cópia", snapshot.product(id).getName());
+
+            dto.setName("Produto da cópia alterado");
+            productService.update(id, dto);
+            awaitApplied();
+            Assertions.assertEquals("Produto da cópia alterado", snapshot.product(id).getName());
+        }
+        finally {
+            productService.delete(id);
+        }
+        awaitApplied();
+        Assertions.assertNull(snapshot.product(id));
+    }
+
+    @Test
+    public void categoryRenameShouldRereadItsProducts() throws InterruptedException {
+        String name = snapshot.category(1L).getName();
+
+        categoryService.update(1L, new CategoryDTO(1L, "Eletrônicos e Games"));
+        try {
+            awaitApplied();
+            Assertions.assertEquals("Eletrônicos e Games", snapshot.category(1L).getName());
+            // O produto 2 está na categoria 1.
+            Assertions.assertTrue(snapshot.product(2L).getCategories().stream()
+                    .anyMatch(category -> category.getName().equals("Eletrônicos e Games")));
+        }
+        finally {
+            categoryService.update(1L, new CategoryDTO(1L, name));
+        }
+        awaitApplied();
+    }
+
+    @Test
+    public void rollbackShouldLeaveSnapshotAndVersionUnchanged() throws InterruptedException {
+        awaitApplied();
+        long version = versionRepository.current();
+        ProductDTO original = snapshot.product(1L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.update(1L, renamed(original, "Nome desfeito"));
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertTrue(snapshot.isReady());
+        Assertions.assertEquals(version, versionRepository.current());
+        Assertions.assertEquals(original.getName(), snapshot.product(1L).getName());
+    }
+
+    @Test
+    public void isReadyShouldBeFalseWhileChangeIsBeingCommitted() throws InterruptedException {
+        awaitApplied();
+        ProductDTO original = snapshot.product(1L);
+        boolean[] readyDuringCommit = {true};
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.update(1L, renamed(original, "Nome durante o commit"));
+            // Registrada depois da sincronização da cópia: roda após o beforeCommit dela.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    readyDuringCommit[0] = snapshot.isReady();
+                }
+            });
+        });
+        try {
+            Assertions.assertFalse(readyDuringCommit[0]);
+            awaitApplied();
+            Assertions.assertEquals("Nome durante o commit", snapshot.product(1L).getName());
+        }
+        finally {
+            productService.update(1L, original);
+        }
+        awaitApplied();
+    }
+
+    // Espera a thread da cópia publicar a versão com as alterações já confirmadas.
+    private void awaitApplied() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!snapshot.isReady()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "A cópia não foi atualizada");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ProductDTO renamed(ProductDTO original, String name) {
+        ProductDTO dto = new ProductDTO(original.getId(), name, original.getDescription(), original.getPrice(),
+                original.getImgUrl(), original.getDate());
+        dto.getCategories().addAll(original.getCategories());
+        return dto;
+    }
+}
@@ -0,0 +1,68 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.entities.Category;
+import com.devsuperior.dscatalog.repositories.CategoryRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.search.ProductFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Contexto próprio, com a cópia do catálogo ligada; carregada no ApplicationReadyEvent.
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+@Transactional
+public class CatalogSnapshotIT {
+
+    @Autowired
+    private CatalogSnapshot snapshot;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    public void productShouldReturnSameProductAsDatabase() {
+        Assertions.assertTrue(snapshot.isReady());
+
+        ProductDTO expected = productRepository.findAllWithCategories(List.of(1L)).get(0);
+        ProductDTO result = snapshot.product(1L);
+
+        Assertions.assertEquals(expected.getName(), result.getName());
+        Assertions.assertEquals(expected.getCategories().stream().map(CategoryDTO::getName).toList(),
+                result.getCategories().stream().map(CategoryDTO::getName).toList());
+        Assertions.assertNull(snapshot.product(1000L));
+    }
+
+    @Test
+    public void searchShouldReturnSamePageAsDatabase() {
+        // Categorias 1 ou 3, nome contendo "pc", ordenado por preço (desempate por id).
+        PageRequest pageRequest = PageRequest.of(0, 5, Sort.by("price"));
+        List<Long> categoryIds = List.of(1L, 3L);
+
+        Page<ProductDTO> expected = productRepository.searchProductsSingleQuery(categoryIds, "PC", pageRequest);
+        Page<ProductDTO> result = snapshot.search(new ProductFilter("PC", categoryIds), null, pageRequest);
+
+        // Os 21 "PC Gamer" de data.sql estão na categoria 3.
+        Assertions.assertEquals(21L, result.getTotalElements());
+        Assertions.assertEquals(expected.getTotalElements(), result.getTotalElements());
+        Assertions.assertEquals(expected.map(ProductDTO::getId).toList(), result.map(ProductDTO::getId).toList());
+    }
+
+    @Test
+    public void categoriesShouldReturnAllCategoriesOrderedById() {
+        List<Long> expected = categoryRepository.findAll(Sort.by("id")).stream().map(Category::getId).toList();
+
+        Assertions.assertEquals(expected, snapshot.categories().stream().map(CategoryDTO::getId).toList());
+    }
+}
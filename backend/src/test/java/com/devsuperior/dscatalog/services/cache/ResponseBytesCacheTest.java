@@ -0,0 +1,103 @@
+package com.devsuperior.dscatalog.services.cache;
+
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+public class ResponseBytesCacheTest {
+
+    private ResponseBytesCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseBytesCache();
+        ReflectionTestUtils.setField(cache, "maxWeight", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "gzip", false);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void productShouldBeStoredAndRemovedAfterCommit() {
+        cache.product(1L, "\"1\"", () -> Map.of("id", 1));
+        Assertions.assertNotNull(cache.getProduct(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(1L, null));
+        commit();
+
+        Assertions.assertNull(cache.getProduct(1L));
+    }
+
+    @Test
+    public void productShouldNotBeStoredWhileAChangeIsBeingCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(2L, null));
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        cache.product(1L, "\"1\"", () -> Map.of("id", 1));
+        Assertions.assertNull(cache.getProduct(1L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.product(1L, "\"1\"", () -> Map.of("id", 1));
+        Assertions.assertNotNull(cache.getProduct(1L));
+    }
+
+    @Test
+    public void cacheShouldKeepStoringAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(1L, null));
+        cache.onCategoryChanged(new CategoryChangedEvent(1L));
+
+        // Rollback: o beforeCommit não roda, só o afterCompletion.
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cache.product(1L, "\"1\"", () -> Map.of("id", 1));
+        cache.categories("\"7\"", () -> List.of(Map.of("id", 1)));
+        Assertions.assertNotNull(cache.getProduct(1L));
+        Assertions.assertNotNull(cache.getCategories());
+    }
+
+    @Test
+    public void categoryChangeShouldRemoveCategoriesAndProducts() {
+        cache.product(1L, "\"1\"", () -> Map.of("id", 1));
+        cache.categories("\"7\"", () -> List.of(Map.of("id", 1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onCategoryChanged(new CategoryChangedEvent(1L));
+        commit();
+
+        Assertions.assertNull(cache.getProduct(1L));
+        Assertions.assertNull(cache.getCategories());
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
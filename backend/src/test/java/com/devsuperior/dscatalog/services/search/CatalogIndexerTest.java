@@ -0,0 +1,170 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.repositories.CatalogChangeRepository;
+import com.devsuperior.dscatalog.repositories.CatalogVersionRepository;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.CatalogVersionService;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogIndexerTest {
+
+    private static final UUID DATABASE_ID = UUID.fromString("3f2b8c1e-9a47-4d2e-8f61-0c5b7a9d2e14");
+
+    @InjectMocks
+    private CatalogIndexer indexer;
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock
+    private CatalogVersionRepository versionRepository;
+
+    @Mock
+    private CatalogChangeRepository changeRepository;
+
+    @Mock
+    private ProductIndex index;
+
+    @TempDir
+    Path directory;
+
+    private IndexSnapshotFile snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersionService versionService = new CatalogVersionService();
+        ReflectionTestUtils.setField(versionService, "retentionVersions", 100L);
+        snapshotFile = new IndexSnapshotFile(true, directory.resolve("index.snap").toString());
+
+        ReflectionTestUtils.setField(indexer, "versionService", versionService);
+        ReflectionTestUtils.setField(indexer, "snapshotFile", snapshotFile);
+        ReflectionTestUtils.setField(indexer, "indexes", List.of(index));
+
+        Mockito.when(versionRepository.current()).thenReturn(7L);
+        Mockito.when(versionRepository.databaseId()).thenReturn(DATABASE_ID.toString());
+    }
+
+    @Test
+    public void rebuildShouldRereadOnlyProductsChangedAfterFileVersion() {
+        writeFile(DATABASE_ID, 5L);
+        Mockito.when(changeRepository.findProductIdsChangedAfter(5L)).thenReturn(List.of(2L, 3L));
+        // O produto 2 foi renomeado e o 3, excluído.
+        Mockito.when(repository.findAllWithCategories(List.of(2L, 3L), false)).thenReturn(List.of(product(2L, "Macbook Air")));
+
+        indexer.rebuild();
+
+        Assertions.assertTrue(indexer.isReady());
+        Assertions.assertEquals("Smart TV", indexer.get(1L).getName());
+        Assertions.assertEquals("Macbook Air", indexer.get(2L).getName());
+        Assertions.assertNull(indexer.get(3L));
+        Mockito.verify(repository, Mockito.never()).searchAllForIndex();
+        Assertions.assertEquals(7L, snapshotFile.read().catalogVersion());
+    }
+
+    @Test
+    public void rebuildShouldLoadFromDatabaseWhenFileBelongsToAnotherDatabase() {
+        writeFile(UUID.fromString("0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d"), 5L);
+
+        indexer.rebuild();
+
+        Assertions.assertTrue(indexer.isReady());
+        Assertions.assertNull(indexer.get(1L));
+        Mockito.verify(repository).searchAllForIndex();
+        Mockito.verify(changeRepository, Mockito.never()).findProductIdsChangedAfter(ArgumentMatchers.anyLong());
+        Assertions.assertEquals(DATABASE_ID, snapshotFile.read().databaseId());
+    }
+
+    @Test
+    public void rebuildShouldLoadFromDatabaseWhenFileIsNewerThanDatabase() {
+        writeFile(DATABASE_ID, 9L);
+
+        indexer.rebuild();
+
+        Assertions.assertNull(indexer.get(1L));
+        Mockito.verify(repository).searchAllForIndex();
+        Assertions.assertEquals(7L, snapshotFile.read().catalogVersion());
+    }
+
+    @Test
+    public void changesOfOneTransactionShouldReachIndexesInOneBatchAfterCommit() {
+        List<List<ProductIndex.Change>> batches = new ArrayList<>();
+        ReflectionTestUtils.setField(indexer, "indexes", List.of(new ProductIndex() {
+            @Override
+            public void rebuild(Collection<IndexedProduct> products) {
+            }
+
+            @Override
+            public void update(IndexedProduct before, IndexedProduct after) {
+                Assertions.fail("As alterações da transação devem chegar juntas");
+            }
+
+            @Override
+            public void updateAll(List<Change> changes, Collection<IndexedProduct> all) {
+                batches.add(changes);
+            }
+        }));
+        indexer.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            indexer.onProductChanged(new ProductChangedEvent(10L, product(10L, "Notebook")));
+            indexer.onProductChanged(new ProductChangedEvent(11L, product(11L, "Monitor")));
+            indexer.onProductChanged(new ProductChangedEvent(10L, product(10L, "Notebook Pro")));
+            Assertions.assertTrue(batches.isEmpty());
+            Assertions.assertNull(indexer.get(10L));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+        finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(2, batches.get(0).size());
+        Assertions.assertNull(batches.get(0).get(0).before());
+        Assertions.assertEquals("Notebook Pro", batches.get(0).get(0).after().getName());
+        Assertions.assertEquals("Notebook Pro", indexer.get(10L).getName());
+    }
+
+    private void writeFile(UUID databaseId, long version) {
+        snapshotFile.write(databaseId, version, List.of(
+                new IndexedProduct(1L, "Smart TV", 2190.0, null, Set.of(2L)),
+                new IndexedProduct(2L, "Macbook Pro", 1250.0, null, Set.of(3L)),
+                new IndexedProduct(3L, "PC Gamer", 1200.0, null, Set.of(3L)),
+                new IndexedProduct(4L, "PC Gamer Alfa", 1850.0, null, Set.of(3L)),
+                new IndexedProduct(5L, "O Senhor dos Anéis", 90.5, null, Set.of(1L))));
+    }
+
+    private static ProductDTO product(Long id, String name) {
+        ProductDTO dto = new ProductDTO(id, name, null, 1250.0, "", null);
+        dto.getCategories().add(new CategoryDTO(3L, "Computadores"));
+        return dto;
+    }
+}
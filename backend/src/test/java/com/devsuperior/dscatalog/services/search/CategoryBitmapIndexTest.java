@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class CategoryBitmapIndexTest {
+
+    private CategoryBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryBitmapIndex();
+        index.rebuild(List.of(
+                new IndexedProduct(1L, "Smart TV", Set.of(1L)),
+                new IndexedProduct(2L, "Macbook Pro", Set.of(2L, 3L)),
+                new IndexedProduct(3L, "PC Gamer", Set.of(3L))));
+    }
+
+    @Test
+    public void selectShouldReturnUnionWhenAnyCategoryIsEnough() {
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids(index.select(List.of(1L, 3L), false)));
+    }
+
+    @Test
+    public void selectShouldReturnIntersectionWhenAllCategoriesAreRequired() {
+        Assertions.assertEquals(List.of(2L), ids(index.select(List.of(2L, 3L), true)));
+    }
+
+    @Test
+    public void selectShouldReturnNullWhenThereIsNoCategoryFilter() {
+        Assertions.assertNull(index.select(List.of(), false));
+    }
+
+    @Test
+    public void updateShouldMoveProductBetweenCategories() {
+        index.update(new IndexedProduct(3L, "PC Gamer", Set.of(3L)), new IndexedProduct(3L, "PC Gamer", Set.of(1L)));
+
+        Assertions.assertEquals(List.of(1L, 3L), ids(index.select(List.of(1L), false)));
+        Assertions.assertEquals(List.of(2L), ids(index.select(List.of(3L), false)));
+    }
+
+    private static List<Long> ids(Roaring64Bitmap bitmap) {
+        List<Long> ids = new ArrayList<>();
+        CategoryBitmapIndex.forEach(bitmap, ids::add);
+        return ids;
+    }
+}
@@ -0,0 +1,145 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ColumnarIndexTest {
+
+    private static final Instant JAN = Instant.parse("2024-01-10T00:00:00Z");
+    private static final Instant FEB = Instant.parse("2024-02-10T00:00:00Z");
+    private static final Instant MAR = Instant.parse("2024-03-10T00:00:00Z");
+
+    private static final RangeIndex.Range NO_RANGE = new RangeIndex.Range(null, null, null, null);
+
+    private ColumnarIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ColumnarIndex(true, ColumnFilters.scalar());
+        index.rebuild(List.of(
+                new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L, 2L)),
+                new IndexedProduct(2L, "Macbook Pro", 1250.0, FEB, Set.of(3L)),
+                new IndexedProduct(3L, "PC Gamer", 1200.0, MAR, Set.of(3L)),
+                new IndexedProduct(4L, "PC Gamer X", 1200.0, JAN, Set.of(2L, 3L))));
+    }
+
+    @Test
+    public void searchShouldFilterByNameAndCategoryInNameOrder() {
+        Page<Long> result = index.search(new ProductFilter("gamer", List.of(3L)), null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(3L, 4L), result.getContent());
+        Assertions.assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldReturnPriceRangeInPriceOrder() {
+        Page<Long> result = index.search(new ProductFilter("", List.of()),
+                new RangeIndex.Range(1200.0, 1250.0, null, null), PageRequest.of(0, 10, Sort.by("price")));
+
+        Assertions.assertEquals(List.of(3L, 4L, 2L), result.getContent());
+    }
+
+    @Test
+    public void searchShouldKeepIdOrderForTiesWhenDescending() {
+        Page<Long> result = index.search(new ProductFilter("", List.of()), NO_RANGE,
+                PageRequest.of(0, 10, Sort.by("price").descending()));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L), result.getContent());
+    }
+
+    @Test
+    public void searchShouldReturnRequestedPageFromTopK() {
+        Page<Long> result = index.search(new ProductFilter("", List.of()), NO_RANGE,
+                PageRequest.of(1, 2, Sort.by("date")));
+
+        Assertions.assertEquals(List.of(2L, 3L), result.getContent());
+        Assertions.assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    public void searchShouldIntersectCategoriesWhenAllCategories() {
+        Page<Long> result = index.search(new ProductFilter("", List.of(2L, 3L), true), null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(4L), result.getContent());
+    }
+
+    @Test
+    public void searchShouldReturnNullWhenSortIsNotSupported() {
+        Assertions.assertNull(index.search(new ProductFilter("", List.of()), null, PageRequest.of(0, 10, Sort.by("imgUrl"))));
+    }
+
+    @Test
+    public void updateShouldMoveProductAndKeepCategoriesAligned() {
+        index.update(new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L, 2L)),
+                new IndexedProduct(1L, "A Smart TV", 999.0, JAN, Set.of(3L)));
+        index.update(null, new IndexedProduct(5L, "PC Gamer Y", 1300.0, FEB, Set.of(2L)));
+        index.update(new IndexedProduct(2L, "Macbook Pro", 1250.0, FEB, Set.of(3L)), null);
+
+        Page<Long> category3 = index.search(new ProductFilter("", List.of(3L)), null, PageRequest.of(0, 10));
+        Page<Long> category2 = index.search(new ProductFilter("", List.of(2L)), null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(1L, 3L, 4L), category3.getContent());
+        Assertions.assertEquals(List.of(4L, 5L), category2.getContent());
+    }
+
+    @Test
+    public void updateAllShouldRebuildOnceAndMatchSingleUpdates() {
+        List<ProductIndex.Change> changes = List.of(
+                new ProductIndex.Change(new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L, 2L)),
+                        new IndexedProduct(1L, "A Smart TV", 999.0, JAN, Set.of(3L))),
+                new ProductIndex.Change(null, new IndexedProduct(5L, "PC Gamer Y", 1300.0, FEB, Set.of(2L))),
+                new ProductIndex.Change(new IndexedProduct(2L, "Macbook Pro", 1250.0, FEB, Set.of(3L)), null));
+        List<IndexedProduct> all = List.of(
+                new IndexedProduct(1L, "A Smart TV", 999.0, JAN, Set.of(3L)),
+                new IndexedProduct(3L, "PC Gamer", 1200.0, MAR, Set.of(3L)),
+                new IndexedProduct(4L, "PC Gamer X", 1200.0, JAN, Set.of(2L, 3L)),
+                new IndexedProduct(5L, "PC Gamer Y", 1300.0, FEB, Set.of(2L)));
+
+        // Três alterações em quatro linhas: mais que log2(4), então reconstrói.
+        index.updateAll(changes, all);
+
+        Page<Long> category3 = index.search(new ProductFilter("", List.of(3L)), null, PageRequest.of(0, 10));
+        Page<Long> category2 = index.search(new ProductFilter("", List.of(2L)), null, PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(1L, 3L, 4L), category3.getContent());
+        Assertions.assertEquals(List.of(4L, 5L), category2.getContent());
+        Assertions.assertEquals(4, index.size());
+    }
+
+    @Test
+    public void vectorFiltersShouldReturnSameResultsAsScalarFilters() {
+        Random random = new Random(42);
+        List<IndexedProduct> products = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            Double price = random.nextInt(10) == 0 ? null : random.nextInt(5000) / 10.0;
+            Instant date = JAN.plusSeconds(random.nextInt(90 * 86400));
+            products.add(new IndexedProduct(id, "Product " + random.nextInt(300), price, date,
+                    List.of(1L + random.nextInt(5), 1L + random.nextInt(5))));
+        }
+        ColumnarIndex scalar = new ColumnarIndex(true, ColumnFilters.scalar());
+        ColumnarIndex best = new ColumnarIndex(true, ColumnFilters.best());
+        scalar.rebuild(products);
+        best.rebuild(products);
+
+        ProductFilter filter = new ProductFilter("product 1", List.of(1L, 4L));
+        RangeIndex.Range range = new RangeIndex.Range(50.0, 300.0, FEB, null);
+        PageRequest pageRequest = PageRequest.of(2, 7, Sort.by("price").descending());
+
+        Assertions.assertEquals(scalar.search(filter, range, pageRequest).getContent(),
+                best.search(filter, range, pageRequest).getContent());
+
+        PageRequest byName = PageRequest.of(1, 5);
+        Assertions.assertEquals(scalar.search(filter, range, byName).getContent(),
+                best.search(filter, range, byName).getContent());
+    }
+}
@@ -0,0 +1,158 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.projections.ProductTextProjection;
+import com.devsuperior.dscatalog.repositories.ProductRepository;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class FullTextIndexTest {
+
+    @InjectMocks
+    private FullTextIndex index;
+
+    @Mock
+    private ProductRepository repository;
+
+    @TempDir
+    Path baseDirectory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "baseDirectory", baseDirectory);
+        ReflectionTestUtils.setField(index, "rebuildThreads", 2);
+
+        // Linhas (produto, categoria) ordenadas por id, como em searchTextForIndex.
+        Mockito.when(repository.findMaxId()).thenReturn(3L);
+        Mockito.when(repository.searchTextForIndex(0L, 4999L)).thenReturn(List.of(
+                new Row(1L, "Smart TV", "Televisão com controle remoto", 2L),
+                new Row(2L, "PC Gamer", "Computador para jogos", 3L),
+                new Row(3L, "Monitor", "Ideal para o seu PC gamer", 1L),
+                new Row(3L, "Monitor", "Ideal para o seu PC gamer", 3L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    public void searchShouldRankNameMatchesFirst() throws Exception {
+        rebuild();
+
+        FullTextIndex.Result result = index.search("gamer", List.of(), 0, 10);
+
+        Assertions.assertEquals(2, result.total());
+        Assertions.assertEquals(List.of(2L, 3L), ids(result));
+    }
+
+    @Test
+    public void searchShouldFilterByCategoryAndPage() throws Exception {
+        rebuild();
+
+        Assertions.assertEquals(List.of(3L), ids(index.search("gamer", List.of(1L), 0, 10)));
+
+        FullTextIndex.Result secondPage = index.search("gamer", List.of(), 1, 1);
+        Assertions.assertEquals(2, secondPage.total());
+        Assertions.assertEquals(List.of(3L), ids(secondPage));
+    }
+
+    @Test
+    public void onProductChangedShouldReplaceAndRemoveDocuments() throws Exception {
+        rebuild();
+
+        index.onProductChanged(new ProductChangedEvent(1L, product(1L, "Smart TV Gamer", 2L)));
+        index.onProductChanged(new ProductChangedEvent(2L, null));
+
+        Assertions.assertEquals(List.of(1L, 3L), ids(index.search("gamer", List.of(), 0, 10)));
+        Assertions.assertEquals(0, index.search("jogos", List.of(), 0, 10).total());
+    }
+
+    @Test
+    public void onProductChangedShouldRemoveProductWithoutCategories() throws Exception {
+        rebuild();
+
+        index.onProductChanged(new ProductChangedEvent(2L, product(2L, "PC Gamer", null)));
+
+        Assertions.assertEquals(List.of(3L), ids(index.search("gamer", List.of(), 0, 10)));
+    }
+
+    @Test
+    public void onApplicationReadyShouldKeepFilesItDidNotCreate() throws Exception {
+        Path previousIndex = Files.createDirectories(baseDirectory.resolve("index-1"));
+        Files.writeString(previousIndex.resolve("segments_1"), "");
+        Path otherFile = Files.writeString(baseDirectory.resolve("notes.txt"), "manter");
+        Path otherDirectory = Files.createDirectories(baseDirectory.resolve("data"));
+
+        index.onApplicationReady();
+        awaitReady();
+
+        Assertions.assertFalse(Files.exists(previousIndex));
+        Assertions.assertTrue(Files.exists(otherFile));
+        Assertions.assertTrue(Files.exists(otherDirectory));
+    }
+
+    private void rebuild() throws InterruptedException {
+        Assertions.assertTrue(index.startRebuild());
+        awaitReady();
+    }
+
+    private void awaitReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!index.isReady() || index.isRebuilding()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Reconstrução não terminou");
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Long> ids(FullTextIndex.Result result) {
+        return result.hits().stream().map(FullTextIndex.Hit::id).toList();
+    }
+
+    private static ProductDTO product(Long id, String name, Long categoryId) {
+        ProductDTO dto = new ProductDTO(id, name, "Descrição", 100.0, "", null);
+        if (categoryId != null) {
+            dto.getCategories().add(new CategoryDTO(categoryId, "Categoria"));
+        }
+        return dto;
+    }
+
+    private record Row(Long id, String name, String description, Long categoryId) implements ProductTextProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public Long getCategoryId() {
+            return categoryId;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.rebuild(List.of(
+                new IndexedProduct(1L, "Notebook Dell", Set.of(3L)),
+                new IndexedProduct(2L, "Smartphone Samsung", Set.of(3L)),
+                new IndexedProduct(3L, "Smart TV", Set.of(1L))));
+    }
+
+    @Test
+    public void searchShouldMatchMisspelledWords() {
+        List<FuzzyIndex.Match> result = index.search("notbook");
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(1L, result.get(0).product().getId());
+        Assertions.assertEquals(1, result.get(0).distance());
+    }
+
+    @Test
+    public void searchShouldRankByDistance() {
+        index.update(null, new IndexedProduct(4L, "Smartv Box", Set.of(1L)));
+
+        List<FuzzyIndex.Match> result = index.search("smartv");
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals("Smartv Box", result.get(0).product().getName());
+        Assertions.assertEquals("Smart TV", result.get(1).product().getName());
+    }
+
+    @Test
+    public void searchShouldRequireEveryWord() {
+        Assertions.assertTrue(index.search("smarphone dell").isEmpty());
+    }
+
+    @Test
+    public void updateShouldStopMatchingOldName() {
+        index.update(new IndexedProduct(1L, "Notebook Dell", Set.of(3L)),
+                new IndexedProduct(1L, "Monitor Dell", Set.of(3L)));
+
+        Assertions.assertTrue(index.search("notbook").isEmpty());
+        Assertions.assertEquals(1, index.search("monitr").size());
+    }
+}
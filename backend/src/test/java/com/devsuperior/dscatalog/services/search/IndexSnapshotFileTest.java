@@ -0,0 +1,66 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class IndexSnapshotFileTest {
+
+    private static final UUID DATABASE_ID = UUID.fromString("3f2b8c1e-9a47-4d2e-8f61-0c5b7a9d2e14");
+
+    private Path file;
+    private IndexSnapshotFile snapshotFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("index-snapshot").resolve("index.snap");
+        snapshotFile = new IndexSnapshotFile(true, file.toString());
+    }
+
+    @Test
+    public void readShouldReturnWrittenProductsAndVersion() {
+        Instant date = Instant.parse("2024-01-10T12:30:15.123456Z");
+        snapshotFile.write(DATABASE_ID, 41L, List.of(
+                new IndexedProduct(1L, "Smart TV Ação", 2190.0, date, Set.of(1L, 2L)),
+                new IndexedProduct(2L, "Macbook Pro", null, null, Set.of(3L))));
+
+        IndexSnapshotFile.Snapshot snapshot = snapshotFile.read();
+
+        Assertions.assertEquals(DATABASE_ID, snapshot.databaseId());
+        Assertions.assertEquals(41L, snapshot.catalogVersion());
+        Assertions.assertEquals(2, snapshot.products().size());
+        IndexedProduct first = snapshot.products().get(0);
+        Assertions.assertEquals(1L, first.getId());
+        Assertions.assertEquals("Smart TV Ação", first.getName());
+        Assertions.assertEquals("smart tv ação", first.getNormalizedName());
+        Assertions.assertEquals(2190.0, first.getPrice());
+        Assertions.assertEquals(date, first.getDate());
+        Assertions.assertEquals(Set.of(1L, 2L), first.getCategoryIds());
+        IndexedProduct second = snapshot.products().get(1);
+        Assertions.assertNull(second.getPrice());
+        Assertions.assertNull(second.getDate());
+    }
+
+    @Test
+    public void readShouldReturnNullWhenFileIsCorrupted() throws IOException {
+        snapshotFile.write(DATABASE_ID, 7L, List.of(new IndexedProduct(1L, "PC Gamer", 1200.0, null, Set.of(3L))));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[30] ^= 1;
+        Files.write(file, bytes);
+
+        Assertions.assertNull(snapshotFile.read());
+    }
+
+    @Test
+    public void readShouldReturnNullWhenFileDoesNotExist() {
+        Assertions.assertNull(snapshotFile.read());
+    }
+}
@@ -0,0 +1,174 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.dto.CategoryDTO;
+import com.devsuperior.dscatalog.dto.ProductDTO;
+import com.devsuperior.dscatalog.services.events.CategoryChangedEvent;
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+public class ProductSearchCacheTest {
+
+    private ProductSearchCache cache;
+    private ProductFilter gamerFilter;
+    private ProductFilter tvFilter;
+    private Pageable pageable;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductSearchCache();
+        ReflectionTestUtils.setField(cache, "maxWeight", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+
+        gamerFilter = new ProductFilter("gamer", List.of(3L));
+        tvFilter = new ProductFilter("tv", List.of());
+        pageable = PageRequest.of(0, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void getShouldReturnStoredPage() {
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+
+        Page<ProductDTO> result = cache.get(new ProductFilter("Gamer", List.of(3L)), pageable, true);
+
+        Assertions.assertEquals(1, result.getTotalElements());
+        Assertions.assertEquals("PC Gamer", result.getContent().get(0).getName());
+        Assertions.assertEquals("Computadores", result.getContent().get(0).getCategories().get(0).getName());
+    }
+
+    @Test
+    public void getShouldServePageWithoutDescriptionFromFullPage() {
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+
+        Assertions.assertNotNull(cache.get(gamerFilter, pageable, false));
+        Assertions.assertNull(cache.get(gamerFilter, PageRequest.of(1, 10), false));
+    }
+
+    @Test
+    public void storedPageShouldNotChangeWhenCallerChangesDtos() {
+        Page<ProductDTO> page = page(product(4L, "PC Gamer"));
+        cache.put(gamerFilter, pageable, true, page, cache.generation());
+
+        page.getContent().get(0).setName("Alterado");
+        cache.get(gamerFilter, pageable, true).getContent().get(0).getCategories().get(0).setName("Alterada");
+
+        ProductDTO cached = cache.get(gamerFilter, pageable, true).getContent().get(0);
+        Assertions.assertEquals("PC Gamer", cached.getName());
+        Assertions.assertEquals("Computadores", cached.getCategories().get(0).getName());
+    }
+
+    @Test
+    public void updateShouldInvalidateOnlyPagesMatchedByProduct() {
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+        cache.put(tvFilter, pageable, true, page(product(1L, "Smart TV")), cache.generation());
+
+        cache.update(new IndexedProduct(4L, "PC Gamer", Set.of(3L)), new IndexedProduct(4L, "PC Gamer X", Set.of(3L)));
+
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+        Assertions.assertNotNull(cache.get(tvFilter, pageable, true));
+    }
+
+    @Test
+    public void updateShouldInvalidatePagesTheProductStartsMatching() {
+        cache.put(tvFilter, pageable, true, page(product(1L, "Smart TV")), cache.generation());
+
+        cache.update(null, new IndexedProduct(30L, "TV Box", Set.of(1L)));
+
+        Assertions.assertNull(cache.get(tvFilter, pageable, true));
+    }
+
+    @Test
+    public void putShouldIgnorePageReadBeforeAChange() {
+        long generation = cache.generation();
+        cache.update(null, new IndexedProduct(30L, "Mouse", Set.of(3L)));
+
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), generation);
+
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+    }
+
+    @Test
+    public void putShouldIgnorePageWhileAChangeIsBeingCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(4L, null));
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+        Assertions.assertNotNull(cache.get(gamerFilter, pageable, true));
+    }
+
+    @Test
+    public void putShouldStorePagesAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(4L, null));
+
+        // Rollback: o beforeCommit não roda, só o afterCompletion.
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+        Assertions.assertNotNull(cache.get(gamerFilter, pageable, true));
+    }
+
+    @Test
+    public void categoryChangeShouldInvalidateAllPagesAfterCommit() {
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), cache.generation());
+        cache.put(tvFilter, pageable, true, page(product(1L, "Smart TV")), cache.generation());
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onCategoryChanged(new CategoryChangedEvent(3L));
+        Assertions.assertNotNull(cache.get(gamerFilter, pageable, true));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+        Assertions.assertNull(cache.get(tvFilter, pageable, true));
+
+        // Página lida durante o commit, ainda com o nome anterior da categoria.
+        long generation = cache.generation();
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), generation);
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.put(gamerFilter, pageable, true, page(product(4L, "PC Gamer")), generation);
+        Assertions.assertNull(cache.get(gamerFilter, pageable, true));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private Page<ProductDTO> page(ProductDTO... products) {
+        return new PageImpl<>(List.of(products), pageable, products.length);
+    }
+
+    private static ProductDTO product(Long id, String name) {
+        ProductDTO dto = new ProductDTO(id, name, "Descrição", 1200.0, "", null);
+        dto.getCategories().add(new CategoryDTO(3L, "Computadores"));
+        return dto;
+    }
+}
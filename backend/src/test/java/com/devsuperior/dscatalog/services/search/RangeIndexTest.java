@@ -0,0 +1,78 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+public class RangeIndexTest {
+
+    private static final Instant JAN = Instant.parse("2024-01-10T00:00:00Z");
+    private static final Instant FEB = Instant.parse("2024-02-10T00:00:00Z");
+    private static final Instant MAR = Instant.parse("2024-03-10T00:00:00Z");
+
+    private RangeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RangeIndex();
+        index.rebuild(List.of(
+                new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L)),
+                new IndexedProduct(2L, "Macbook Pro", 1250.0, FEB, Set.of(3L)),
+                new IndexedProduct(3L, "PC Gamer", 1200.0, MAR, Set.of(3L)),
+                new IndexedProduct(4L, "PC Gamer X", 1200.0, JAN, Set.of(3L))));
+    }
+
+    @Test
+    public void searchShouldReturnPriceRangeInPriceOrder() {
+        List<IndexedProduct> result = index.search(new RangeIndex.Range(1200.0, 1250.0, null, null), "price", false);
+
+        Assertions.assertEquals(List.of(3L, 4L, 2L), ids(result));
+    }
+
+    @Test
+    public void searchShouldKeepIdOrderForTiesWhenDescending() {
+        List<IndexedProduct> result = index.search(new RangeIndex.Range(null, null, null, null), "price", true);
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L), ids(result));
+    }
+
+    @Test
+    public void searchShouldApplyPriceAndDateRangesTogether() {
+        List<IndexedProduct> result = index.search(new RangeIndex.Range(null, 1250.0, FEB, null), "date", false);
+
+        Assertions.assertEquals(List.of(2L, 3L), ids(result));
+    }
+
+    @Test
+    public void updateShouldMoveProductToNewPosition() {
+        index.update(new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L)),
+                new IndexedProduct(1L, "Smart TV", 999.0, JAN, Set.of(1L)));
+
+        List<IndexedProduct> result = index.search(new RangeIndex.Range(null, 1000.0, null, null), "price", false);
+
+        Assertions.assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    public void updateAllShouldApplyInsertUpdateAndDeleteInOneCopy() {
+        IndexedProduct inserted = new IndexedProduct(5L, "Notebook", 1200.0, FEB, Set.of(3L));
+        index.updateAll(List.of(
+                new ProductIndex.Change(new IndexedProduct(1L, "Smart TV", 2190.0, JAN, Set.of(1L)),
+                        new IndexedProduct(1L, "Smart TV", 999.0, MAR, Set.of(1L))),
+                new ProductIndex.Change(null, inserted),
+                new ProductIndex.Change(new IndexedProduct(2L, "Macbook Pro", 1250.0, FEB, Set.of(3L)), null)), List.of());
+
+        RangeIndex.Range all = new RangeIndex.Range(null, null, null, null);
+        Assertions.assertEquals(List.of(1L, 3L, 4L, 5L), ids(index.search(all, "price", false)));
+        Assertions.assertEquals(List.of(4L, 5L, 1L, 3L), ids(index.search(all, "date", false)));
+        Assertions.assertEquals(4, index.size());
+    }
+
+    private static List<Long> ids(List<IndexedProduct> products) {
+        return products.stream().map(IndexedProduct::getId).toList();
+    }
+}
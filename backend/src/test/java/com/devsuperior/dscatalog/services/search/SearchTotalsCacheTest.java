@@ -0,0 +1,105 @@
+package com.devsuperior.dscatalog.services.search;
+
+import com.devsuperior.dscatalog.services.events.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+public class SearchTotalsCacheTest {
+
+    private SearchTotalsCache cache;
+    private ProductFilter gamerFilter;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchTotalsCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+
+        gamerFilter = new ProductFilter("Gamer", List.of(3L));
+        cache.put(gamerFilter, 10L, cache.generation());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void getShouldReturnTotalForEquivalentFilter() {
+        Assertions.assertEquals(10L, cache.get(new ProductFilter("gamer", List.of(3L, 3L))));
+    }
+
+    @Test
+    public void updateShouldIncrementTotalWhenProductStartsMatching() {
+        cache.update(null, new IndexedProduct(30L, "PC Gamer Pro", Set.of(3L)));
+
+        Assertions.assertEquals(11L, cache.get(gamerFilter));
+    }
+
+    @Test
+    public void updateShouldDecrementTotalWhenProductStopsMatching() {
+        cache.update(new IndexedProduct(4L, "PC Gamer", Set.of(3L)), new IndexedProduct(4L, "PC Office", Set.of(3L)));
+
+        Assertions.assertEquals(9L, cache.get(gamerFilter));
+    }
+
+    @Test
+    public void updateShouldKeepTotalWhenFilterIsNotAffected() {
+        cache.update(null, new IndexedProduct(31L, "Smart TV", Set.of(1L)));
+
+        Assertions.assertEquals(10L, cache.get(gamerFilter));
+    }
+
+    @Test
+    public void putShouldIgnoreTotalCountedBeforeAChange() {
+        ProductFilter filter = new ProductFilter("tv", List.of());
+        long generation = cache.generation();
+
+        cache.update(null, new IndexedProduct(31L, "Smart TV", Set.of(1L)));
+        cache.put(filter, 1L, generation);
+
+        Assertions.assertNull(cache.get(filter));
+    }
+
+    @Test
+    public void putShouldIgnoreTotalWhileAChangeIsBeingCommitted() {
+        ProductFilter filter = new ProductFilter("tv", List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(31L, null));
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        cache.put(filter, 1L, cache.generation());
+        Assertions.assertNull(cache.get(filter));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.put(filter, 1L, cache.generation());
+        Assertions.assertEquals(1L, cache.get(filter));
+    }
+
+    @Test
+    public void putShouldStoreTotalsAfterRollback() {
+        ProductFilter filter = new ProductFilter("tv", List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onProductChanged(new ProductChangedEvent(31L, null));
+        cache.onProductChanged(new ProductChangedEvent(32L, null));
+
+        // Rollback: o beforeCommit não roda, só o afterCompletion.
+        Assertions.assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        cache.put(filter, 1L, cache.generation());
+        Assertions.assertEquals(1L, cache.get(filter));
+    }
+}
@@ -0,0 +1,53 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie();
+        trie.rebuild(List.of(
+                new IndexedProduct(1L, "PC Gamer", Set.of(3L)),
+                new IndexedProduct(2L, "PC Gamer Alfa", Set.of(3L)),
+                new IndexedProduct(3L, "PC Office", Set.of(2L)),
+                new IndexedProduct(4L, "Smart TV", Set.of(1L))));
+    }
+
+    @Test
+    public void suggestShouldReturnNamesStartingWithPrefixInAlphabeticalOrder() {
+        List<IndexedProduct> result = trie.suggest("pc ", p -> true, 10);
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), result.stream().map(IndexedProduct::getId).toList());
+    }
+
+    @Test
+    public void suggestShouldMatchAnyWordOfTheName() {
+        List<IndexedProduct> result = trie.suggest("GAM", p -> true, 10);
+
+        Assertions.assertEquals(List.of(1L, 2L), result.stream().map(IndexedProduct::getId).toList());
+    }
+
+    @Test
+    public void suggestShouldApplyFilterAndLimit() {
+        List<IndexedProduct> result = trie.suggest("pc", p -> p.getCategoryIds().contains(3L), 1);
+
+        Assertions.assertEquals(List.of(1L), result.stream().map(IndexedProduct::getId).toList());
+    }
+
+    @Test
+    public void updateShouldMoveProductToNewPrefix() {
+        trie.update(new IndexedProduct(3L, "PC Office", Set.of(2L)), new IndexedProduct(3L, "Notebook Office", Set.of(2L)));
+
+        Assertions.assertEquals(List.of(1L, 2L), trie.suggest("pc", p -> true, 10).stream().map(IndexedProduct::getId).toList());
+        Assertions.assertEquals(List.of(3L), trie.suggest("note", p -> true, 10).stream().map(IndexedProduct::getId).toList());
+        Assertions.assertEquals(List.of(3L), trie.suggest("off", p -> true, 10).stream().map(IndexedProduct::getId).toList());
+    }
+}
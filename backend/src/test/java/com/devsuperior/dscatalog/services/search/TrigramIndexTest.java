@@ -0,0 +1,91 @@
+package com.devsuperior.dscatalog.services.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.rebuild(List.of(
+                new IndexedProduct(1L, "PC Gamer", Set.of(3L)),
+                new IndexedProduct(2L, "Macbook Pro", Set.of(3L)),
+                new IndexedProduct(3L, "Smart TV", Set.of(1L))));
+    }
+
+    @Test
+    public void searchShouldIgnoreCaseAndMatchSubstrings() {
+        List<IndexedProduct> result = index.search("GAMER");
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    public void searchShouldReturnEmptyWhenNoNameContainsTerm() {
+        Assertions.assertTrue(index.search("notebook").isEmpty());
+    }
+
+    @Test
+    public void searchShouldReturnAllProductsWhenTermIsEmpty() {
+        Assertions.assertEquals(3, index.search("").size());
+    }
+
+    @Test
+    public void searchShouldMatchShortTerms() {
+        List<IndexedProduct> result = index.search("pc");
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("PC Gamer", result.get(0).getName());
+    }
+
+    @Test
+    public void updateShouldReplaceOldNameTrigrams() {
+        IndexedProduct before = new IndexedProduct(2L, "Macbook Pro", Set.of(3L));
+        IndexedProduct after = new IndexedProduct(2L, "Notebook Air", Set.of(3L));
+
+        index.update(before, after);
+
+        Assertions.assertTrue(index.search("macbook").isEmpty());
+        Assertions.assertEquals(1, index.search("book air").size());
+    }
+
+    @Test
+    public void updateShouldRemoveProductWhenAfterIsNull() {
+        index.update(new IndexedProduct(3L, "Smart TV", Set.of(1L)), null);
+
+        Assertions.assertTrue(index.search("smart").isEmpty());
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void allByNameShouldReturnProductsOrderedByNameThenId() {
+        Assertions.assertEquals(List.of(2L, 1L, 3L), ids(index.allByName()));
+    }
+
+    @Test
+    public void updateAllShouldKeepNameOrder() {
+        List<IndexedProduct> before = index.allByName();
+
+        index.updateAll(List.of(
+                new ProductIndex.Change(new IndexedProduct(2L, "Macbook Pro", Set.of(3L)),
+                        new IndexedProduct(2L, "Notebook Air", Set.of(3L))),
+                new ProductIndex.Change(null, new IndexedProduct(4L, "PC Gamer", Set.of(3L))),
+                new ProductIndex.Change(new IndexedProduct(3L, "Smart TV", Set.of(1L)), null)), null);
+
+        Assertions.assertEquals(List.of(2L, 1L, 4L), ids(index.allByName()));
+        // A lista devolvida antes não muda.
+        Assertions.assertEquals(List.of(2L, 1L, 3L), ids(before));
+    }
+
+    private static List<Long> ids(List<IndexedProduct> products) {
+        return products.stream().map(IndexedProduct::getId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.devsuperior.dscatalog.util;
+
+import com.devsuperior.dscatalog.services.search.IndexedProduct;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+public class BatchHydratorTest {
+
+    private BatchHydrator hydrator;
+    private List<Integer> batchSizes;
+    private Function<List<Long>, List<IndexedProduct>> loader;
+
+    @BeforeEach
+    void setUp() {
+        hydrator = new BatchHydrator();
+        ReflectionTestUtils.setField(hydrator, "batchSize", 8);
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        // Simula o banco: devolve os IDs em ordem decrescente, sem repetições,
+        // e ignora os IDs a partir de 1000 (produtos excluídos).
+        loader = ids -> {
+            batchSizes.add(ids.size());
+            return ids.stream()
+                    .distinct()
+                    .filter(id -> id < 1000)
+                    .sorted((a, b) -> Long.compare(b, a))
+                    .map(id -> new IndexedProduct(id, "Product " + id, List.of()))
+                    .toList();
+        };
+    }
+
+    @Test
+    public void hydrateShouldKeepOriginalOrder() {
+        List<IndexedProduct> result = hydrator.hydrate(new long[]{3, 7, 1}, loader);
+
+        Assertions.assertEquals(List.of(3L, 7L, 1L), ids(result));
+    }
+
+    @Test
+    public void hydrateShouldSkipIdsNotReturnedByLoader() {
+        List<IndexedProduct> result = hydrator.hydrate(new long[]{5, 1001, 2}, loader);
+
+        Assertions.assertEquals(List.of(5L, 2L), ids(result));
+    }
+
+    @Test
+    public void hydrateShouldPadBatchesToPowersOfTwo() {
+        long[] ids = LongStream.rangeClosed(1, 19).toArray();
+
+        List<IndexedProduct> result = hydrator.hydrate(ids, loader);
+
+        Assertions.assertEquals(List.of(8, 8, 4), batchSizes);
+        Assertions.assertEquals(LongStream.rangeClosed(1, 19).boxed().toList(), ids(result));
+    }
+
+    @Test
+    public void hydrateInParallelShouldKeepOriginalOrder() {
+        ReflectionTestUtils.setField(hydrator, "parallel", true);
+        long[] ids = LongStream.rangeClosed(1, 40).map(i -> 41 - i).toArray();
+
+        List<IndexedProduct> result = hydrator.hydrate(ids, loader);
+
+        Assertions.assertEquals(5, batchSizes.size());
+        Assertions.assertEquals(LongStream.of(ids).boxed().toList(), ids(result));
+    }
+
+    @Test
+    public void batchesShouldRepeatLastIdAsPadding() {
+        List<List<Long>> batches = BatchHydrator.batches(new long[]{1, 2, 3, 4, 5}, 8);
+
+        Assertions.assertEquals(List.of(List.of(1L, 2L, 3L, 4L, 5L, 5L, 5L, 5L)), batches);
+    }
+
+    @Test
+    public void hydrateShouldReturnEmptyListWithoutCallingLoader() {
+        List<IndexedProduct> result = hydrator.hydrate(new long[0], loader);
+
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertTrue(batchSizes.isEmpty());
+    }
+
+    private static List<Long> ids(List<IndexedProduct> products) {
+        return products.stream().map(IndexedProduct::getId).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.devsuperior.dscatalog.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+public class CsvReaderTest {
+
+    @Test
+    public void nextShouldReturnRecordsUntilEndOfFile() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,price\r\nPC Gamer,1200.0\r\n\r\nSmart TV,2190.0"));
+
+        Assertions.assertEquals(List.of("name", "price"), csv.next());
+        Assertions.assertEquals(List.of("PC Gamer", "1200.0"), csv.next());
+        Assertions.assertEquals(List.of("Smart TV", "2190.0"), csv.next());
+        Assertions.assertNull(csv.next());
+        Assertions.assertEquals(3, csv.getRecord());
+    }
+
+    @Test
+    public void nextShouldHandleQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"TV 50\"\", 4K\",\"linha 1\nlinha 2\",\n"));
+
+        Assertions.assertEquals(List.of("TV 50\", 4K", "linha 1\nlinha 2", ""), csv.next());
+        Assertions.assertNull(csv.next());
+    }
+
+    @Test
+    public void nextShouldSkipUtf8ByteOrderMark() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFname\nPC Gamer\n"));
+
+        Assertions.assertEquals(List.of("name"), csv.next());
+        Assertions.assertEquals(List.of("PC Gamer"), csv.next());
+    }
+
+    @Test
+    public void nextShouldThrowIOExceptionWhenQuoteIsNotClosed() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name\n\"PC Gamer\n"));
+        csv.next();
+
+        Assertions.assertThrows(IOException.class, csv::next);
+    }
+}
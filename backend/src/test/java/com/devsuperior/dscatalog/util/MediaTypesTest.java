@@ -0,0 +1,31 @@
+package com.devsuperior.dscatalog.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+public class MediaTypesTest {
+
+    @Test
+    public void prefersBinaryShouldReturnTrueWhenCborOrSmileHasHighestQuality() {
+        Assertions.assertTrue(MediaTypes.prefersBinary("application/cbor"));
+        Assertions.assertTrue(MediaTypes.prefersBinary("application/json;q=0.5, application/x-jackson-smile"));
+    }
+
+    @Test
+    public void prefersBinaryShouldReturnFalseForJsonWildcardsOrInvalidHeader() {
+        Assertions.assertFalse(MediaTypes.prefersBinary(null));
+        Assertions.assertFalse(MediaTypes.prefersBinary("*/*"));
+        Assertions.assertFalse(MediaTypes.prefersBinary("application/json, application/cbor"));
+        Assertions.assertFalse(MediaTypes.prefersBinary("application/cbor;q=0.1, */*"));
+        Assertions.assertFalse(MediaTypes.prefersBinary("not a media type"));
+    }
+
+    @Test
+    public void preferredBinaryShouldReturnFormatWithHighestQuality() {
+        Assertions.assertEquals(MediaType.APPLICATION_CBOR, MediaTypes.preferredBinary("application/cbor"));
+        Assertions.assertEquals(MediaTypes.APPLICATION_SMILE,
+                MediaTypes.preferredBinary("application/cbor;q=0.5, application/x-jackson-smile"));
+        Assertions.assertNull(MediaTypes.preferredBinary("application/json"));
+    }
+}